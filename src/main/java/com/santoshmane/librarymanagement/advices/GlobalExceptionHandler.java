@@ -1,21 +1,35 @@
 package com.santoshmane.librarymanagement.advices;
 
 
+import com.santoshmane.librarymanagement.deadline.RequestDeadline;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceConflictException;
 import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import com.santoshmane.librarymanagement.exceptions.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@Slf4j
 public class GlobalExceptionHandler{
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<?>> handleServerException(Exception ex){
+        // Whatever failed once the deadline passed, most likely a statement refused or cancelled for it
+        if (RequestDeadline.isExpired()){
+            return handleDeadlineExceeded(ex);
+        }
         ApiError apiError = ApiError.builder()
                 .message(ex.getLocalizedMessage())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -34,6 +48,73 @@ public class GlobalExceptionHandler{
         return buildErrorResponseEntity(apiError);
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<?>> handleBadRequestException(BadRequestException ex){
+        ApiError apiError = ApiError.builder()
+                .message(ex.getLocalizedMessage())
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(ResourceConflictException.class)
+    public ResponseEntity<ApiResponse<?>> handleResourceConflictException(ResourceConflictException ex){
+        ApiError apiError = ApiError.builder()
+                .message(ex.getLocalizedMessage())
+                .status(HttpStatus.CONFLICT)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<?>> handleServiceUnavailableException(ServiceUnavailableException ex){
+        ApiError apiError = ApiError.builder()
+                .message(ex.getLocalizedMessage())
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    @ExceptionHandler({QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<ApiResponse<?>> handleDeadlineExceeded(Exception ex){
+        log.warn("Request deadline exceeded: {}", ex.getMessage());
+        ApiError apiError = ApiError.builder()
+                .message("Request deadline exceeded, retry later")
+                .status(HttpStatus.GATEWAY_TIMEOUT)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    // No pooled connection became free in time
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiResponse<?>> handleCannotCreateTransactionException(CannotCreateTransactionException ex){
+        if (RequestDeadline.isExpired()){
+            return handleDeadlineExceeded(ex);
+        }
+        log.error("Could not start a transaction", ex);
+        ApiError apiError = ApiError.builder()
+                .message("Database unavailable, retry later")
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
+    // Query parameters selecting different variants of a read (fields, embed, ids) sent together
+    @ExceptionHandler(UnsatisfiedServletRequestParameterException.class)
+    public ResponseEntity<ApiResponse<?>> handleUnsatisfiedServletRequestParameterException(UnsatisfiedServletRequestParameterException ex){
+        ApiError apiError = ApiError.builder()
+                .message("Unsupported combination of query parameters: " + String.join(", ", ex.getActualParams().keySet()))
+                .status(HttpStatus.BAD_REQUEST)
+                .build();
+
+        return buildErrorResponseEntity(apiError);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<?>> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex){
 
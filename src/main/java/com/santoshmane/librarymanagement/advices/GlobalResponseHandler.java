@@ -1,10 +1,12 @@
 package com.santoshmane.librarymanagement.advices;
 
 import org.springframework.core.MethodParameter;
+import org.springframework.core.io.Resource;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
 
@@ -12,6 +14,9 @@ import java.util.List;
 
 @RestControllerAdvice
 public class GlobalResponseHandler implements ResponseBodyAdvice<Object> {
+    // The unwrapped body, for validators that must not change with the envelope's timeStamp (ResponseCacheFilter)
+    public static final String DATA_ATTRIBUTE = GlobalResponseHandler.class.getName() + ".data";
+
     @Override
     public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
         return true;
@@ -19,14 +24,19 @@ public class GlobalResponseHandler implements ResponseBodyAdvice<Object> {
 
     @Override
     public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
-        List<String> allowedRoutes = List.of("/v3/api-docs", "/actuator","/");
+        List<String> allowedRoutes = List.of("/v3/api-docs", "/actuator");
 
-        boolean isAllowed = allowedRoutes
+        String path = request.getURI().getPath();
+        boolean isAllowed = path.equals("/") || allowedRoutes
                 .stream()
-                .anyMatch(route -> request.getURI().getPath().contains(route));
-        if(body instanceof ApiResponse<?> || isAllowed){
+                .anyMatch(path::startsWith);
+        // File downloads are written as they are
+        if(body instanceof ApiResponse<?> || body instanceof Resource || isAllowed){
             return body;
         }
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(DATA_ATTRIBUTE, body);
+        }
         return new ApiResponse<>(body);
     }
 }
@@ -0,0 +1,280 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.config.AppConfig;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Keeps the book/author caches coherent across instances over Postgres LISTEN/NOTIFY.
+// Committed catalog changes are evicted locally and broadcast as "<node>:<seq>:<scope>:<ids>" messages,
+// where scope is BOOK, AUTHOR or ALL and ids is a comma separated list or *. Each node listens on its own
+// connection outside the pool. NOTIFY is fire-and-forget, so whenever a message may have been lost
+// (listener disconnected, a gap in a sender's sequence, a failed publish) the caches are flushed instead.
+// The response cache is cleared by every message, whatever its scope.
+@Component
+@Slf4j
+public class CacheInvalidationChannel {
+    static final String ALL = "ALL";
+    static final String WILDCARD = "*";
+    // NOTIFY payloads must stay below 8000 bytes
+    static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final long HEALTH_CHECK_INTERVAL_MS = 30_000;
+
+    private final CacheManager cacheManager;
+    private final ResponseCache responseCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcConnectionDetails connectionDetails;
+    private final boolean enabled;
+    private final String channel;
+    private final int pollTimeoutMs;
+    private final long maxReconnectDelayMs;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequenceByNode = new ConcurrentHashMap<>();
+    private final AtomicBoolean publishFailed = new AtomicBoolean();
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+
+    public CacheInvalidationChannel(CacheManager cacheManager,
+                                    ResponseCache responseCache,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    JdbcConnectionDetails connectionDetails,
+                                    @Value("${library.cache.invalidation.enabled:true}") boolean enabled,
+                                    @Value("${library.cache.invalidation.channel:library_cache_invalidation}") String channel,
+                                    @Value("${library.cache.invalidation.poll-timeout-ms:1000}") int pollTimeoutMs,
+                                    @Value("${library.cache.invalidation.max-reconnect-delay-ms:30000}") long maxReconnectDelayMs) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel name: " + channel);
+        }
+        this.cacheManager = cacheManager;
+        this.responseCache = responseCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.connectionDetails = connectionDetails;
+        this.enabled = enabled;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.maxReconnectDelayMs = maxReconnectDelayMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    // After the read model projection, so nothing re-cached after the eviction can still be the old row,
+    // and ahead of the change feed, so subscribers re-reading a change are not served the evicted entry
+    @Order(Ordered.LOWEST_PRECEDENCE - 1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        String scope = event.getEntityType().name();
+        String ids = event.getIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+        evict(scope, ids);
+        if (enabled) {
+            publish(scope, ids);
+        }
+    }
+
+    // Retries as a full flush, the individual messages that failed are not kept
+    @Scheduled(fixedDelayString = "${library.cache.invalidation.retry-interval-ms:5000}")
+    public void retryFailedPublish() {
+        if (enabled && publishFailed.getAndSet(false)) {
+            log.info("Broadcasting full cache flush after a failed invalidation publish");
+            publish(ALL, WILDCARD);
+        }
+    }
+
+    // A message that cannot be applied must not stop the listener, whatever it meant to evict is flushed instead
+    void onNotification(String payload) {
+        try {
+            apply(payload);
+        } catch (RuntimeException ex) {
+            log.error("Failed to apply cache invalidation message: {}, flushing caches", payload, ex);
+            flushAll();
+        }
+    }
+
+    void apply(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed cache invalidation message: {}", payload);
+            return;
+        }
+        String sender = parts[0];
+        if (nodeId.equals(sender)) {
+            return;
+        }
+        long senderSequence;
+        try {
+            senderSequence = Long.parseLong(parts[1]);
+        } catch (NumberFormatException ex) {
+            log.warn("Ignoring malformed cache invalidation message: {}", payload);
+            return;
+        }
+        Long previous = lastSequenceByNode.put(sender, senderSequence);
+        if (previous != null && senderSequence != previous + 1) {
+            log.warn("Missed cache invalidations from node {} ({} after {}), flushing caches", sender, senderSequence, previous);
+            flushAll();
+            return;
+        }
+        evict(parts[2], parts[3]);
+    }
+
+    void evict(String scope, String ids) {
+        responseCache.clear();
+        if (ALL.equals(scope)) {
+            flushAll();
+            return;
+        }
+        boolean authors = EntityType.AUTHOR.name().equals(scope);
+        Cache cache = cacheManager.getCache(authors ? AppConfig.AUTHORS_CACHE : AppConfig.BOOKS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        if (WILDCARD.equals(ids)) {
+            cache.clear();
+        } else {
+            for (String id : ids.split(",")) {
+                cache.evict(Long.valueOf(id));
+            }
+        }
+        if (authors) {
+            // Cached books carry their author's name
+            clear(AppConfig.BOOKS_CACHE);
+        }
+    }
+
+    void flushAll() {
+        responseCache.clear();
+        cacheManager.getCacheNames().forEach(this::clear);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    // Serialized so messages commit, and reach other nodes, in sequence order
+    private synchronized void publish(String scope, String ids) {
+        String prefix = nodeId + ":" + sequence.incrementAndGet() + ":" + scope + ":";
+        String message = prefix.length() + ids.length() > MAX_PAYLOAD_LENGTH ? prefix + WILDCARD : prefix + ids;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, channel, message));
+        } catch (DataAccessException ex) {
+            // Other nodes will see a sequence gap with the next message or get the retried full flush
+            log.error("Failed to publish cache invalidation {}, retrying as a full flush", message, ex);
+            publishFailed.set(true);
+        }
+    }
+
+    private void listen() {
+        long reconnectDelayMs = 1000;
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    connectionDetails.getJdbcUrl(), connectionDetails.getUsername(), connectionDetails.getPassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (connectedBefore) {
+                    log.info("Reconnected cache invalidation listener, flushing caches");
+                    flushAll();
+                } else {
+                    log.info("Listening for cache invalidations on channel {} as node {}", channel, nodeId);
+                }
+                connectedBefore = true;
+                reconnectDelayMs = 1000;
+                receive(connection);
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                // Anything committed elsewhere from here on is not heard of until the reconnect flush
+                log.error("Cache invalidation listener disconnected, retrying in {} ms", reconnectDelayMs, ex);
+                flushAll();
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelayMs = Math.min(reconnectDelayMs * 2, maxReconnectDelayMs);
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastHealthCheck = System.currentTimeMillis();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    onNotification(notification.getParameter());
+                }
+            }
+            // A half-open socket can block without error, a round trip proves the connection is alive
+            if (System.currentTimeMillis() - lastHealthCheck > HEALTH_CHECK_INTERVAL_MS) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("select 1");
+                }
+                lastHealthCheck = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
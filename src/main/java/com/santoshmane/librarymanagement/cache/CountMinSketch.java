@@ -0,0 +1,67 @@
+package com.santoshmane.librarymanagement.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Count-min sketch over long keys: depth rows of width counters, an estimate is the smallest of a key's
+// counters. Never under-counts; over-counts by at most 2/width of all additions with probability 1 - 1/2^depth.
+// Fixed memory whatever the number of keys. Safe for concurrent use.
+final class CountMinSketch {
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+
+    CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Sketch width and depth must be positive, were " + width + " and " + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(Math.multiplyExact(width, depth));
+    }
+
+    // Returns the key's estimate after adding count
+    long add(long key, long count) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(row, first, second), count));
+        }
+        return estimate;
+    }
+
+    long estimate(long key) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, first, second)));
+        }
+        return estimate;
+    }
+
+    // Ages every count so keys that were hot long ago give way to the current ones
+    void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+    }
+
+    long memoryBytes() {
+        return (long) counters.length() * Long.BYTES;
+    }
+
+    private int index(int row, int first, int second) {
+        return row * width + (int) (Integer.toUnsignedLong(first + row * second) % width);
+    }
+
+    // SplitMix64 finalizer, sequential ids spread over all counters
+    private static long mix(long key) {
+        long hash = key + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,105 @@
+package com.santoshmane.librarymanagement.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// An @Cacheable miss looks the key up, loads the value and puts it. An eviction committed in between would be
+// undone by that put, so the generation seen at the miss is kept per thread and a put made after any eviction
+// since is taken out again, as ResponseCache.put does.
+public class GenerationGuardedCache implements Cache {
+
+    private final Cache delegate;
+    // Bumped before every eviction
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    public GenerationGuardedCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        long missGeneration = generation.get();
+        ValueWrapper value = delegate.get(key);
+        if (value == null) {
+            pendingLoad.set(new PendingLoad(key, missGeneration));
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        PendingLoad load = pendingLoad.get();
+        pendingLoad.remove();
+        delegate.put(key, value);
+        if (load != null && load.key().equals(key) && generation.get() != load.generation()) {
+            delegate.evict(key);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        generation.incrementAndGet();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generation.incrementAndGet();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        generation.incrementAndGet();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        generation.incrementAndGet();
+        return delegate.invalidate();
+    }
+
+    private record PendingLoad(Object key, long generation) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.santoshmane.librarymanagement.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Wraps the caches of the auto-configured CacheManager in GenerationGuardedCache
+public class GenerationGuardedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, GenerationGuardedCache> caches = new ConcurrentHashMap<>();
+
+    public GenerationGuardedCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, key -> new GenerationGuardedCache(target));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
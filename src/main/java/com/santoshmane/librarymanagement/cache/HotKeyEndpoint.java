@@ -0,0 +1,23 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.dtos.HotKeysDto;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// /actuator/hotkeys: the hottest books, authors and createdBy author ids on this node
+@Component
+@Endpoint(id = "hotkeys")
+public class HotKeyEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeyEndpoint(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @ReadOperation
+    public HotKeysDto hotKeys() {
+        return hotKeyTracker.getHotKeys();
+    }
+}
@@ -0,0 +1,68 @@
+package com.santoshmane.librarymanagement.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.function.LongConsumer;
+
+// Counts successful reads of the tracked paths for HotKeyTracker. Runs ahead of ResponseCacheFilter so
+// responses served from the response cache count too, and after the fact so 404s and bad ids do not.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class HotKeyFilter extends OncePerRequestFilter {
+    private static final PathPattern BOOK = PathPatternParser.defaultInstance.parse("/books/{id}");
+    private static final PathPattern AUTHOR = PathPatternParser.defaultInstance.parse("/authors/{id}");
+    private static final PathPattern BOOKS_BY_AUTHOR = PathPatternParser.defaultInstance.parse("/books/createdBy/{id}");
+
+    private final HotKeyTracker hotKeyTracker;
+
+    public HotKeyFilter(HotKeyTracker hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !hotKeyTracker.isEnabled() || !HttpMethod.GET.matches(request.getMethod())
+                || request.getHeader(HotKeyTracker.WARM_UP_HEADER) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        int status = response.getStatus();
+        if (status != HttpServletResponse.SC_OK && status != HttpServletResponse.SC_NOT_MODIFIED) {
+            return;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        if (!record(BOOK, path, hotKeyTracker::recordBook)
+                && !record(AUTHOR, path, hotKeyTracker::recordAuthor)) {
+            record(BOOKS_BY_AUTHOR, path, hotKeyTracker::recordBooksByAuthor);
+        }
+    }
+
+    // Only numeric ids, /books/search and the like share the pattern
+    private static boolean record(PathPattern pattern, PathContainer path, LongConsumer recorder) {
+        PathPattern.PathMatchInfo match = pattern.matchAndExtract(path);
+        if (match == null) {
+            return false;
+        }
+        try {
+            recorder.accept(Long.parseLong(match.getUriVariables().get("id")));
+            return true;
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santoshmane.librarymanagement.dtos.HotKeyDto;
+import com.santoshmane.librarymanagement.dtos.HotKeysDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+
+// Access counts of GET /books/{id}, /authors/{id} and /books/createdBy/{authorId} (see HotKeyFilter), top-k per
+// path over a count-min sketch. The hot set is written to disk periodically and read back on startup. It is the
+// one source of hot ids: CatalogSnapshotService fills the entity caches with the hot books and authors, and the
+// createdBy responses are warmed here, both before the instance reports ready.
+@Component
+@Slf4j
+public class HotKeyTracker {
+    // Set on warm-up requests, which must not count as accesses
+    public static final String WARM_UP_HEADER = "X-Cache-Warm-Up";
+
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final boolean enabled;
+    private final Path path;
+    private final HotKeys books;
+    private final HotKeys authors;
+    private final HotKeys booksByAuthor;
+
+    public HotKeyTracker(ObjectMapper objectMapper,
+                         Environment environment,
+                         @Value("${library.hot-keys.enabled:true}") boolean enabled,
+                         @Value("${library.hot-keys.path:data/hot-keys.json}") Path path,
+                         @Value("${library.hot-keys.top-k:100}") int topK,
+                         @Value("${library.hot-keys.sketch-width:4096}") int sketchWidth,
+                         @Value("${library.hot-keys.sketch-depth:4}") int sketchDepth) {
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.enabled = enabled;
+        this.path = path;
+        this.books = new HotKeys(topK, sketchWidth, sketchDepth);
+        this.authors = new HotKeys(topK, sketchWidth, sketchDepth);
+        this.booksByAuthor = new HotKeys(topK, sketchWidth, sketchDepth);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordBook(long id) {
+        books.record(id);
+    }
+
+    public void recordAuthor(long id) {
+        authors.record(id);
+    }
+
+    public void recordBooksByAuthor(long authorId) {
+        booksByAuthor.record(authorId);
+    }
+
+    public HotKeysDto getHotKeys() {
+        return HotKeysDto.builder()
+                .capturedAt(Instant.now())
+                .books(books.top())
+                .authors(authors.top())
+                .booksByAuthor(booksByAuthor.top())
+                .build();
+    }
+
+    public List<Long> hotBookIds() {
+        return ids(books.top());
+    }
+
+    public List<Long> hotAuthorIds() {
+        return ids(authors.top());
+    }
+
+    public long memoryBytes() {
+        return books.memoryBytes() + authors.memoryBytes() + booksByAuthor.memoryBytes();
+    }
+
+    // Before any ApplicationReadyEvent listener, so the counts are back when CatalogSnapshotService warms the caches
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        HotKeysDto persisted = load();
+        if (persisted == null) {
+            return;
+        }
+        restore(books, persisted.getBooks());
+        restore(authors, persisted.getAuthors());
+        restore(booksByAuthor, persisted.getBooksByAuthor());
+        log.info("Restored the hot set of {} from {}", persisted.getCapturedAt(), path);
+    }
+
+    // Readiness only turns to ACCEPTING_TRAFFIC once the ApplicationReadyEvent listeners have returned
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int warmedResponses = warmBooksByAuthor(ids(booksByAuthor.top()));
+        if (warmedResponses > 0) {
+            log.info("Preloaded {} createdBy responses from the hot set in {} ms", warmedResponses, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${library.hot-keys.persist-interval-ms:60000}", fixedDelayString = "${library.hot-keys.persist-interval-ms:60000}")
+    public void persist() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), getHotKeys());
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException ex) {
+            log.error("Failed to write hot set {}", path, ex);
+        }
+    }
+
+    // Halving keeps the counts weighted towards recent traffic
+    @Scheduled(initialDelayString = "${library.hot-keys.decay-interval-ms:600000}", fixedDelayString = "${library.hot-keys.decay-interval-ms:600000}")
+    public void decay() {
+        books.decay();
+        authors.decay();
+        booksByAuthor.decay();
+    }
+
+    // Null when there is no usable hot set
+    HotKeysDto load() {
+        if (!Files.exists(path)) {
+            log.info("No hot set at {}, starting with cold caches", path);
+            return null;
+        }
+        try {
+            return objectMapper.readValue(path.toFile(), HotKeysDto.class);
+        } catch (IOException ex) {
+            log.error("Ignoring unreadable hot set {}", path, ex);
+            return null;
+        }
+    }
+
+    private static void restore(HotKeys hotKeys, List<HotKeyDto> persisted) {
+        if (persisted != null) {
+            persisted.forEach(key -> hotKeys.add(key.getId(), key.getEstimatedAccesses()));
+        }
+    }
+
+    private static List<Long> ids(List<HotKeyDto> keys) {
+        return keys.stream().map(HotKeyDto::getId).toList();
+    }
+
+    // createdBy responses are cached serialized by ResponseCacheFilter, so they are warmed through the server itself.
+    // Without an Accept header, the same entries clients that do not negotiate a format hit.
+    private int warmBooksByAuthor(List<Long> authorIds) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || authorIds.isEmpty()) {
+            return 0;
+        }
+        RestClient restClient = RestClient.create("http://localhost:" + port);
+        int warmed = 0;
+        for (Long authorId : authorIds) {
+            try {
+                restClient.get()
+                        .uri("/books/createdBy/{authorId}", authorId)
+                        .header(WARM_UP_HEADER, "true")
+                        .retrieve()
+                        .toBodilessEntity();
+                warmed++;
+            } catch (RestClientException ex) {
+                log.warn("Failed to warm books created by author id: {}, {}", authorId, ex.getMessage());
+            }
+        }
+        return warmed;
+    }
+}
@@ -0,0 +1,75 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.dtos.HotKeyDto;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Top-k keys by access count, counted in a count-min sketch so memory stays fixed however many keys are seen.
+// A key outside the top k only takes the lock when its estimate beats the smallest one kept.
+final class HotKeys {
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final Map<Long, Long> top = new ConcurrentHashMap<>();
+    // Smallest estimate in a full top k, 0 until it fills up
+    private volatile long threshold;
+
+    HotKeys(int capacity, int sketchWidth, int sketchDepth) {
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+    }
+
+    void record(long key) {
+        add(key, 1);
+    }
+
+    // Restores persisted counts
+    void add(long key, long count) {
+        long estimate = sketch.add(key, count);
+        if (top.computeIfPresent(key, (k, previous) -> Math.max(previous, estimate)) != null
+                || (top.size() >= capacity && estimate <= threshold)) {
+            return;
+        }
+        synchronized (this) {
+            if (top.size() < capacity) {
+                top.merge(key, estimate, Math::max);
+            } else if (!top.containsKey(key)) {
+                Map.Entry<Long, Long> coldest = coldest();
+                if (coldest != null && estimate > coldest.getValue()) {
+                    top.remove(coldest.getKey());
+                    top.put(key, estimate);
+                }
+            }
+            if (top.size() >= capacity) {
+                Map.Entry<Long, Long> coldest = coldest();
+                threshold = coldest == null ? 0 : coldest.getValue();
+            }
+        }
+    }
+
+    // Hottest first
+    List<HotKeyDto> top() {
+        return top.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(entry -> new HotKeyDto(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    synchronized void decay() {
+        sketch.halve();
+        top.replaceAll((key, count) -> count >>> 1);
+        top.values().removeIf(count -> count == 0);
+        Map.Entry<Long, Long> coldest = top.size() >= capacity ? coldest() : null;
+        threshold = coldest == null ? 0 : coldest.getValue();
+    }
+
+    long memoryBytes() {
+        return sketch.memoryBytes();
+    }
+
+    private Map.Entry<Long, Long> coldest() {
+        return top.entrySet().stream().min(Comparator.comparingLong(Map.Entry::getValue)).orElse(null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+// Serialized bodies of hot collection responses, see ResponseCacheFilter. Entries cannot be mapped back
+// to the books they contain, so every catalog change clears the whole cache (CacheInvalidationChannel).
+@Component
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+    // Bumped before every clear, a response computed across a clear is never kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(@Value("${library.response-cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${library.response-cache.expire-after-write-ms:600000}") long expireAfterWriteMs) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.size())
+                .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    // generation is the value read before the response was computed
+    public void put(String key, CachedResponse response, long generation) {
+        responses.put(key, response);
+        if (this.generation.get() != generation) {
+            responses.invalidate(key);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    public record CachedResponse(String contentType, byte[] body, byte[] gzippedBody, String etag) {
+
+        public static CachedResponse of(String contentType, byte[] body, int gzipMinBytes) {
+            return of(contentType, body, body, gzipMinBytes);
+        }
+
+        // The ETag is derived from validatorSource and the content type, so parts of the body that change
+        // without the data changing (the envelope's timeStamp) do not change it
+        public static CachedResponse of(String contentType, byte[] body, byte[] validatorSource, int gzipMinBytes) {
+            byte[] gzippedBody = body.length >= gzipMinBytes ? gzip(body) : null;
+            byte[] typeBytes = (contentType + "\n").getBytes(StandardCharsets.UTF_8);
+            byte[] hashed = Arrays.copyOf(typeBytes, typeBytes.length + validatorSource.length);
+            System.arraycopy(validatorSource, 0, hashed, typeBytes.length, validatorSource.length);
+            return new CachedResponse(contentType, body, gzippedBody, "\"0" + DigestUtils.md5DigestAsHex(hashed) + "\"");
+        }
+
+        // Each content-coding is a different representation and needs its own strong validator
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        int size() {
+            return body.length + (gzippedBody == null ? 0 : gzippedBody.length);
+        }
+
+        private static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+                gzip.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return gzipped.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santoshmane.librarymanagement.advices.GlobalResponseHandler;
+import com.santoshmane.librarymanagement.cache.ResponseCache.CachedResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serves the configured GET routes from ResponseCache: a hit writes the stored bytes without reaching
+// a controller or serializer. Keyed by path, query and Accept, since JSON, CBOR and Smile share routes.
+// A hit replays the stored envelope, so its timeStamp is the time the response was computed. The ETag covers
+// only the data, so a response recomputed after a clear revalidates with 304 when nothing changed.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    public static final String RESPONSE_CACHE_HEADER = "X-Response-Cache";
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<PathPattern> routes;
+    private final String cacheControl;
+    private final int gzipMinBytes;
+
+    public ResponseCacheFilter(ResponseCache responseCache,
+                               ObjectMapper objectMapper,
+                               @Value("${library.response-cache.enabled:true}") boolean enabled,
+                               @Value("${library.response-cache.routes:/books/getAfterDate/*,/books/createdBy/*}") List<String> routes,
+                               @Value("${library.response-cache.max-age-seconds:0}") long maxAgeSeconds,
+                               @Value("${library.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.routes = routes.stream().map(PathPatternParser.defaultInstance::parse).toList();
+        // Without a max age clients revalidate every time, which the ETag turns into a bodiless 304
+        this.cacheControl = (maxAgeSeconds > 0 ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS) : CacheControl.noCache())
+                .getHeaderValue();
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !HttpMethod.GET.matches(request.getMethod())) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return routes.stream().noneMatch(route -> route.matches(path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = key(request);
+        CachedResponse cached = responseCache.get(key);
+        if (cached != null) {
+            write(request, response, cached, "HIT");
+            return;
+        }
+        long generation = responseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || wrapper.getContentType() == null) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] body = wrapper.getContentAsByteArray();
+        Object data = request.getAttribute(GlobalResponseHandler.DATA_ATTRIBUTE);
+        byte[] validatorSource = data == null ? body : objectMapper.writeValueAsBytes(data);
+        CachedResponse fresh = CachedResponse.of(wrapper.getContentType(), body, validatorSource, gzipMinBytes);
+        responseCache.put(key, fresh, generation);
+        write(request, response, fresh, "MISS");
+    }
+
+    private void write(HttpServletRequest request, HttpServletResponse response, CachedResponse cached, String outcome) throws IOException {
+        response.setHeader(RESPONSE_CACHE_HEADER, outcome);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        boolean gzipped = cached.gzippedBody() != null && acceptsGzip(request);
+        // Sets the ETag, and a 304 when it matches If-None-Match
+        if (new ServletWebRequest(request, response).checkNotModified(gzipped ? cached.gzipEtag() : cached.etag())) {
+            return;
+        }
+        byte[] body = cached.body();
+        if (gzipped) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            body = cached.gzippedBody();
+        }
+        response.setContentType(cached.contentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static String key(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + (query == null ? "" : "?" + query) + " " + (accept == null ? "*/*" : accept);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
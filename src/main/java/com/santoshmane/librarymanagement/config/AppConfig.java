@@ -1,13 +1,80 @@
 package com.santoshmane.librarymanagement.config;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.santoshmane.librarymanagement.cache.GenerationGuardedCacheManager;
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.deadline.DeadlineTransactionManager;
+import com.santoshmane.librarymanagement.entities.Book;
+import jakarta.persistence.EntityManagerFactory;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import java.util.List;
 
 @Configuration
+@EnableScheduling
+@EnableCaching
 public class AppConfig {
+    public static final String BOOKS_CACHE = "books";
+    public static final String AUTHORS_CACHE = "authors";
+
+    // Author.books is lazy: mapping it would load every author's books only for them to be dropped again.
+    // It is never mapped in either direction, ?embed=books fills AuthorDto.books with explicit queries instead.
     @Bean
     public ModelMapper modelMapper(){
-        return new ModelMapper();
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.typeMap(Author.class, AuthorDto.class).addMappings(mapper -> mapper.skip(AuthorDto::setBooks));
+        modelMapper.typeMap(AuthorDto.class, Author.class).addMappings(mapper -> mapper.skip(Author::setBooks));
+        modelMapper.typeMap(Book.class, BookDto.class).addMappings(mapper -> mapper.<List<BookDto>>skip((bookDto, books) -> bookDto.getCreatedBy().setBooks(books)));
+        return modelMapper;
+    }
+
+    // Binary formats for bulk consumers, built from the same Jackson settings as JSON.
+    // JSON stays the default since these converters are ordered after the JSON one.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder){
+        return new MappingJackson2CborHttpMessageConverter(objectMapperBuilder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder){
+        return new MappingJackson2SmileHttpMessageConverter(objectMapperBuilder.factory(new SmileFactory()).build());
+    }
+
+    // Replaces Boot's JpaTransactionManager so request deadlines reach the database
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers){
+        DeadlineTransactionManager transactionManager = new DeadlineTransactionManager(entityManagerFactory);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    // Keeps Boot's cache auto-configuration (spring.cache.*) and guards its caches against a load racing an eviction
+    @Bean
+    public static BeanPostProcessor generationGuardedCacheManagerPostProcessor(){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CacheManager cacheManager && !(bean instanceof GenerationGuardedCacheManager)
+                        ? new GenerationGuardedCacheManager(cacheManager)
+                        : bean;
+            }
+        };
     }
 }
@@ -1,6 +1,7 @@
 package com.santoshmane.librarymanagement.controllers;
 
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
 import com.santoshmane.librarymanagement.services.AuthorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +10,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @RequestMapping("/authors")
@@ -16,16 +19,47 @@ import java.util.List;
 public class AuthorController {
     private final AuthorService authorService;
 
-    @GetMapping
+    // Each variant excludes the others' parameters, a request combining them is answered with 400
+    @GetMapping(params = {"!fields", "!embed", "!ids"})
     public ResponseEntity<List<AuthorDto>> getAllAuthors(){
         return ResponseEntity.ok(authorService.getAllAuthors());
     }
 
-    @GetMapping("/{id}")
+    @GetMapping(params = {"fields", "!embed", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllAuthors(@RequestParam Set<String> fields){
+        return ResponseEntity.ok(authorService.getAllAuthors(fields));
+    }
+
+    @GetMapping(params = {"embed", "!fields", "!ids"})
+    public ResponseEntity<List<AuthorDto>> getAllAuthorsEmbedded(@RequestParam Set<String> embed){
+        return ResponseEntity.ok(authorService.getAllAuthorsEmbedded(embed));
+    }
+
+    @GetMapping(params = {"ids", "!fields", "!embed"})
+    public ResponseEntity<List<BatchItemDto<AuthorDto>>> getAuthorsByIds(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(authorService.getAuthorsByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemDto<AuthorDto>>> getAuthorsByIdsBatch(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(authorService.getAuthorsByIds(ids));
+    }
+
+    @GetMapping(value = "/{id}", params = {"!embed", "!fields"})
     public ResponseEntity<AuthorDto> getAuthorById(@PathVariable Long id){
         return ResponseEntity.ok(authorService.getAuthorById(id));
     }
 
+    @GetMapping(value = "/{id}", params = {"embed", "!fields"})
+    public ResponseEntity<AuthorDto> getAuthorByIdEmbedded(@PathVariable Long id,@RequestParam Set<String> embed){
+        return ResponseEntity.ok(authorService.getAuthorByIdEmbedded(id,embed));
+    }
+
+    @GetMapping(value = "/{id}", params = {"fields", "!embed"})
+    public ResponseEntity<Map<String, Object>> getAuthorById(@PathVariable Long id,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(authorService.getAuthorById(id,fields));
+    }
+
     @PostMapping
     public ResponseEntity<AuthorDto> createNewAuthor(@RequestBody @Valid AuthorDto authorDto){
         return new ResponseEntity(authorService.createNewAuthor(authorDto), HttpStatus.CREATED);
@@ -42,8 +76,23 @@ public class AuthorController {
         return ResponseEntity.noContent().build();
     }
 
-    @GetMapping("/name/{name}")
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<AuthorDto>> autocompleteAuthors(@RequestParam String prefix,@RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(authorService.autocompleteAuthors(prefix,limit));
+    }
+
+    @GetMapping(value = "/name/{name}", params = {"!embed", "!fields"})
     public ResponseEntity<List<AuthorDto>> getAuthorsByName(@PathVariable String name){
         return ResponseEntity.ok(authorService.getAuthorsByName(name));
     }
+
+    @GetMapping(value = "/name/{name}", params = {"embed", "!fields"})
+    public ResponseEntity<List<AuthorDto>> getAuthorsByNameEmbedded(@PathVariable String name,@RequestParam Set<String> embed){
+        return ResponseEntity.ok(authorService.getAuthorsByNameEmbedded(name,embed));
+    }
+
+    @GetMapping(value = "/name/{name}", params = {"fields", "!embed"})
+    public ResponseEntity<List<Map<String, Object>>> getAuthorsByName(@PathVariable String name,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(authorService.getAuthorsByName(name,fields));
+    }
 }
@@ -1,6 +1,15 @@
 package com.santoshmane.librarymanagement.controllers;
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
 import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.dtos.BookImportDto;
+import com.santoshmane.librarymanagement.dtos.BookPageDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentResultDto;
+import com.santoshmane.librarymanagement.dtos.BookSearchDto;
+import com.santoshmane.librarymanagement.dtos.RelatedBookDto;
+import com.santoshmane.librarymanagement.services.BookImportService;
 import com.santoshmane.librarymanagement.services.BookService;
+import com.santoshmane.librarymanagement.services.BookWriteCoalescer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,8 +17,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RequiredArgsConstructor
 @RestController
@@ -17,29 +31,90 @@ import java.util.List;
 @Slf4j
 public class BookController {
     private final BookService bookService;
+    private final BookImportService bookImportService;
+    private final BookWriteCoalescer bookWriteCoalescer;
 
-    @GetMapping
+    // Each variant excludes the others' parameters, a request combining them is answered with 400
+    @GetMapping(params = {"!fields", "!ids"})
     public ResponseEntity<List<BookDto>> getAllBooks(){
         return ResponseEntity.ok(bookService.getAllBooks());
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    public ResponseEntity<List<Map<String, Object>>> getAllBooks(@RequestParam Set<String> fields){
+        return ResponseEntity.ok(bookService.getAllBooks(fields));
+    }
+
+    @GetMapping(params = {"ids", "!fields"})
+    public ResponseEntity<List<BatchItemDto<BookDto>>> getBooksByIds(@RequestParam List<Long> ids){
+        return ResponseEntity.ok(bookService.getBooksByIds(ids));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemDto<BookDto>>> getBooksByIdsBatch(@RequestBody List<Long> ids){
+        return ResponseEntity.ok(bookService.getBooksByIds(ids));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<BookPageDto> searchBooks(@ModelAttribute BookSearchDto search){
+        return ResponseEntity.ok(bookService.searchBooks(search));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookDto> getBookById(@PathVariable Long id){
         return ResponseEntity.ok(bookService.getBookById(id));
     }
 
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedBookDto>> getRelatedBooks(@PathVariable Long id,@RequestParam(defaultValue = "10") int limit){
+        return ResponseEntity.ok(bookService.getRelatedBooks(id,limit));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getBookById(@PathVariable Long id,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(bookService.getBookById(id,fields));
+    }
+
     @PostMapping
     public ResponseEntity<BookDto> createNewBook(@RequestBody @Valid BookDto bookDto){
         return new ResponseEntity(bookService.createNewBook(bookDto), HttpStatus.CREATED);
     }
 
+    // Streams the request body straight into COPY, columns: title, description, publish_date, author_name
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<BookImportDto> importBooks(InputStream csv,@RequestParam(defaultValue = "true") boolean header){
+        return new ResponseEntity<>(bookImportService.importBooks(csv,header), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/imports")
+    public ResponseEntity<List<BookImportDto>> getImports(){
+        return ResponseEntity.ok(bookImportService.getImports());
+    }
+
+    @GetMapping("/imports/{importId}")
+    public ResponseEntity<BookImportDto> getImport(@PathVariable UUID importId){
+        return ResponseEntity.ok(bookImportService.getImport(importId));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookDto> updateBookById(@RequestBody @Valid BookDto bookDto,@PathVariable Long id){
+        bookWriteCoalescer.drain(id);
         return ResponseEntity.ok(bookService.updateBookById(id,bookDto));
     }
 
+    // Coalesced with other updates of the book, ack=flush answers 200 once written, ack=enqueue answers 202 at once
+    @PutMapping(value = "/{id}", params = "ack")
+    public CompletableFuture<ResponseEntity<BookDto>> updateBookByIdCoalesced(@RequestBody @Valid BookDto bookDto,@PathVariable Long id,@RequestParam String ack){
+        BookWriteCoalescer.Ack mode = BookWriteCoalescer.parseAck(ack);
+        return bookWriteCoalescer.update(id,bookDto,mode)
+                .thenApply(book -> mode == BookWriteCoalescer.Ack.ENQUEUE && bookWriteCoalescer.isEnabled()
+                        ? ResponseEntity.accepted().body(book)
+                        : ResponseEntity.ok(book));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteBookById(@PathVariable Long id){
+        bookWriteCoalescer.drain(id);
         bookService.deleteBookById(id);
         return ResponseEntity.noContent().build();
     }
@@ -49,20 +124,42 @@ public class BookController {
         return ResponseEntity.ok(bookService.getBooksPublishedAfterDate(date));
     }
 
+    @GetMapping(value = "/getAfterDate/{date}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getBooksPublishedAfterDate(@PathVariable LocalDate date,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(bookService.getBooksPublishedAfterDate(date,fields));
+    }
+
     @GetMapping("/title/{title}")
     public ResponseEntity<List<BookDto>> getBooksByTitle(@PathVariable String title){
         return ResponseEntity.ok(bookService.getBooksByTitle(title));
     }
 
+    @GetMapping(value = "/title/{title}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getBooksByTitle(@PathVariable String title,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(bookService.getBooksByTitle(title,fields));
+    }
+
     @GetMapping("/createdBy/{authorId}")
     public ResponseEntity<List<BookDto>> getBookByAuthor(@PathVariable Long authorId){
         List<BookDto> bookDtos = bookService.getBooksCreatedBy(authorId);
-        log.info("Fetched books:{}",bookDtos);
+        log.debug("Fetched {} books for author id: {}",bookDtos.size(),authorId);
         return ResponseEntity.ok(bookDtos);
     }
 
+    @GetMapping(value = "/createdBy/{authorId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getBookByAuthor(@PathVariable Long authorId,@RequestParam Set<String> fields){
+        return ResponseEntity.ok(bookService.getBooksCreatedBy(authorId,fields));
+    }
+
+    @PutMapping("/reassignAuthor")
+    public ResponseEntity<BookReassignmentResultDto> reassignBooks(@RequestBody @Valid BookReassignmentDto reassignmentDto){
+        bookWriteCoalescer.flush();
+        return ResponseEntity.ok(bookService.reassignBooks(reassignmentDto));
+    }
+
     @PutMapping("{bookId}/assignAuthorToBook/{authorId}")
     public ResponseEntity<BookDto> assignAuthorToBook(@PathVariable Long bookId,@PathVariable Long authorId){
+        bookWriteCoalescer.drain(bookId);
         return ResponseEntity.ok(bookService.assignAuthorToBook(bookId,authorId));
     }
 }
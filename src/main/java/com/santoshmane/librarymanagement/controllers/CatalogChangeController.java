@@ -0,0 +1,22 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.services.CatalogChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/catalog/changes")
+public class CatalogChangeController {
+    private final CatalogChangeFeed catalogChangeFeed;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return catalogChangeFeed.subscribe(lastEventId);
+    }
+}
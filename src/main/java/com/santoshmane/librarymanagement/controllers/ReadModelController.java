@@ -0,0 +1,27 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.BookCatalogStatusDto;
+import com.santoshmane.librarymanagement.services.BookCatalogProjector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/admin/read-model/books")
+public class ReadModelController {
+    private final BookCatalogProjector bookCatalogProjector;
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<BookCatalogStatusDto> rebuild(){
+        return ResponseEntity.ok(bookCatalogProjector.rebuild());
+    }
+
+    @GetMapping("/consistency")
+    public ResponseEntity<BookCatalogStatusDto> checkConsistency(){
+        return ResponseEntity.ok(bookCatalogProjector.checkConsistency());
+    }
+}
@@ -0,0 +1,53 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.ReportJobDto;
+import com.santoshmane.librarymanagement.services.ReportJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/reports")
+public class ReportController {
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    public ResponseEntity<ReportJobDto> submitReport(@RequestBody @Valid ReportJobDto reportJobDto){
+        return new ResponseEntity<>(reportJobService.submit(reportJobDto), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ReportJobDto>> getReports(){
+        return ResponseEntity.ok(reportJobService.getJobs());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReportJobDto> getReport(@PathVariable UUID id){
+        return ResponseEntity.ok(reportJobService.getJob(id));
+    }
+
+    @GetMapping("/{id}/result")
+    public ResponseEntity<Resource> getReportResult(@PathVariable UUID id){
+        Resource result = reportJobService.getResult(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(reportJobService.getResultFileName(id)).build().toString())
+                .body(result);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ReportJobDto> cancelReport(@PathVariable UUID id){
+        return ResponseEntity.ok(reportJobService.cancel(id));
+    }
+}
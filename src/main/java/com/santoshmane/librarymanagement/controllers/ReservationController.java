@@ -0,0 +1,45 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.ReservationDto;
+import com.santoshmane.librarymanagement.services.ReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("/books/{bookId}/reservations")
+public class ReservationController {
+    private final ReservationService reservationService;
+
+    @GetMapping
+    public ResponseEntity<List<ReservationDto>> getReservations(@PathVariable Long bookId){
+        return ResponseEntity.ok(reservationService.getReservations(bookId));
+    }
+
+    @PostMapping
+    public ResponseEntity<ReservationDto> createReservation(@PathVariable Long bookId,@RequestBody @Valid ReservationDto reservationDto){
+        return new ResponseEntity<>(reservationService.createReservation(bookId,reservationDto), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ReservationDto> getReservationPosition(@PathVariable Long bookId,@PathVariable UUID reservationId){
+        return ResponseEntity.ok(reservationService.getReservationPosition(bookId,reservationId));
+    }
+
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<?> cancelReservation(@PathVariable Long bookId,@PathVariable UUID reservationId){
+        reservationService.cancelReservation(bookId,reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/promote")
+    public ResponseEntity<ReservationDto> promoteNextReservation(@PathVariable Long bookId){
+        return ResponseEntity.ok(reservationService.promoteNextReservation(bookId));
+    }
+}
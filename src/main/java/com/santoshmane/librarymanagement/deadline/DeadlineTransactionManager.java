@@ -0,0 +1,54 @@
+package com.santoshmane.librarymanagement.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DelegatingTransactionDefinition;
+import org.springframework.transaction.support.ResourceHolderSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.OptionalLong;
+
+// Transactions begun while serving a request time out with the request's deadline, rounded up to whole seconds
+// (the unit of JDBC query timeouts) and never below one, so after-commit work still runs. Hibernate gives every
+// statement the time left as its query timeout and refuses to start one once it is spent; JdbcTemplate
+// statements get the time left from Spring. A shorter @Transactional timeout still wins.
+public class DeadlineTransactionManager extends JpaTransactionManager {
+    // Spring also passes the time left to each JPA query as a millisecond hint that Hibernate rounds to seconds,
+    // with under half a second left that would be 0: no timeout at all
+    private static final long QUERY_HINT_SLACK_MS = 500;
+
+    public DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        OptionalLong remainingMs = RequestDeadline.remainingMillis();
+        if (remainingMs.isEmpty()) {
+            super.doBegin(transaction, definition);
+            return;
+        }
+        int deadlineTimeout = (int) Math.max(1, Math.ceilDiv(remainingMs.getAsLong(), 1000));
+        int timeout = definition.getTimeout() == TransactionDefinition.TIMEOUT_DEFAULT
+                ? deadlineTimeout
+                : Math.min(definition.getTimeout(), deadlineTimeout);
+        super.doBegin(transaction, new DelegatingTransactionDefinition(definition) {
+            @Override
+            public int getTimeout() {
+                return timeout;
+            }
+        });
+        long holderTimeoutMs = timeout * 1000L + QUERY_HINT_SLACK_MS;
+        extendTimeout(TransactionSynchronizationManager.getResource(obtainEntityManagerFactory()), holderTimeoutMs);
+        if (getDataSource() != null) {
+            extendTimeout(TransactionSynchronizationManager.getResource(getDataSource()), holderTimeoutMs);
+        }
+    }
+
+    private static void extendTimeout(Object resourceHolder, long timeoutMs) {
+        if (resourceHolder instanceof ResourceHolderSupport holder && holder.hasTimeout()) {
+            holder.setTimeoutInMillis(timeoutMs);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.santoshmane.librarymanagement.deadline;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+// Deadline of the HTTP request served on the current thread, set by RequestDeadlineFilter.
+// Work handed to other threads (report jobs, after-commit executors) does not inherit it.
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE_NANOS = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    static void start(long budgetMs) {
+        DEADLINE_NANOS.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+    }
+
+    static void clear() {
+        DEADLINE_NANOS.remove();
+    }
+
+    // Negative once the deadline has passed, empty when the thread is not serving a request with a deadline
+    public static OptionalLong remainingMillis() {
+        Long deadline = DEADLINE_NANOS.get();
+        return deadline == null ? OptionalLong.empty() : OptionalLong.of(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    public static boolean isExpired() {
+        OptionalLong remaining = remainingMillis();
+        return remaining.isPresent() && remaining.getAsLong() <= 0;
+    }
+}
@@ -0,0 +1,89 @@
+package com.santoshmane.librarymanagement.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Gives each request a time budget: the first matching "pattern=ms" route, else the default. 0 means no deadline.
+// The budget reaches the database through DeadlineTransactionManager, a query still running when it is spent is
+// cancelled and the request answered with 504, instead of holding the thread and its connection.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@Slf4j
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final long defaultMs;
+    private final Map<PathPattern, Long> routeMs = new LinkedHashMap<>();
+
+    public RequestDeadlineFilter(@Value("${library.deadlines.enabled:true}") boolean enabled,
+                                 @Value("${library.deadlines.default-ms:5000}") long defaultMs,
+                                 @Value("${library.deadlines.routes:}") List<String> routes) {
+        this.enabled = enabled;
+        this.defaultMs = defaultMs;
+        for (String route : routes) {
+            int separator = route.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid deadline route, expected pattern=ms: " + route);
+            }
+            routeMs.put(PathPatternParser.defaultInstance.parse(route.substring(0, separator).trim()),
+                    Long.parseLong(route.substring(separator + 1).trim()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    // Async dispatches (SSE, streamed results) run on other threads or long after the request thread returned
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long budgetMs = budgetMs(request.getRequestURI());
+        if (budgetMs <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        RequestDeadline.start(budgetMs);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.clear();
+            if (response.getStatus() == HttpServletResponse.SC_GATEWAY_TIMEOUT) {
+                log.warn("Request deadline of {} ms exceeded for {} {}, answered after {} ms", budgetMs,
+                        request.getMethod(), request.getRequestURI(), (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    long budgetMs(String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        return routeMs.entrySet().stream()
+                .filter(route -> route.getKey().matches(pathContainer))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(defaultMs);
+    }
+}
@@ -1,7 +1,7 @@
 package com.santoshmane.librarymanagement.dtos;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.santoshmane.librarymanagement.entities.Book;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -24,8 +24,16 @@ public class AuthorDto {
     @NotBlank(message = "Name of the author must not be Blank after trim")
     @Size(min = 3, message = "Name of the author must be at least 3 characters")
     private String name;
-    @JsonIgnore
-    private List<Book> books;
+    // Only filled for ?embed=books; never read from request bodies
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private List<BookDto> books;
+
+    // Used by read-only JPQL constructor expressions
+    public AuthorDto(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
 
     @Override
     public boolean equals(Object o) {
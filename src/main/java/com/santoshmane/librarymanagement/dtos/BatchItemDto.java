@@ -0,0 +1,25 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemDto<T> {
+
+    private Long id;
+    private boolean found;
+    private T item;
+
+    public static <T> BatchItemDto<T> found(Long id, T item) {
+        return new BatchItemDto<>(id, true, item);
+    }
+
+    public static <T> BatchItemDto<T> notFound(Long id) {
+        return new BatchItemDto<>(id, false, null);
+    }
+}
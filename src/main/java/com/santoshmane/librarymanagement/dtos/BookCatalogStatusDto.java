@@ -0,0 +1,23 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder(toBuilder = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookCatalogStatusDto {
+
+    private boolean enabled;
+    private boolean servingReads;
+    private Integer rebuiltRows;
+    private Long inconsistentBooks;
+    private List<Long> sampleInconsistentBookIds;
+}
@@ -32,6 +32,15 @@ public class BookDto {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate publishDate;
 
+    // Used by read-only JPQL constructor expressions, avoids loading Book/Author entities
+    public BookDto(Long id, String title, String description, LocalDate publishDate, Long authorId, String authorName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.publishDate = publishDate;
+        this.createdBy = authorId == null ? null : new AuthorDto(authorId, authorName);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
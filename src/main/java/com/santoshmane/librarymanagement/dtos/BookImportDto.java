@@ -0,0 +1,31 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BookImportDto {
+
+    public enum Status { COPYING, LOADING, COMPLETED, FAILED }
+
+    private UUID id;
+    private Status status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long bytesRead;
+    private long rowsCopied;
+    private long rowsProcessed;
+    private long authorsCreated;
+    private long booksCreated;
+    private long duplicateRows;
+    private long invalidRows;
+    private String error;
+}
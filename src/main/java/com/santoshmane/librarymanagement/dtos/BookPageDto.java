@@ -0,0 +1,20 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// No total count: that would be a second query over every match
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BookPageDto {
+    private List<BookDto> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
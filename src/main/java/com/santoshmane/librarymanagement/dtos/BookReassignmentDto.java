@@ -0,0 +1,22 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Either bookIds or fromAuthorId selects the books that move to targetAuthorId
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BookReassignmentDto {
+
+    @NotNull(message = "Target author id of reassignment must not be null")
+    private Long targetAuthorId;
+    private List<Long> bookIds;
+    private Long fromAuthorId;
+}
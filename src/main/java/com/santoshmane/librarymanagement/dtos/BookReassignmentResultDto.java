@@ -0,0 +1,18 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BookReassignmentResultDto {
+
+    private Long targetAuthorId;
+    private int requestedBooks;
+    private int updatedBooks;
+    private int chunks;
+}
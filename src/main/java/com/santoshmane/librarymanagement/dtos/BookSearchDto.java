@@ -0,0 +1,29 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters of GET /books/search, every filter is optional and they combine with AND
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BookSearchDto {
+    private Long authorId;
+    private String titleContains;
+    // Inclusive publish date range
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+    private String sort;
+    // asc or desc
+    private String direction;
+    private Integer page;
+    private Integer size;
+}
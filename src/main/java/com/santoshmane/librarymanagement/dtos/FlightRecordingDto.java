@@ -0,0 +1,25 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class FlightRecordingDto {
+    private long id;
+    private String name;
+    private String state;
+    private Instant startedAt;
+    private Instant stoppedAt;
+    // Null when the recording runs until stopped
+    private Long durationSeconds;
+    private long sizeBytes;
+    // Set by a dump
+    private String dumpedTo;
+}
@@ -0,0 +1,16 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class HotKeyDto {
+    private Long id;
+    // Count-min sketch estimate, never below the real number of accesses since the counts were last halved
+    private long estimatedAccesses;
+}
@@ -0,0 +1,24 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+// Hottest keys per tracked path, hottest first. Also the format of the persisted hot set.
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class HotKeysDto {
+    private Instant capturedAt;
+    // GET /books/{id}
+    private List<HotKeyDto> books;
+    // GET /authors/{id}
+    private List<HotKeyDto> authors;
+    // GET /books/createdBy/{authorId}, keyed by author id
+    private List<HotKeyDto> booksByAuthor;
+}
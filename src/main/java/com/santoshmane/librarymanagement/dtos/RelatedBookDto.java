@@ -0,0 +1,18 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RelatedBookDto {
+
+    private Long id;
+    private String title;
+    // Estimated Jaccard similarity of title and description word shingles, 0..1
+    private double similarity;
+}
@@ -0,0 +1,38 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ReportJobDto {
+
+    public enum Type { BOOKS_PER_AUTHOR_PER_YEAR, INACTIVE_AUTHORS }
+
+    // Declared from most to least urgent
+    public enum Priority { HIGH, NORMAL, LOW }
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private UUID id;
+    @NotNull(message = "Report type must be given")
+    private Type type;
+    private Priority priority;
+    // INACTIVE_AUTHORS: authors with no book published on or after this date
+    private LocalDate since;
+    private Status status;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long rows;
+    private String error;
+}
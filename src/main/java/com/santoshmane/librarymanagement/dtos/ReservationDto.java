@@ -0,0 +1,30 @@
+package com.santoshmane.librarymanagement.dtos;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.santoshmane.librarymanagement.entities.ReservationPriority;
+import com.santoshmane.librarymanagement.entities.ReservationStatus;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder(toBuilder = true)
+public class ReservationDto {
+
+    private UUID id;
+    private Long bookId;
+    @NotBlank(message = "Patron name of reservation must not be Blank after trim")
+    private String patronName;
+    private ReservationPriority priority;
+    private ReservationStatus status;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+    private Integer position;
+}
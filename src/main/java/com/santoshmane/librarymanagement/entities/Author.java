@@ -2,7 +2,10 @@ package com.santoshmane.librarymanagement.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
 @Entity
@@ -18,4 +21,8 @@ public class Author {
     private String name;
     @OneToMany(mappedBy = "createdBy", cascade = CascadeType.ALL)
     private List<Book> books;
+    // Lets a warm start catch up on rows changed after its catalog snapshot was written
+    @UpdateTimestamp
+    @ColumnDefault("current_timestamp")
+    private Instant updatedAt;
 }
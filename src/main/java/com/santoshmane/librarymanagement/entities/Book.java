@@ -2,8 +2,11 @@ package com.santoshmane.librarymanagement.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.annotation.CreatedDate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -13,6 +16,14 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+// Back the book search filters and sorts, the id suffix keeps ties in index order for paging.
+// Title order has its own index: BookDuplicateGuard's unique index is missing on a partitioned table
+// and whenever existing duplicates kept it from being created.
+@Table(indexes = {
+        @Index(name = "idx_book_publish_date_id", columnList = "publish_date, id"),
+        @Index(name = "idx_book_author_id_publish_date_id", columnList = "author_id, publish_date, id"),
+        @Index(name = "idx_book_title_id", columnList = "title, id")
+})
 public class Book {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,4 +34,8 @@ public class Book {
     @JoinColumn(name = "author_id")
     private Author createdBy;
     private LocalDate publishDate;
+    // Lets a warm start catch up on rows changed after its catalog snapshot was written
+    @UpdateTimestamp
+    @ColumnDefault("current_timestamp")
+    private Instant updatedAt;
 }
@@ -0,0 +1,28 @@
+package com.santoshmane.librarymanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Denormalized read model: one row per book with its author's name, kept in step by BookCatalogProjector
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "book_catalog", indexes = {
+        @Index(name = "idx_book_catalog_title", columnList = "title"),
+        @Index(name = "idx_book_catalog_publish_date", columnList = "publish_date"),
+        @Index(name = "idx_book_catalog_author_id", columnList = "author_id")
+})
+public class BookCatalogEntry {
+    @Id
+    private Long bookId;
+    private String title;
+    private String description;
+    private LocalDate publishDate;
+    private Long authorId;
+    private String authorName;
+}
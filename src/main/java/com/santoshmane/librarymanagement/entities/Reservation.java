@@ -0,0 +1,47 @@
+package com.santoshmane.librarymanagement.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(indexes = @Index(name = "idx_reservation_status_created_at", columnList = "status, createdAt"))
+public class Reservation implements Persistable<UUID> {
+    @Id
+    private UUID id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "book_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Book book;
+    private String patronName;
+    @Enumerated(EnumType.STRING)
+    private ReservationPriority priority;
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+    private LocalDateTime createdAt;
+
+    // Ids are assigned in memory, so tell Spring Data to persist instead of merge on save
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,6 @@
+package com.santoshmane.librarymanagement.entities;
+
+public enum ReservationPriority {
+    HIGH,
+    NORMAL
+}
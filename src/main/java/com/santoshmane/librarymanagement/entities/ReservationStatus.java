@@ -0,0 +1,7 @@
+package com.santoshmane.librarymanagement.entities;
+
+public enum ReservationStatus {
+    ACTIVE,
+    FULFILLED,
+    CANCELLED
+}
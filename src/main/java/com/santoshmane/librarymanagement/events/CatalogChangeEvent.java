@@ -0,0 +1,25 @@
+package com.santoshmane.librarymanagement.events;
+
+import lombok.Value;
+
+import java.util.List;
+
+// Published by BookService/AuthorService after a mutation, delivered to listeners once it commits
+@Value
+public class CatalogChangeEvent {
+    EntityType entityType;
+    ChangeType changeType;
+    List<Long> ids;
+
+    public enum EntityType {
+        BOOK, AUTHOR
+    }
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static CatalogChangeEvent of(EntityType entityType, ChangeType changeType, Long id) {
+        return new CatalogChangeEvent(entityType, changeType, List.of(id));
+    }
+}
@@ -0,0 +1,7 @@
+package com.santoshmane.librarymanagement.exceptions;
+
+public class BadRequestException extends RuntimeException{
+    public BadRequestException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.santoshmane.librarymanagement.exceptions;
+
+public class ResourceConflictException extends RuntimeException{
+    public ResourceConflictException(String message){
+        super(message);
+    }
+}
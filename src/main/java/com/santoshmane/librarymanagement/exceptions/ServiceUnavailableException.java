@@ -0,0 +1,7 @@
+package com.santoshmane.librarymanagement.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException{
+    public ServiceUnavailableException(String message){
+        super(message);
+    }
+}
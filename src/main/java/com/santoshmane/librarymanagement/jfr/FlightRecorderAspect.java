@@ -0,0 +1,135 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.logging.CorrelationIdFilter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.MDC;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+// Emits a JFR event around every BookService/AuthorService method and repository call. With no recording
+// enabling the events this costs an isEnabled() check, and the fields are only filled for events that are kept.
+@Aspect
+@Component
+public class FlightRecorderAspect {
+    static final int MAX_IDS = 10;
+
+    @Around("execution(public * com.santoshmane.librarymanagement.services.BookService.*(..))"
+            + " || execution(public * com.santoshmane.librarymanagement.services.AuthorService.*(..))")
+    public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new ServiceCallEvent(), joinPoint);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object recordRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record(new RepositoryCallEvent(), joinPoint);
+    }
+
+    private static Object record(OperationEvent event, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = joinPoint.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation(joinPoint);
+                event.entityIds = entityIds(joinPoint.getArgs(), result);
+                event.rowCount = rowCount(result);
+                event.exception = failure == null ? null : failure.getClass().getName();
+                event.correlationId = MDC.get(CorrelationIdFilter.CORRELATION_ID_KEY);
+                event.commit();
+            }
+        }
+    }
+
+    // Repository calls are made on the proxy, name them after the repository interface
+    private static String operation(ProceedingJoinPoint joinPoint) {
+        Class<?> type = joinPoint.getSignature().getDeclaringType();
+        Object target = joinPoint.getThis();
+        if (target != null && !type.getName().startsWith("com.santoshmane")) {
+            for (Class<?> implemented : target.getClass().getInterfaces()) {
+                if (implemented.getName().startsWith("com.santoshmane")) {
+                    type = implemented;
+                    break;
+                }
+            }
+        }
+        return type.getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+
+    static String entityIds(Object[] args, Object result) {
+        StringJoiner ids = new StringJoiner(",");
+        int[] count = {0};
+        for (Object arg : args) {
+            addIds(ids, count, arg);
+        }
+        if (count[0] == 0) {
+            addIds(ids, count, result instanceof Optional<?> optional ? optional.orElse(null) : result);
+        }
+        return count[0] == 0 ? null : ids.toString();
+    }
+
+    private static void addIds(StringJoiner ids, int[] count, Object value) {
+        if (value instanceof Collection<?> values) {
+            for (Object element : values) {
+                addIds(ids, count, element);
+                if (count[0] >= MAX_IDS) {
+                    return;
+                }
+            }
+            return;
+        }
+        Long id = id(value);
+        if (id != null && count[0] < MAX_IDS) {
+            ids.add(id.toString());
+            count[0]++;
+        }
+    }
+
+    private static Long id(Object value) {
+        if (value instanceof Long id) {
+            return id;
+        } else if (value instanceof Book book) {
+            return book.getId();
+        } else if (value instanceof Author author) {
+            return author.getId();
+        } else if (value instanceof BookDto bookDto) {
+            return bookDto.getId();
+        } else if (value instanceof AuthorDto authorDto) {
+            return authorDto.getId();
+        }
+        return null;
+    }
+
+    static long rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        } else if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        } else if (result instanceof Map<?, ?> || id(result) != null && !(result instanceof Long)) {
+            return 1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,53 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import com.santoshmane.librarymanagement.dtos.FlightRecordingDto;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// /actuator/jfr: GET lists recordings, POST starts one, GET /{id} streams it as a .jfr file,
+// POST /{id} dumps it to the server's jfr directory, DELETE /{id} stops and discards it
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+
+    public FlightRecorderEndpoint(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @ReadOperation
+    public List<FlightRecordingDto> recordings() {
+        return flightRecorderService.getRecordings();
+    }
+
+    @WriteOperation
+    public FlightRecordingDto start(@Nullable String name, @Nullable Long durationSeconds,
+                                    @Nullable String settings, @Nullable Long thresholdMs) {
+        return flightRecorderService.start(name, durationSeconds, settings, thresholdMs);
+    }
+
+    @ReadOperation(produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Resource recording(@Selector long id) {
+        return flightRecorderService.stream(id);
+    }
+
+    @WriteOperation
+    public FlightRecordingDto dump(@Selector long id) {
+        return flightRecorderService.dump(id);
+    }
+
+    @DeleteOperation
+    public FlightRecordingDto stop(@Selector long id) {
+        return flightRecorderService.stop(id);
+    }
+}
@@ -0,0 +1,205 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import com.santoshmane.librarymanagement.dtos.FlightRecordingDto;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceConflictException;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+// Starts, dumps, streams and stops JDK Flight Recorder recordings of this JVM, including ones started with
+// -XX:StartFlightRecording. The continuous recording keeps the last max-age of JVM and call events on disk,
+// with the service and repository call events above the threshold, so a dump covers whatever just went wrong.
+// Recordings started here are capped by the same max-age and max-size, so one left running cannot fill the disk.
+@Service
+@Slf4j
+public class FlightRecorderService {
+    public static final String CONTINUOUS_RECORDING = "continuous";
+    private static final List<String> SETTINGS = List.of("default", "profile");
+    private static final DateTimeFormatter DUMP_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final boolean continuousEnabled;
+    private final Duration threshold;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Path directory;
+
+    public FlightRecorderService(@Value("${library.jfr.continuous.enabled:false}") boolean continuousEnabled,
+                                 @Value("${library.jfr.threshold-ms:10}") long thresholdMs,
+                                 @Value("${library.jfr.max-age-minutes:30}") long maxAgeMinutes,
+                                 @Value("${library.jfr.max-size-bytes:268435456}") long maxSizeBytes,
+                                 @Value("${library.jfr.directory:data/jfr}") Path directory) {
+        this.continuousEnabled = continuousEnabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeBytes = maxSizeBytes;
+        this.directory = directory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startContinuous() {
+        if (!continuousEnabled || !FlightRecorder.isAvailable()) {
+            return;
+        }
+        Recording recording = newRecording(CONTINUOUS_RECORDING, "default", threshold);
+        recording.start();
+        log.info("Started continuous flight recording: {} keeping {} minutes, up to {} MB", recording.getId(),
+                maxAge.toMinutes(), maxSizeBytes / (1024 * 1024));
+    }
+
+    // Null duration records until stopped, settings is the JDK configuration: default (about 1% overhead) or profile
+    public FlightRecordingDto start(String name, Long durationSeconds, String settings, Long thresholdMs) {
+        if (!FlightRecorder.isAvailable()) {
+            throw new ResourceConflictException("Flight recorder is not available in this JVM");
+        }
+        if (durationSeconds != null && durationSeconds <= 0) {
+            throw new BadRequestException("Recording duration must be positive, got: " + durationSeconds);
+        }
+        if (thresholdMs != null && thresholdMs < 0) {
+            throw new BadRequestException("Call threshold must not be negative, got: " + thresholdMs);
+        }
+        Recording recording = newRecording(name == null ? "api" : name, settings == null ? "default" : settings,
+                thresholdMs == null ? threshold : Duration.ofMillis(thresholdMs));
+        if (durationSeconds != null) {
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        recording.start();
+        log.info("Started flight recording: {} named {}", recording.getId(), recording.getName());
+        return toDto(recording, null);
+    }
+
+    public List<FlightRecordingDto> getRecordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .sorted(Comparator.comparingLong(Recording::getId))
+                .map(recording -> toDto(recording, null))
+                .toList();
+    }
+
+    public FlightRecordingDto getRecording(long id) {
+        return toDto(find(id), null);
+    }
+
+    // Writes what the recording holds so far to the jfr directory, the recording keeps running
+    public FlightRecordingDto dump(long id) {
+        Recording recording = find(id);
+        Path file = directory.resolve(recording.getName().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + id + "-"
+                + LocalDateTime.now().format(DUMP_TIMESTAMP) + ".jfr");
+        try {
+            Files.createDirectories(directory);
+            recording.dump(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to dump flight recording " + id + " to " + file, ex);
+        }
+        log.info("Dumped flight recording: {} to {}", id, file);
+        return toDto(recording, file.toAbsolutePath().toString());
+    }
+
+    // Streams what the recording holds so far, readable with `jfr print` or JDK Mission Control. A running recording's
+    // current chunk is still being written, so a stopped copy is streamed and closed along with the stream.
+    public Resource stream(long id) {
+        Recording recording = find(id);
+        Recording source = recording.getState() == RecordingState.RUNNING ? recording.copy(true) : recording;
+        InputStream data;
+        try {
+            data = source.getStream(null, null);
+        } catch (IOException | IllegalStateException ex) {
+            closeCopy(source, recording);
+            throw new ResourceConflictException("Flight recording:" + id + " can not be read in state " + recording.getState());
+        }
+        if (data == null) {
+            closeCopy(source, recording);
+            throw new ResourceConflictException("Flight recording:" + id + " holds no data yet");
+        }
+        return new InputStreamResource(new FilterInputStream(data) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    closeCopy(source, recording);
+                }
+            }
+        });
+    }
+
+    // Stops the recording and releases its data, dump it first to keep it
+    public FlightRecordingDto stop(long id) {
+        Recording recording = find(id);
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+        }
+        FlightRecordingDto stopped = toDto(recording, null);
+        recording.close();
+        stopped.setState(RecordingState.CLOSED.name());
+        log.info("Stopped flight recording: {}", id);
+        return stopped;
+    }
+
+    private Recording newRecording(String name, String settings, Duration callThreshold) {
+        if (!SETTINGS.contains(settings)) {
+            throw new BadRequestException("Unknown recording settings: " + settings + ", expected one of " + SETTINGS);
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException ex) {
+            throw new IllegalStateException("Failed to load flight recorder settings " + settings, ex);
+        }
+        Recording recording = new Recording(configuration);
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSizeBytes);
+        recording.enable(ServiceCallEvent.NAME).withThreshold(callThreshold);
+        recording.enable(RepositoryCallEvent.NAME).withThreshold(callThreshold);
+        return recording;
+    }
+
+    private static void closeCopy(Recording source, Recording recording) {
+        if (source != recording) {
+            source.close();
+        }
+    }
+
+    private Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Flight recording not found with id:" + id));
+    }
+
+    private static FlightRecordingDto toDto(Recording recording, String dumpedTo) {
+        return FlightRecordingDto.builder()
+                .id(recording.getId())
+                .name(recording.getName())
+                .state(recording.getState().name())
+                .startedAt(recording.getStartTime())
+                .stoppedAt(recording.getStopTime())
+                .durationSeconds(recording.getDuration() == null ? null : recording.getDuration().toSeconds())
+                .sizeBytes(recording.getSize())
+                .dumpedTo(dumpedTo)
+                .build();
+    }
+}
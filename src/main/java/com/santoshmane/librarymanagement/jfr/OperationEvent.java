@@ -0,0 +1,31 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+// Fields shared by service and repository call events. Stack traces are off: the operation already says where.
+@Category({"Library Management", "Calls"})
+@StackTrace(false)
+abstract class OperationEvent extends Event {
+
+    @Label("Operation")
+    @Description("Called class and method, e.g. BookService.getBookById")
+    String operation;
+
+    @Label("Entity Ids")
+    @Description("Ids passed in, or of the entity returned, truncated to the first few")
+    String entityIds;
+
+    @Label("Row Count")
+    @Description("Elements returned, -1 when the result is not a row or list of rows")
+    long rowCount;
+
+    @Label("Exception")
+    String exception;
+
+    @Label("Correlation Id")
+    String correlationId;
+}
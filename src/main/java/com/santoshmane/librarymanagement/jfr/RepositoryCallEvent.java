@@ -0,0 +1,10 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(RepositoryCallEvent.NAME)
+@Label("Repository Call")
+class RepositoryCallEvent extends OperationEvent {
+    static final String NAME = "librarymanagement.RepositoryCall";
+}
@@ -0,0 +1,10 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name(ServiceCallEvent.NAME)
+@Label("Service Call")
+class ServiceCallEvent extends OperationEvent {
+    static final String NAME = "librarymanagement.ServiceCall";
+}
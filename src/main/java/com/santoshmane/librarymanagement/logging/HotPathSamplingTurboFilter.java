@@ -0,0 +1,79 @@
+package com.santoshmane.librarymanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Rate based sampling for request path logs: each logger under loggerPrefix may emit maxPerSecond
+// events below WARN per second, after that only every sampleEvery-th event gets through.
+// WARN and ERROR are never sampled. Configured from logback-spring.xml.
+public class HotPathSamplingTurboFilter extends TurboFilter {
+    private String loggerPrefix = "com.santoshmane.librarymanagement";
+    private int maxPerSecond = 100;
+    private int sampleEvery = 100;
+    private LongSupplier currentSecond = () -> System.currentTimeMillis() / 1000;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks, those must not use up the budget
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        if (window.admit(currentSecond.getAsLong())) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    // Pinned by tests, so a run crossing a second boundary does not reset the budget
+    void setCurrentSecond(LongSupplier currentSecond) {
+        this.currentSecond = currentSecond;
+    }
+
+    private class Window {
+        private volatile long second;
+        private final AtomicLong count = new AtomicLong();
+
+        boolean admit(long now) {
+            if (now != second) {
+                synchronized (this) {
+                    if (now != second) {
+                        count.set(0);
+                        second = now;
+                    }
+                }
+            }
+            long n = count.incrementAndGet();
+            return n <= maxPerSecond || sampleEvery > 0 && (n - maxPerSecond) % sampleEvery == 0;
+        }
+    }
+}
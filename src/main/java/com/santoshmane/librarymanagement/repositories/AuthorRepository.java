@@ -1,13 +1,43 @@
 package com.santoshmane.librarymanagement.repositories;
 
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
 import com.santoshmane.librarymanagement.entities.Author;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author,Long> {
+public interface AuthorRepository extends JpaRepository<Author,Long>, AuthorRepositoryCustom {
     List<Author> findByName(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.santoshmane.librarymanagement.dtos.AuthorDto(a.id, a.name) from Author a")
+    List<AuthorDto> findAllAuthorDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.santoshmane.librarymanagement.dtos.AuthorDto(a.id, a.name) from Author a where a.name = :name")
+    List<AuthorDto> findAuthorDtosByName(@Param("name") String name);
+
+    @Query("select b.id from Book b where b.createdBy.id = :authorId")
+    List<Long> findBookIdsByAuthorId(@Param("authorId") Long authorId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.santoshmane.librarymanagement.dtos.AuthorDto(a.id, a.name) from Author a where a.id in :ids")
+    List<AuthorDto> findAuthorDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.santoshmane.librarymanagement.dtos.AuthorDto(a.id, a.name) from Author a where a.updatedAt >= :since")
+    List<AuthorDto> findAuthorDtosUpdatedSince(@Param("since") Instant since);
+
+    @Query("select a.id from Author a")
+    List<Long> findAllIds();
 }
@@ -0,0 +1,14 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface AuthorRepositoryCustom {
+    List<String> SELECTABLE_FIELDS = List.of("id", "name");
+
+    List<Map<String, Object>> findFieldsBy(Set<String> fields, Specification<Author> specification);
+}
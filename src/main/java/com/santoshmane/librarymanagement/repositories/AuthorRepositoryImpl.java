@@ -0,0 +1,46 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+public class AuthorRepositoryImpl implements AuthorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsBy(Set<String> fields, Specification<Author> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Author> author = query.from(Author.class);
+
+        List<String> selectedFields = SELECTABLE_FIELDS.stream().filter(fields::contains).toList();
+        List<Selection<?>> selections = new ArrayList<>();
+        selectedFields.forEach(field -> selections.add(author.get(field).alias(field)));
+        query.multiselect(selections);
+        if (specification != null) {
+            query.where(specification.toPredicate(author, query, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .stream()
+                .map(tuple -> {
+                    Map<String, Object> authorFields = new LinkedHashMap<>();
+                    selectedFields.forEach(field -> authorFields.put(field, tuple.get(field)));
+                    return authorFields;
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,18 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class AuthorSpecifications {
+
+    private AuthorSpecifications() {
+    }
+
+    public static Specification<Author> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Author> hasName(String name) {
+        return (root, query, cb) -> cb.equal(root.get("name"), name);
+    }
+}
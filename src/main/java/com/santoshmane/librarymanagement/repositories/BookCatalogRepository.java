@@ -0,0 +1,90 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.BookCatalogEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookCatalogRepository extends JpaRepository<BookCatalogEntry, Long> {
+    String CATALOG_DTO_QUERY = "select new com.santoshmane.librarymanagement.dtos.BookDto(c.bookId, c.title, c.description, c.publishDate, c.authorId, c.authorName) " +
+            "from BookCatalogEntry c";
+
+    // Projection source: the normalized tables, joined once here instead of on every read
+    String SOURCE_SELECT = "select b.id as book_id, b.title, b.description, b.publish_date, a.id as author_id, a.name as author_name " +
+            "from book b left join author a on a.id = b.author_id";
+
+    String INCONSISTENT_ROWS = "from (" + SOURCE_SELECT + ") s full outer join book_catalog c on c.book_id = s.book_id " +
+            "where s.book_id is null or c.book_id is null " +
+            "or (s.title, s.description, s.publish_date, s.author_id, s.author_name) " +
+            "is distinct from (c.title, c.description, c.publish_date, c.author_id, c.author_name)";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY)
+    List<BookDto> findAllBookDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY + " where c.bookId = :id")
+    Optional<BookDto> findBookDtoById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY + " where c.publishDate > :date")
+    List<BookDto> findBookDtosByPublishDateAfter(@Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY + " where c.title = :title")
+    List<BookDto> findBookDtosByTitle(@Param("title") String title);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY + " where c.authorId = :authorId")
+    List<BookDto> findBookDtosByAuthorId(@Param("authorId") Long authorId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(CATALOG_DTO_QUERY + " where c.bookId in :ids")
+    List<BookDto> findBookDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "insert into book_catalog (book_id, title, description, publish_date, author_id, author_name) " +
+            SOURCE_SELECT + " where b.id in (:ids) " +
+            "on conflict (book_id) do update set title = excluded.title, description = excluded.description, " +
+            "publish_date = excluded.publish_date, author_id = excluded.author_id, author_name = excluded.author_name",
+            nativeQuery = true)
+    int upsertFromSource(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "delete from book_catalog c where c.book_id in (:ids) and not exists (select 1 from book b where b.id = c.book_id)",
+            nativeQuery = true)
+    int deleteMissingFromSource(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "update book_catalog c set author_name = a.name from author a where a.id = c.author_id and a.id = :authorId",
+            nativeQuery = true)
+    int refreshAuthorName(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query(value = "delete from book_catalog", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "insert into book_catalog (book_id, title, description, publish_date, author_id, author_name) " + SOURCE_SELECT,
+            nativeQuery = true)
+    int insertAllFromSource();
+
+    // Book ids whose catalog row is missing, orphaned or differs from the source tables
+    @Query(value = "select coalesce(s.book_id, c.book_id) as book_id " + INCONSISTENT_ROWS + " order by 1 limit :limit", nativeQuery = true)
+    List<Long> findInconsistentBookIds(@Param("limit") int limit);
+
+    @Query(value = "select count(*) " + INCONSISTENT_ROWS, nativeQuery = true)
+    long countInconsistentBookIds();
+}
@@ -1,16 +1,81 @@
 package com.santoshmane.librarymanagement.repositories;
 
+import com.santoshmane.librarymanagement.dtos.BookDto;
 import com.santoshmane.librarymanagement.entities.Author;
 import com.santoshmane.librarymanagement.entities.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book,Long> {
+public interface BookRepository extends JpaRepository<Book,Long>, BookRepositoryCustom {
     List<Book> findByPublishDateAfter(LocalDate date);
     List<Book> findByCreatedBy(Author author);
     List<Book> findByTitle(String title);
+
+    String BOOK_DTO_QUERY = "select new com.santoshmane.librarymanagement.dtos.BookDto(b.id, b.title, b.description, b.publishDate, a.id, a.name) " +
+            "from Book b left join b.createdBy a";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY)
+    List<BookDto> findAllBookDtos();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where b.publishDate > :date")
+    List<BookDto> findBookDtosByPublishDateAfter(@Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where b.title = :title")
+    List<BookDto> findBookDtosByTitle(@Param("title") String title);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where a.id = :authorId")
+    List<BookDto> findBookDtosByAuthorId(@Param("authorId") Long authorId);
+
+    // ?embed=books on author lists: one query for the books of every author in the list
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where a.id is not null order by a.id, b.id")
+    List<BookDto> findBookDtosWithAuthor();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where a.name = :name order by a.id, b.id")
+    List<BookDto> findBookDtosByAuthorName(@Param("name") String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where b.id in :ids")
+    List<BookDto> findBookDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(BOOK_DTO_QUERY + " where b.updatedAt >= :since")
+    List<BookDto> findBookDtosUpdatedSince(@Param("since") Instant since);
+
+    @Query("select b.id from Book b")
+    List<Long> findAllIds();
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.createdBy = :author, b.updatedAt = instant where b.id in :ids")
+    int updateAuthorByIdIn(@Param("author") Author author, @Param("ids") Collection<Long> ids);
+
+    // Only moves books still owned by fromAuthorId, so a concurrent reassignment is not overwritten
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Book b set b.createdBy = :author, b.updatedAt = instant where b.id in :ids and b.createdBy.id = :fromAuthorId")
+    int updateAuthorByIdInAndAuthorId(@Param("author") Author author, @Param("ids") Collection<Long> ids, @Param("fromAuthorId") Long fromAuthorId);
+
+    // excludedBookId lets an update ignore the book being updated, null for creates
+    @Query("select count(b) > 0 from Book b left join b.createdBy a where b.title = :title " +
+            "and (a.id = :authorId or (:authorId is null and a.id is null)) and (:excludedBookId is null or b.id <> :excludedBookId)")
+    boolean existsDuplicate(@Param("title") String title, @Param("authorId") Long authorId, @Param("excludedBookId") Long excludedBookId);
 }
@@ -0,0 +1,24 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface BookRepositoryCustom {
+    // In response order; createdBy selects the author id and name through a left join
+    List<String> SELECTABLE_FIELDS = List.of("id", "title", "description", "createdBy", "publishDate");
+
+    // Columns a book search can order by, each backed by an index on book
+    List<String> SORTABLE_FIELDS = List.of("id", "title", "publishDate");
+
+    // Selects only the requested columns, joining author only when createdBy is requested
+    List<Map<String, Object>> findFieldsBy(Set<String> fields, Specification<Book> specification);
+
+    // One page of a book search in a single query, ties broken by id so pages do not overlap
+    List<BookDto> findBookDtosBy(Specification<Book> specification, Sort sort, long offset, int limit);
+}
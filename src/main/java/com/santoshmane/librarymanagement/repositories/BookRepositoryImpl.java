@@ -0,0 +1,107 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.*;
+
+public class BookRepositoryImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFieldsBy(Set<String> fields, Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> book = query.from(Book.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : SELECTABLE_FIELDS) {
+            if (!fields.contains(field)) {
+                continue;
+            }
+            if (field.equals("createdBy")) {
+                Join<Book, Author> author = book.join("createdBy", JoinType.LEFT);
+                selections.add(author.get("id").alias("createdBy.id"));
+                selections.add(author.get("name").alias("createdBy.name"));
+            } else {
+                selections.add(book.get(field).alias(field));
+            }
+        }
+        query.multiselect(selections);
+        if (specification != null) {
+            query.where(specification.toPredicate(book, query, cb));
+        }
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList()
+                .stream()
+                .map(tuple -> toFieldMap(tuple, fields))
+                .toList();
+    }
+
+    @Override
+    public List<BookDto> findBookDtosBy(Specification<Book> specification, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookDto> query = cb.createQuery(BookDto.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Author> author = book.join("createdBy", JoinType.LEFT);
+        query.select(cb.construct(BookDto.class, book.get("id"), book.get("title"), book.get("description"),
+                book.get("publishDate"), author.get("id"), author.get("name")));
+        // Specification.allOf of no filters yields no predicate
+        Predicate predicate = specification == null ? null : specification.toPredicate(book, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        // The id tie-breaker runs in the same direction, so the (column, id) indexes serve the order scanned either way
+        List<Order> orders = new ArrayList<>();
+        boolean ascending = true;
+        for (Sort.Order order : sort) {
+            ascending = order.isAscending();
+            orders.add(ascending ? cb.asc(book.get(order.getProperty())) : cb.desc(book.get(order.getProperty())));
+        }
+        if (sort.getOrderFor("id") == null) {
+            orders.add(ascending ? cb.asc(book.get("id")) : cb.desc(book.get("id")));
+        }
+        query.orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Map<String, Object> toFieldMap(Tuple tuple, Set<String> fields) {
+        Map<String, Object> book = new LinkedHashMap<>();
+        for (String field : SELECTABLE_FIELDS) {
+            if (!fields.contains(field)) {
+                continue;
+            }
+            if (field.equals("createdBy")) {
+                Object authorId = tuple.get("createdBy.id");
+                Map<String, Object> author = null;
+                if (authorId != null) {
+                    author = new LinkedHashMap<>();
+                    author.put("id", authorId);
+                    author.put("name", tuple.get("createdBy.name"));
+                }
+                book.put(field, author);
+            } else {
+                book.put(field, tuple.get(field));
+            }
+        }
+        return book;
+    }
+}
@@ -0,0 +1,43 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.entities.Book;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+public final class BookSpecifications {
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Book> publishedAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThan(root.get("publishDate"), date);
+    }
+
+    public static Specification<Book> publishedOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("publishDate"), date);
+    }
+
+    public static Specification<Book> publishedOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("publishDate"), date);
+    }
+
+    public static Specification<Book> hasTitle(String title) {
+        return (root, query, cb) -> cb.equal(root.get("title"), title);
+    }
+
+    // A leading wildcard no index serves, only use it next to an indexed filter that narrows the rows first
+    public static Specification<Book> titleContains(String text) {
+        String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("title"), pattern, '\\');
+    }
+
+    // Compares the author_id foreign key, so no join to author is needed
+    public static Specification<Book> createdBy(Long authorId) {
+        return (root, query, cb) -> cb.equal(root.get("createdBy").get("id"), authorId);
+    }
+}
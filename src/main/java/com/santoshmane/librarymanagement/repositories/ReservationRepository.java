@@ -0,0 +1,25 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.entities.Reservation;
+import com.santoshmane.librarymanagement.entities.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
+    @Query("select r from Reservation r where r.status = :status order by r.createdAt")
+    List<Reservation> findByStatusOrderByCreatedAt(@Param("status") ReservationStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("update Reservation r set r.status = :status where r.id in :ids")
+    int updateStatusByIdIn(@Param("status") ReservationStatus status, @Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,85 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Sorted in-memory index of normalized author names for prefix lookups without hitting the database
+@RequiredArgsConstructor
+@Component
+@Slf4j
+public class AuthorNameIndex {
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Separates the normalized name from the id in index keys and sorts below any name character
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final AuthorRepository authorRepository;
+
+    private final ConcurrentSkipListMap<String, AuthorDto> authorsByKey = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+
+    // Fed on startup by CatalogSnapshotService
+    public void rebuild() {
+        log.info("Building author name index");
+        List<AuthorDto> authors = authorRepository.findAllAuthorDtos();
+        rebuild(authors);
+        log.info("Successfully built author name index with {} authors", authors.size());
+    }
+
+    public synchronized void rebuild(Collection<AuthorDto> authors) {
+        authorsByKey.clear();
+        keysById.clear();
+        authors.forEach(author -> put(author.getId(), author.getName()));
+    }
+
+    public synchronized void put(Long id, String name) {
+        remove(id);
+        if (name == null) {
+            return;
+        }
+        String key = normalize(name) + KEY_SEPARATOR + id;
+        authorsByKey.put(key, new AuthorDto(id, name));
+        keysById.put(id, key);
+    }
+
+    public synchronized void remove(Long id) {
+        String key = keysById.remove(id);
+        if (key != null) {
+            authorsByKey.remove(key);
+        }
+    }
+
+    public List<AuthorDto> search(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+        List<AuthorDto> matches = new ArrayList<>(limit);
+        for (Map.Entry<String, AuthorDto> entry : authorsByKey.tailMap(normalizedPrefix).entrySet()) {
+            if (matches.size() == limit || !entry.getKey().startsWith(normalizedPrefix)) {
+                break;
+            }
+            AuthorDto author = entry.getValue();
+            matches.add(new AuthorDto(author.getId(), author.getName()));
+        }
+        return matches;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    static String normalize(String name) {
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutDiacritics.trim()).replaceAll(" ").toUpperCase(Locale.ROOT);
+    }
+}
@@ -1,33 +1,54 @@
 package com.santoshmane.librarymanagement.services;
 
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
 import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
 import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
 import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.AuthorRepositoryCustom;
+import com.santoshmane.librarymanagement.repositories.AuthorSpecifications;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.config.AppConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class AuthorService {
+    private static final int MAX_AUTOCOMPLETE_LIMIT = 50;
+    static final String EMBED_BOOKS = "books";
+
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final AuthorNameIndex authorNameIndex;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<AuthorDto> getAllAuthors() {
         log.info("Fetching all authors");
-        List<Author> authors = authorRepository.findAll();
-        List<AuthorDto> authorDtoList = authors.stream().map((author) -> modelMapper.map(author, AuthorDto.class))
-                .collect(Collectors.toList());
+        List<AuthorDto> authorDtoList = authorRepository.findAllAuthorDtos();
         log.info("Successfully fetched all authors");
         return authorDtoList;
     }
 
+    @Cacheable(cacheNames = AppConfig.AUTHORS_CACHE)
     public AuthorDto getAuthorById(Long id) {
         log.info("Fetching author by id: {}",id);
         Author author = authorRepository.findById(id).orElseThrow(() -> {
@@ -38,10 +59,48 @@ public class AuthorService {
         return modelMapper.map(author, AuthorDto.class);
     }
 
+    @Transactional(readOnly = true)
+    public List<BatchItemDto<AuthorDto>> getAuthorsByIds(List<Long> ids) {
+        log.info("Fetching {} authors by ids",ids == null ? 0 : ids.size());
+        List<AuthorDto> authorDtoList = authorRepository.findAuthorDtosByIdIn(BatchLookup.distinctIds(ids));
+        log.info("Successfully fetched {} of {} requested authors",authorDtoList.size(),ids.size());
+        return BatchLookup.inRequestOrder(ids, authorDtoList, AuthorDto::getId);
+    }
+
+    // ?embed=books: one query for the authors and one for all of their books, however many authors match
+    @Transactional(readOnly = true)
+    public List<AuthorDto> getAllAuthorsEmbedded(Set<String> embed) {
+        validateEmbed(embed);
+        log.info("Fetching all authors with books");
+        return withBooks(authorRepository.findAllAuthorDtos(), bookRepository.findBookDtosWithAuthor());
+    }
+
+    @Transactional(readOnly = true)
+    public AuthorDto getAuthorByIdEmbedded(Long id, Set<String> embed) {
+        validateEmbed(embed);
+        log.info("Fetching author by id: {} with books",id);
+        AuthorDto authorDto = authorRepository.findAuthorDtosByIdIn(List.of(id)).stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.error("Author not found by id {}",id);
+                    return new ResourceNotFoundException("Author not found by id:"+id);
+                });
+        return withBooks(List.of(authorDto), bookRepository.findBookDtosByAuthorId(id)).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AuthorDto> getAuthorsByNameEmbedded(String name, Set<String> embed) {
+        validateEmbed(embed);
+        log.info("Fetching authors by name: {} with books",name);
+        return withBooks(authorRepository.findAuthorDtosByName(name.toUpperCase()), bookRepository.findBookDtosByAuthorName(name.toUpperCase()));
+    }
+
     public AuthorDto createNewAuthor(AuthorDto authorDto) {
         log.info("Creating new author by name: {}",authorDto.getName());
         authorDto.setName(authorDto.getName().toUpperCase());
         Author savedAuthor = authorRepository.save(modelMapper.map(authorDto,Author.class));
+        authorNameIndex.put(savedAuthor.getId(), savedAuthor.getName());
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.CREATED, savedAuthor.getId()));
         log.info("Successfully Created new author by name: {}",authorDto.getName());
         return modelMapper.map(savedAuthor, AuthorDto.class);
     }
@@ -55,8 +114,11 @@ public class AuthorService {
         }
         authorDto.setId(id);
         authorDto.setName(authorDto.getName().toUpperCase());
+        Author savedAuthor = authorRepository.save(modelMapper.map(authorDto,Author.class));
+        authorNameIndex.put(savedAuthor.getId(), savedAuthor.getName());
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.UPDATED, id));
         log.info("Successfully Updated author by id: {}",id);
-        return modelMapper.map(authorRepository.save(modelMapper.map(authorDto,Author.class)), AuthorDto.class);
+        return modelMapper.map(savedAuthor, AuthorDto.class);
     }
 
     public void deleteAuthorById(Long id) {
@@ -67,14 +129,71 @@ public class AuthorService {
             throw new ResourceNotFoundException("Author not found by id:"+id);
         }
         log.info("Successfully deleted author by id: {}",id);
+        // Books go with the author through CascadeType.ALL
+        List<Long> bookIds = authorRepository.findBookIdsByAuthorId(id);
         authorRepository.deleteById(id);
+        authorNameIndex.remove(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.DELETED, id));
+        if (!bookIds.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogChangeEvent(EntityType.BOOK, ChangeType.DELETED, bookIds));
+        }
     }
 
+    @Transactional(readOnly = true)
     public List<AuthorDto> getAuthorsByName(String name) {
         log.info("Fetching authors by name: {}",name);
-        List<Author> authors = authorRepository.findByName(name.toUpperCase());
-        List<AuthorDto> authorDtoList = authors.stream().map((element) -> modelMapper.map(element, AuthorDto.class)).collect(Collectors.toList());
+        List<AuthorDto> authorDtoList = authorRepository.findAuthorDtosByName(name.toUpperCase());
         log.info("Successfully fetched all authors by name: {}",name);
         return authorDtoList;
     }
+
+    public List<AuthorDto> autocompleteAuthors(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_AUTOCOMPLETE_LIMIT){
+            log.error("Invalid autocomplete limit: {}",limit);
+            throw new BadRequestException("Autocomplete limit must be between 1 and "+MAX_AUTOCOMPLETE_LIMIT);
+        }
+        return authorNameIndex.search(prefix, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllAuthors(Set<String> fields) {
+        log.info("Fetching all authors with fields: {}",fields);
+        return authorRepository.findFieldsBy(validateFields(fields), null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getAuthorById(Long id, Set<String> fields) {
+        log.info("Fetching author by id: {} with fields: {}",id,fields);
+        return authorRepository.findFieldsBy(validateFields(fields), AuthorSpecifications.hasId(id))
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    log.error("Author not found by id {}",id);
+                    return new ResourceNotFoundException("Author not found by id:"+id);
+                });
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAuthorsByName(String name, Set<String> fields) {
+        log.info("Fetching authors by name: {} with fields: {}",name,fields);
+        return authorRepository.findFieldsBy(validateFields(fields), AuthorSpecifications.hasName(name.toUpperCase()));
+    }
+
+    private void validateEmbed(Set<String> embed) {
+        if (!Set.of(EMBED_BOOKS).equals(embed)){
+            log.error("Invalid embed: {}",embed);
+            throw new BadRequestException("Only books can be embedded");
+        }
+    }
+
+    private static List<AuthorDto> withBooks(List<AuthorDto> authors, List<BookDto> books) {
+        Map<Long, List<BookDto>> booksByAuthorId = books.stream()
+                .collect(Collectors.groupingBy(book -> book.getCreatedBy().getId()));
+        authors.forEach(author -> author.setBooks(booksByAuthorId.getOrDefault(author.getId(), List.of())));
+        return authors;
+    }
+
+    private static Set<String> validateFields(Set<String> fields) {
+        return SparseFieldsets.validateFields("author", fields, AuthorRepositoryCustom.SELECTABLE_FIELDS);
+    }
 }
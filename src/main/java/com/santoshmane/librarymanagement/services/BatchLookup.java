@@ -0,0 +1,36 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Shared id handling for the multi-get endpoints: one IN query, results echoed back in request order
+final class BatchLookup {
+    static final int MAX_BATCH_IDS = 1000;
+
+    private BatchLookup() {
+    }
+
+    static Set<Long> distinctIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("Between 1 and " + MAX_BATCH_IDS + " ids must be requested");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("Requested ids must not be null");
+        }
+        return new LinkedHashSet<>(ids);
+    }
+
+    static <T> List<BatchItemDto<T>> inRequestOrder(List<Long> ids, List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> itemsById = items.stream().collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+        List<BatchItemDto<T>> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T item = itemsById.get(id);
+            results.add(item == null ? BatchItemDto.notFound(id) : BatchItemDto.found(id, item));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,112 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookCatalogStatusDto;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.repositories.BookCatalogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps the book_catalog read table in step with book/author writes.
+// Projection runs after the source transaction commits, in its own transaction, and re-reads the
+// affected rows from the source tables, so replaying an event is harmless. If a projection fails
+// the read model is marked stale and reads fall back to the source tables until the next rebuild.
+@Component
+@Slf4j
+public class BookCatalogProjector {
+    static final int INCONSISTENCY_SAMPLE_SIZE = 100;
+
+    private final BookCatalogRepository bookCatalogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    public BookCatalogProjector(BookCatalogRepository bookCatalogRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${library.read-model.enabled:false}") boolean enabled) {
+        this.bookCatalogRepository = bookCatalogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    public boolean isServingReads() {
+        return enabled && !stale.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // Ahead of the other catalog change listeners, so cache evictions happen once the read table is updated
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> project(event));
+        } catch (RuntimeException ex) {
+            log.error("Failed to project {} {} for ids: {}, book read model is stale until rebuilt",
+                    event.getEntityType(), event.getChangeType(), event.getIds(), ex);
+            stale.set(true);
+        }
+    }
+
+    public BookCatalogStatusDto rebuild() {
+        log.info("Rebuilding book read model");
+        Integer rows = transactionTemplate.execute(status -> {
+            bookCatalogRepository.deleteAllRows();
+            return bookCatalogRepository.insertAllFromSource();
+        });
+        stale.set(false);
+        log.info("Successfully rebuilt book read model with {} rows", rows);
+        return status().toBuilder().rebuiltRows(rows).build();
+    }
+
+    public BookCatalogStatusDto checkConsistency() {
+        long inconsistentBooks = bookCatalogRepository.countInconsistentBookIds();
+        List<Long> sample = inconsistentBooks == 0 ? List.of() : bookCatalogRepository.findInconsistentBookIds(INCONSISTENCY_SAMPLE_SIZE);
+        if (inconsistentBooks > 0) {
+            log.warn("Book read model has {} inconsistent books, e.g. {}", inconsistentBooks, sample);
+        }
+        return status().toBuilder()
+                .inconsistentBooks(inconsistentBooks)
+                .sampleInconsistentBookIds(sample)
+                .build();
+    }
+
+    private BookCatalogStatusDto status() {
+        return BookCatalogStatusDto.builder()
+                .enabled(enabled)
+                .servingReads(isServingReads())
+                .build();
+    }
+
+    private void project(CatalogChangeEvent event) {
+        if (event.getEntityType() == EntityType.BOOK) {
+            bookCatalogRepository.upsertFromSource(event.getIds());
+            bookCatalogRepository.deleteMissingFromSource(event.getIds());
+        } else if (event.getChangeType() == ChangeType.UPDATED) {
+            // Author deletes arrive as BOOK DELETED for the cascaded books, creates have no books yet
+            event.getIds().forEach(bookCatalogRepository::refreshAuthorName);
+        }
+    }
+}
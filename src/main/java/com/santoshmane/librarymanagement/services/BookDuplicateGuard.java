@@ -0,0 +1,168 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Duplicate detection for books on (normalized title, author).
+// The unique index uk_book_title_author enforces it; NULLS NOT DISTINCT makes authorless books count too.
+// That needs PostgreSQL 15 or later, on older servers only the lookup guards against duplicates.
+// A Bloom filter of existing keys sits in front so creating a "definitely new" book skips the duplicate
+// lookup. Keys cannot be removed from the filter, so deletes and renames only leave false positives,
+// which cost one extra lookup. Bulk changes that bypass put() mark the filter stale until it is rebuilt.
+@Component
+@Slf4j
+public class BookDuplicateGuard {
+    static final String UNIQUE_INDEX = "uk_book_title_author";
+    // NULLS NOT DISTINCT arrived in PostgreSQL 15
+    private static final int MIN_UNIQUE_INDEX_SERVER_VERSION = 150000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedBooks;
+    private final double falsePositiveRate;
+    private volatile BloomFilter filter;
+    private volatile boolean stale = true;
+    private volatile boolean rebuilding;
+    private volatile boolean uniqueIndexed;
+    private final AtomicLong staleMarks = new AtomicLong();
+    // Keys put while the filter is stale or being rebuilt, replayed into the rebuilt filter
+    // since its source data may have been read before they were created
+    private final Set<String> recentKeys = ConcurrentHashMap.newKeySet();
+
+    public BookDuplicateGuard(JdbcTemplate jdbcTemplate,
+                              @Value("${library.duplicate-detection.expected-books:1000000}") long expectedBooks,
+                              @Value("${library.duplicate-detection.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedBooks = expectedBooks;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedBooks, falsePositiveRate);
+    }
+
+    public static String normalizeTitle(String title) {
+        return title == null ? null : WHITESPACE.matcher(title.trim()).replaceAll(" ").toUpperCase(Locale.ROOT);
+    }
+
+    // The filter itself is fed on startup by CatalogSnapshotService
+    @EventListener(ApplicationReadyEvent.class)
+    public void createUniqueIndex() {
+        Integer partitioned = jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table where partrelid = to_regclass('book')", Integer.class);
+        if (partitioned != null && partitioned > 0) {
+            // Unique indexes on a partitioned table must include publish_date, so only the lookup guards it
+            log.warn("Book table is partitioned, duplicate books are detected by lookup only");
+            return;
+        }
+        Integer serverVersion = jdbcTemplate.queryForObject("select current_setting('server_version_num')::int", Integer.class);
+        if (serverVersion != null && serverVersion < MIN_UNIQUE_INDEX_SERVER_VERSION) {
+            log.warn("PostgreSQL 15 or later is needed for {}, duplicate books are detected by lookup only", UNIQUE_INDEX);
+            return;
+        }
+        try {
+            jdbcTemplate.execute("create unique index if not exists " + UNIQUE_INDEX + " on book (title, author_id) nulls not distinct");
+            uniqueIndexed = true;
+        } catch (DataAccessException ex) {
+            log.error("Failed to create unique index {}, existing duplicate books must be merged first", UNIQUE_INDEX, ex);
+        }
+    }
+
+    // Startup path: the filter is still stale, so puts since the books were read are in recentKeys
+    public synchronized void rebuild(Collection<BookDto> books) {
+        long marksBefore = staleMarks.get();
+        rebuilding = true;
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedBooks, books.size() * 2L), falsePositiveRate);
+        books.forEach(book -> rebuilt.put(key(book.getTitle(), book.getCreatedBy() == null ? null : book.getCreatedBy().getId())));
+        install(rebuilt, marksBefore);
+        log.info("Successfully built book duplicate filter for {} books, {} KB with {} hashes",
+                books.size(), rebuilt.memoryBytes() / 1024, rebuilt.hashCount());
+    }
+
+    public synchronized void rebuild() {
+        log.info("Building book duplicate filter");
+        long marksBefore = staleMarks.get();
+        rebuilding = true;
+        Long books = jdbcTemplate.queryForObject("select count(*) from book", Long.class);
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedBooks, books * 2), falsePositiveRate);
+        try {
+            jdbcTemplate.query("select title, author_id from book",
+                    (RowCallbackHandler) rs -> rebuilt.put(key(rs.getString(1), (Long) rs.getObject(2))));
+        } catch (DataAccessException ex) {
+            rebuilding = false;
+            throw ex;
+        }
+        install(rebuilt, marksBefore);
+        log.info("Successfully built book duplicate filter for {} books, {} KB with {} hashes",
+                books, rebuilt.memoryBytes() / 1024, rebuilt.hashCount());
+    }
+
+    @Scheduled(initialDelayString = "${library.duplicate-detection.rebuild-check-interval-ms:60000}",
+            fixedDelayString = "${library.duplicate-detection.rebuild-check-interval-ms:60000}")
+    public void rebuildIfNeeded() {
+        if (stale || filter.isSaturated()) {
+            try {
+                rebuild();
+            } catch (DataAccessException ex) {
+                log.error("Failed to rebuild book duplicate filter, duplicate lookups stay on", ex);
+            }
+        }
+    }
+
+    // Whether uk_book_title_author exists, i.e. an insert conflict alone is enough to skip a duplicate
+    public boolean isUniqueIndexed() {
+        return uniqueIndexed;
+    }
+
+    // False means definitely not stored yet; true means a lookup is needed
+    public boolean mightExist(String normalizedTitle, Long authorId) {
+        return stale || filter.mightContain(key(normalizedTitle, authorId));
+    }
+
+    public void put(String normalizedTitle, Long authorId) {
+        String key = key(normalizedTitle, authorId);
+        if (stale || rebuilding) {
+            recentKeys.add(key);
+        }
+        filter.put(key);
+    }
+
+    public void markStale() {
+        staleMarks.incrementAndGet();
+        stale = true;
+    }
+
+    public static boolean isDuplicateViolation(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains(UNIQUE_INDEX);
+    }
+
+    private void install(BloomFilter rebuilt, long marksBefore) {
+        filter = rebuilt;
+        recentKeys.forEach(rebuilt::put);
+        // A bulk change during the rebuild may or may not have been seen, keep looking up until the next one
+        stale = staleMarks.get() != marksBefore;
+        rebuilding = false;
+        if (!stale) {
+            recentKeys.clear();
+        }
+    }
+
+    private static String key(String normalizedTitle, Long authorId) {
+        return normalizedTitle + KEY_SEPARATOR + authorId;
+    }
+}
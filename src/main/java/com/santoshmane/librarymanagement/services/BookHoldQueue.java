@@ -0,0 +1,82 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.ReservationDto;
+import com.santoshmane.librarymanagement.entities.ReservationPriority;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+
+// Hold queue of a single book: one FIFO lane per priority, lanes served in priority order
+class BookHoldQueue {
+    private final List<LinkedHashMap<UUID, ReservationDto>> lanes = new ArrayList<>();
+
+    BookHoldQueue() {
+        for (int i = 0; i < ReservationPriority.values().length; i++) {
+            lanes.add(new LinkedHashMap<>());
+        }
+    }
+
+    synchronized void enqueue(ReservationDto reservation) {
+        lanes.get(reservation.getPriority().ordinal()).put(reservation.getId(), reservation);
+    }
+
+    synchronized ReservationDto poll() {
+        for (LinkedHashMap<UUID, ReservationDto> lane : lanes) {
+            Iterator<ReservationDto> iterator = lane.values().iterator();
+            if (iterator.hasNext()) {
+                ReservationDto head = iterator.next();
+                iterator.remove();
+                return head;
+            }
+        }
+        return null;
+    }
+
+    synchronized ReservationDto remove(UUID reservationId) {
+        for (LinkedHashMap<UUID, ReservationDto> lane : lanes) {
+            ReservationDto removed = lane.remove(reservationId);
+            if (removed != null) {
+                return removed;
+            }
+        }
+        return null;
+    }
+
+    synchronized ReservationDto get(UUID reservationId) {
+        for (LinkedHashMap<UUID, ReservationDto> lane : lanes) {
+            ReservationDto reservation = lane.get(reservationId);
+            if (reservation != null) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    // 1-based position of the reservation in the queue, or 0 when it is not queued
+    synchronized int positionOf(UUID reservationId) {
+        int ahead = 0;
+        for (LinkedHashMap<UUID, ReservationDto> lane : lanes) {
+            if (lane.containsKey(reservationId)) {
+                for (UUID id : lane.keySet()) {
+                    ahead++;
+                    if (id.equals(reservationId)) {
+                        return ahead;
+                    }
+                }
+            }
+            ahead += lane.size();
+        }
+        return 0;
+    }
+
+    synchronized List<ReservationDto> snapshot() {
+        List<ReservationDto> reservations = new ArrayList<>();
+        for (LinkedHashMap<UUID, ReservationDto> lane : lanes) {
+            reservations.addAll(lane.values());
+        }
+        return reservations;
+    }
+}
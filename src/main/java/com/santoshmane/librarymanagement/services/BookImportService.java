@@ -0,0 +1,320 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookImportDto;
+import com.santoshmane.librarymanagement.dtos.BookImportDto.Status;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk book ingest from publisher CSV feeds (title, description, publish_date, author_name).
+// The CSV is streamed into a session temp table through COPY, then loaded set-based in committed chunks
+// of staging lines: missing authors are created by name, books are inserted unless (title, author) exists.
+// Only one chunk of ids is held in memory at a time, and each chunk is announced like any other change.
+@Service
+@Slf4j
+public class BookImportService {
+    static final int MAX_TRACKED_IMPORTS = 20;
+
+    private static final String STAGING_TABLE = "book_import_staging";
+    private static final String NORMALIZED_TITLE = "upper(trim(regexp_replace(s.title, '\\s+', ' ', 'g')))";
+    private static final String NORMALIZED_AUTHOR = "nullif(upper(trim(s.author_name)), '')";
+    private static final String PUBLISH_DATE = "nullif(trim(s.publish_date), '')";
+    // An ISO yyyy-MM-dd date as BookDto takes it, checked without casting so a bad one cannot fail the chunk
+    // (pg_input_is_valid would need PostgreSQL 16). CASE keeps each cast behind the checks it relies on.
+    private static final String VALID_PUBLISH_DATE = "case when " + PUBLISH_DATE + " !~ '^[0-9]{4}-[0-9]{2}-[0-9]{2}$' then false"
+            + " when substr(" + PUBLISH_DATE + ", 1, 4)::int < 1 or substr(" + PUBLISH_DATE + ", 6, 2)::int not between 1 and 12 then false"
+            + " else substr(" + PUBLISH_DATE + ", 9, 2)::int between 1 and extract(day from make_date(substr(" + PUBLISH_DATE + ", 1, 4)::int,"
+            + " substr(" + PUBLISH_DATE + ", 6, 2)::int, 1) + interval '1 month - 1 day')::int end";
+    // Same rules as BookDto/AuthorDto validation; a blank author name imports the book without an author
+    private static final String VALID_ROW = "length(" + NORMALIZED_TITLE + ") >= 3"
+            + " and trim(coalesce(s.description, '')) <> ''"
+            + " and coalesce(length(" + NORMALIZED_AUTHOR + "), 3) >= 3"
+            + " and case when " + PUBLISH_DATE + " is null then true"
+            + " when " + VALID_PUBLISH_DATE + " then " + PUBLISH_DATE + "::date <= current_date"
+            + " else false end";
+    private static final String CREATE_AUTHORS = "insert into author (name)"
+            + " select distinct " + NORMALIZED_AUTHOR + " from " + STAGING_TABLE + " s"
+            + " where s.line_no between ? and ? and " + VALID_ROW
+            + " and " + NORMALIZED_AUTHOR + " is not null"
+            + " and not exists (select 1 from author a where a.name = " + NORMALIZED_AUTHOR + ")"
+            + " returning id, name";
+    // Author names are not unique, an imported name resolves to its oldest author like a lookup by name would
+    private static final String BOOK_ROWS = "select r.title, r.description, r.publish_date, r.author_id from ("
+            + " select distinct on (" + NORMALIZED_TITLE + ", a.id) " + NORMALIZED_TITLE + " as title, s.description,"
+            + " " + PUBLISH_DATE + "::date as publish_date, a.id as author_id"
+            + " from " + STAGING_TABLE + " s"
+            + " left join (select name, min(id) as id from author group by name) a on a.name = " + NORMALIZED_AUTHOR
+            + " where s.line_no between ? and ? and " + VALID_ROW
+            + " order by " + NORMALIZED_TITLE + ", a.id, s.line_no) r";
+    // With uk_book_title_author each row is checked by an index probe; an anti-join would scan all of book per chunk
+    private static final String CREATE_BOOKS = "insert into book (title, description, publish_date, author_id) " + BOOK_ROWS
+            + " on conflict do nothing returning id, title, author_id";
+    private static final String CREATE_BOOKS_WITHOUT_UNIQUE_INDEX = "insert into book (title, description, publish_date, author_id) " + BOOK_ROWS
+            + " where not exists (select 1 from book b where b.title = r.title and b.author_id is not distinct from r.author_id)"
+            + " returning id, title, author_id";
+    private static final String COUNT_VALID_ROWS = "select count(*) filter (where " + VALID_ROW + ")"
+            + " from " + STAGING_TABLE + " s where s.line_no between ? and ?";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final AuthorNameIndex authorNameIndex;
+    private final BookDuplicateGuard bookDuplicateGuard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    private final Map<UUID, ImportProgress> imports = new ConcurrentHashMap<>();
+
+    public BookImportService(DataSource dataSource,
+                             JdbcTemplate jdbcTemplate,
+                             AuthorNameIndex authorNameIndex,
+                             BookDuplicateGuard bookDuplicateGuard,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${library.ingest.chunk-size:10000}") int chunkSize) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.authorNameIndex = authorNameIndex;
+        this.bookDuplicateGuard = bookDuplicateGuard;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public BookImportDto importBooks(InputStream csv, boolean header) {
+        ImportProgress progress = track();
+        log.info("Starting book import: {}", progress.id);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                createStagingTable(connection);
+                copy(connection, csv, header, progress);
+                load(connection, progress);
+            } finally {
+                dropStagingTable(connection);
+                connection.setAutoCommit(true);
+            }
+            progress.finish(Status.COMPLETED, null);
+            log.info("Successfully imported book feed: {}, {}", progress.id, progress.toDto());
+            return progress.toDto();
+        } catch (SQLException ex) {
+            progress.finish(Status.FAILED, ex.getMessage());
+            log.error("Book import: {} failed after {} rows", progress.id, progress.rowsProcessed, ex);
+            // Class 22 is a data exception, i.e. the CSV itself could not be read into the staging table
+            if (ex.getSQLState() != null && ex.getSQLState().startsWith("22")) {
+                throw new BadRequestException("Invalid book CSV: " + ex.getMessage());
+            }
+            throw jdbcTemplate.getExceptionTranslator().translate("Book import", null, ex);
+        } catch (IOException ex) {
+            progress.finish(Status.FAILED, ex.getMessage());
+            log.error("Book import: {} failed reading the request body", progress.id, ex);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            progress.finish(Status.FAILED, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    public List<BookImportDto> getImports() {
+        return imports.values().stream()
+                .map(ImportProgress::toDto)
+                .sorted(Comparator.comparing(BookImportDto::getStartedAt).reversed())
+                .toList();
+    }
+
+    public BookImportDto getImport(UUID id) {
+        ImportProgress progress = imports.get(id);
+        if (progress == null) {
+            log.error("Book import not found by id: {}", id);
+            throw new ResourceNotFoundException("Book import not found by id:" + id);
+        }
+        return progress.toDto();
+    }
+
+    private void createStagingTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + STAGING_TABLE);
+            statement.execute("create temp table " + STAGING_TABLE + " (line_no bigint generated always as identity,"
+                    + " title text, description text, publish_date text, author_name text) on commit preserve rows");
+        }
+        connection.commit();
+    }
+
+    private void dropStagingTable(Connection connection) throws SQLException {
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists " + STAGING_TABLE);
+        }
+        connection.commit();
+    }
+
+    private void copy(Connection connection, InputStream csv, boolean header, ImportProgress progress) throws SQLException, IOException {
+        String sql = "copy " + STAGING_TABLE + " (title, description, publish_date, author_name)"
+                + " from stdin with (format csv, header " + header + ")";
+        long rows = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new CountingInputStream(csv, progress.bytesRead));
+        // Built after the load so COPY does not maintain it row by row; chunks then read only their own lines
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create index on " + STAGING_TABLE + " (line_no)");
+            statement.execute("analyze " + STAGING_TABLE);
+        }
+        connection.commit();
+        progress.rowsCopied.set(rows);
+        progress.status = Status.LOADING;
+        log.info("Copied {} rows ({} KB) into staging for book import: {}", rows, progress.bytesRead.get() / 1024, progress.id);
+    }
+
+    private void load(Connection connection, ImportProgress progress) throws SQLException {
+        long rows = progress.rowsCopied.get();
+        for (long from = 1; from <= rows; from += chunkSize) {
+            long to = Math.min(from + chunkSize - 1, rows);
+            List<Long> authorIds = new ArrayList<>();
+            List<Long> bookIds = new ArrayList<>();
+            long validRows;
+            try (PreparedStatement countValid = connection.prepareStatement(COUNT_VALID_ROWS);
+                 PreparedStatement createAuthors = connection.prepareStatement(CREATE_AUTHORS);
+                 PreparedStatement createBooks = connection.prepareStatement(
+                         bookDuplicateGuard.isUniqueIndexed() ? CREATE_BOOKS : CREATE_BOOKS_WITHOUT_UNIQUE_INDEX)) {
+                validRows = queryCount(countValid, from, to);
+                createAuthors.setLong(1, from);
+                createAuthors.setLong(2, to);
+                try (ResultSet rs = createAuthors.executeQuery()) {
+                    while (rs.next()) {
+                        authorIds.add(rs.getLong(1));
+                        authorNameIndex.put(rs.getLong(1), rs.getString(2));
+                    }
+                }
+                createBooks.setLong(1, from);
+                createBooks.setLong(2, to);
+                try (ResultSet rs = createBooks.executeQuery()) {
+                    while (rs.next()) {
+                        bookIds.add(rs.getLong(1));
+                        bookDuplicateGuard.put(rs.getString(2), (Long) rs.getObject(3));
+                    }
+                }
+            }
+            connection.commit();
+            if (!authorIds.isEmpty()) {
+                eventPublisher.publishEvent(new CatalogChangeEvent(EntityType.AUTHOR, ChangeType.CREATED, authorIds));
+            }
+            if (!bookIds.isEmpty()) {
+                eventPublisher.publishEvent(new CatalogChangeEvent(EntityType.BOOK, ChangeType.CREATED, bookIds));
+            }
+            progress.rowsProcessed.addAndGet(to - from + 1);
+            progress.authorsCreated.addAndGet(authorIds.size());
+            progress.booksCreated.addAndGet(bookIds.size());
+            progress.duplicateRows.addAndGet(validRows - bookIds.size());
+            progress.invalidRows.addAndGet(to - from + 1 - validRows);
+            log.debug("Book import: {} loaded {} of {} rows", progress.id, to, rows);
+        }
+    }
+
+    private long queryCount(PreparedStatement statement, long from, long to) throws SQLException {
+        statement.setLong(1, from);
+        statement.setLong(2, to);
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private ImportProgress track() {
+        ImportProgress progress = new ImportProgress();
+        imports.put(progress.id, progress);
+        if (imports.size() > MAX_TRACKED_IMPORTS) {
+            imports.values().stream()
+                    .filter(tracked -> tracked.finishedAt != null)
+                    .min(Comparator.comparing(tracked -> tracked.startedAt))
+                    .ifPresent(oldest -> imports.remove(oldest.id));
+        }
+        return progress;
+    }
+
+    private static class ImportProgress {
+        private final UUID id = UUID.randomUUID();
+        private final Instant startedAt = Instant.now();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong rowsCopied = new AtomicLong();
+        private final AtomicLong rowsProcessed = new AtomicLong();
+        private final AtomicLong authorsCreated = new AtomicLong();
+        private final AtomicLong booksCreated = new AtomicLong();
+        private final AtomicLong duplicateRows = new AtomicLong();
+        private final AtomicLong invalidRows = new AtomicLong();
+        private volatile Status status = Status.COPYING;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private void finish(Status finalStatus, String message) {
+            error = message;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        private BookImportDto toDto() {
+            return BookImportDto.builder()
+                    .id(id)
+                    .status(status)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .bytesRead(bytesRead.get())
+                    .rowsCopied(rowsCopied.get())
+                    .rowsProcessed(rowsProcessed.get())
+                    .authorsCreated(authorsCreated.get())
+                    .booksCreated(booksCreated.get())
+                    .duplicateRows(duplicateRows.get())
+                    .invalidRows(invalidRows.get())
+                    .error(error)
+                    .build();
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.santoshmane.librarymanagement.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Runs the book table range-partitioned by publish_date, one partition per year plus a default
+// partition for null and out-of-range dates. Opt-in through library.partitioning.enabled.
+//
+// Postgres requires unique constraints on a partitioned table to include the partition key, so the
+// partitioned book table has no primary key or unique index on id and cannot be the target of a
+// foreign key. Ids come from book_partitioned_id_seq. The reservation ON DELETE CASCADE is replaced by a trigger
+// that skips rows which still exist afterwards, i.e. rows moved to another partition by an UPDATE.
+@Component
+@Slf4j
+public class BookPartitionManager {
+    static final String DEFAULT_PARTITION = "book_default";
+    private static final Pattern YEAR_PARTITION = Pattern.compile("book_p(\\d{4})");
+    // Rows older than this many years go to the default partition instead of getting their own
+    private static final int MAX_YEARS_BACK = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int yearsAhead;
+    private final int retentionYears;
+
+    public BookPartitionManager(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${library.partitioning.enabled:false}") boolean enabled,
+                                @Value("${library.partitioning.years-ahead:2}") int yearsAhead,
+                                @Value("${library.partitioning.retention-years:0}") int retentionYears) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.yearsAhead = yearsAhead;
+        this.retentionYears = retentionYears;
+    }
+
+    // Before the read model and hold queue rebuilds, which read the book table
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void partitionOnStartup() {
+        if (enabled) {
+            migrateToPartitionedTable();
+            maintainPartitions();
+        }
+    }
+
+    @Scheduled(cron = "${library.partitioning.maintenance-cron:0 0 3 * * *}")
+    public void scheduledMaintenance() {
+        if (enabled) {
+            maintainPartitions();
+        }
+    }
+
+    public boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table where partrelid = to_regclass('book')", Integer.class);
+        return count != null && count > 0;
+    }
+
+    public void migrateToPartitionedTable() {
+        if (isPartitioned()) {
+            return;
+        }
+        log.info("Migrating book table to range partitions by publish_date");
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("lock table book in access exclusive mode");
+            jdbcTemplate.execute("alter table book rename to book_unpartitioned");
+            jdbcTemplate.execute("create sequence if not exists book_partitioned_id_seq as bigint");
+            jdbcTemplate.queryForObject("select setval('book_partitioned_id_seq', (select coalesce(max(id), 0) + 1 from book_unpartitioned), false)", Long.class);
+            jdbcTemplate.execute("create table book (like book_unpartitioned including defaults) partition by range (publish_date)");
+            jdbcTemplate.execute("alter table book alter column id set default nextval('book_partitioned_id_seq')");
+            jdbcTemplate.execute("alter sequence book_partitioned_id_seq owned by book.id");
+            jdbcTemplate.execute("create table " + DEFAULT_PARTITION + " partition of book default");
+            jdbcTemplate.execute("create index idx_book_id on book (id)");
+            // The search indexes declared on Book, their names are freed by dropping them from the old table first
+            jdbcTemplate.execute("drop index if exists idx_book_publish_date_id, idx_book_author_id_publish_date_id, idx_book_title_id");
+            jdbcTemplate.execute("create index idx_book_publish_date_id on book (publish_date, id)");
+            jdbcTemplate.execute("create index idx_book_author_id_publish_date_id on book (author_id, publish_date, id)");
+            jdbcTemplate.execute("create index idx_book_title_id on book (title, id)");
+            jdbcTemplate.execute("alter table book add constraint fk_book_author foreign key (author_id) references author (id)");
+            dropForeignKeysReferencing("book_unpartitioned");
+
+            int currentYear = Year.now().getValue();
+            Integer oldestYear = jdbcTemplate.queryForObject(
+                    "select extract(year from min(publish_date))::int from book_unpartitioned", Integer.class);
+            int firstYear = oldestYear == null ? currentYear : Math.max(oldestYear, currentYear - MAX_YEARS_BACK);
+            for (int year = firstYear; year <= currentYear; year++) {
+                createYearPartition(year);
+            }
+            int moved = jdbcTemplate.update("insert into book select * from book_unpartitioned");
+            jdbcTemplate.execute("drop table book_unpartitioned");
+            installReservationCleanupTrigger();
+            log.info("Successfully migrated {} books into partitions from {}", moved, firstYear);
+        });
+    }
+
+    // Creates the partitions for this year and yearsAhead future years, detaches expired ones
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            log.warn("Book table is not partitioned, skipping partition maintenance");
+            return;
+        }
+        int currentYear = Year.now().getValue();
+        List<Integer> existingYears = attachedPartitionYears();
+        for (int year = currentYear; year <= currentYear + yearsAhead; year++) {
+            if (!existingYears.contains(year)) {
+                int partitionYear = year;
+                transactionTemplate.executeWithoutResult(status -> createYearPartition(partitionYear));
+            }
+        }
+        if (retentionYears > 0) {
+            existingYears.stream()
+                    .filter(year -> year < currentYear - retentionYears)
+                    .forEach(this::archivePartition);
+        }
+    }
+
+    public List<Integer> attachedPartitionYears() {
+        return jdbcTemplate.queryForList(
+                        "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = to_regclass('book')",
+                        String.class)
+                .stream()
+                .map(YEAR_PARTITION::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> Integer.parseInt(matcher.group(1)))
+                .sorted()
+                .toList();
+    }
+
+    // Detached partitions are kept as book_archive_pYYYY and drop out of every book query
+    public void archivePartition(int year) {
+        log.info("Archiving book partition for year {}", year);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("alter table book detach partition book_p" + year);
+            jdbcTemplate.execute("alter table book_p" + year + " rename to book_archive_p" + year);
+        });
+    }
+
+    // Rows of that year may already sit in the default partition, they are moved over before attaching.
+    // Writes to the default partition wait until the partition is attached, so none is lost or left behind,
+    // and the rows are deleted and copied in one statement. The move is not a delete, so the reservation
+    // cleanup trigger is told to stand down.
+    private void createYearPartition(int year) {
+        String partition = "book_p" + year;
+        LocalDate from = LocalDate.of(year, 1, 1);
+        LocalDate to = from.plusYears(1);
+        jdbcTemplate.execute("set local library.moving_books = 'on'");
+        jdbcTemplate.execute("lock table " + DEFAULT_PARTITION + " in share row exclusive mode");
+        jdbcTemplate.execute("create table " + partition + " (like book including defaults)");
+        jdbcTemplate.update("with moved as (delete from " + DEFAULT_PARTITION + " where publish_date >= ? and publish_date < ? returning *) " +
+                "insert into " + partition + " select * from moved", from, to);
+        jdbcTemplate.execute("alter table book attach partition " + partition + " for values from ('" + from + "') to ('" + to + "')");
+        jdbcTemplate.execute("set local library.moving_books = 'off'");
+        log.info("Created book partition {}", partition);
+    }
+
+    private void dropForeignKeysReferencing(String table) {
+        List<String> statements = jdbcTemplate.queryForList(
+                "select format('alter table %s drop constraint %I', conrelid::regclass, conname) from pg_constraint " +
+                        "where contype = 'f' and confrelid = to_regclass(?)",
+                String.class, table);
+        statements.forEach(jdbcTemplate::execute);
+    }
+
+    private void installReservationCleanupTrigger() {
+        jdbcTemplate.execute("""
+                create or replace function book_delete_reservations() returns trigger language plpgsql as $$
+                begin
+                    if coalesce(current_setting('library.moving_books', true), 'off') <> 'on'
+                            and not exists (select 1 from book where id = old.id) then
+                        delete from reservation where book_id = old.id;
+                    end if;
+                    return old;
+                end
+                $$""");
+        jdbcTemplate.execute("create trigger trg_book_delete_reservations after delete on book " +
+                "for each row execute function book_delete_reservations()");
+    }
+}
@@ -1,38 +1,88 @@
 package com.santoshmane.librarymanagement.services;
 
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
 import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.dtos.BookPageDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentResultDto;
+import com.santoshmane.librarymanagement.dtos.BookSearchDto;
+import com.santoshmane.librarymanagement.dtos.RelatedBookDto;
 
 import com.santoshmane.librarymanagement.entities.*;
 import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceConflictException;
 import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
 import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.BookCatalogRepository;
 import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.repositories.BookRepositoryCustom;
+import com.santoshmane.librarymanagement.repositories.BookSpecifications;
+import com.santoshmane.librarymanagement.config.AppConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @RequiredArgsConstructor
 @Service
 @Slf4j
 public class BookService {
+    static final int REASSIGNMENT_CHUNK_SIZE = 1000;
+    static final int MAX_REASSIGNMENT_BOOK_IDS = 100_000;
+    static final int MAX_RELATED_BOOKS_LIMIT = 50;
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+    // Deeper pages make the database walk and discard every row before them
+    static final int MAX_SEARCH_OFFSET = 10_000;
+    static final int MIN_TITLE_CONTAINS_LENGTH = 3;
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
+    private final BookCatalogRepository bookCatalogRepository;
+    private final BookCatalogProjector bookCatalogProjector;
+    private final RelatedBooksIndex relatedBooksIndex;
+    private final BookDuplicateGuard bookDuplicateGuard;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<BookDto> getAllBooks() {
         log.info("Fetching all books");
-        List<Book> books = bookRepository.findAll();
+        List<BookDto> bookDtos = bookCatalogProjector.isServingReads()
+                ? bookCatalogRepository.findAllBookDtos()
+                : bookRepository.findAllBookDtos();
         log.info("Successfully fetched all books");
-        return books.stream().map((element) -> modelMapper.map(element, BookDto.class)).collect(Collectors.toList());
+        return bookDtos;
     }
 
+    @Cacheable(cacheNames = AppConfig.BOOKS_CACHE)
     public BookDto getBookById(Long id) {
         log.info("Fetching book by id: {}",id);
+        if (bookCatalogProjector.isServingReads()){
+            return bookCatalogRepository.findBookDtoById(id)
+                    .orElseThrow(() ->{
+                        log.error("Book not found by id: {}",id);
+                        return new ResourceNotFoundException("Book not found by id:"+id);
+                    });
+        }
         Book book = bookRepository.findById(id)
                 .orElseThrow(() ->{
                     log.error("Book not found by id: {}",id);
@@ -41,10 +91,43 @@ public class BookService {
         return modelMapper.map(book, BookDto.class);
     }   
 
+    @Transactional(readOnly = true)
+    public List<BatchItemDto<BookDto>> getBooksByIds(List<Long> ids) {
+        log.info("Fetching {} books by ids",ids == null ? 0 : ids.size());
+        Set<Long> distinctIds = BatchLookup.distinctIds(ids);
+        List<BookDto> bookDtos = bookCatalogProjector.isServingReads()
+                ? bookCatalogRepository.findBookDtosByIdIn(distinctIds)
+                : bookRepository.findBookDtosByIdIn(distinctIds);
+        log.info("Successfully fetched {} of {} requested books",bookDtos.size(),ids.size());
+        return BatchLookup.inRequestOrder(ids, bookDtos, BookDto::getId);
+    }
+
+    public List<RelatedBookDto> getRelatedBooks(Long id, int limit) {
+        if (limit < 1 || limit > MAX_RELATED_BOOKS_LIMIT){
+            log.error("Invalid related books limit: {}",limit);
+            throw new BadRequestException("Related books limit must be between 1 and "+MAX_RELATED_BOOKS_LIMIT);
+        }
+        List<RelatedBookDto> relatedBooks = relatedBooksIndex.related(id, limit);
+        if (relatedBooks != null){
+            return relatedBooks;
+        }
+        // Not indexed yet, e.g. created while the index was being rebuilt
+        if (!bookRepository.existsById(id)){
+            log.error("Book not found by id: {}",id);
+            throw new ResourceNotFoundException("Book not found by id:"+id);
+        }
+        return List.of();
+    }
+
     public BookDto createNewBook(BookDto bookDto) {
         log.info("Creating new book with title: {}",bookDto.getTitle());
-        bookDto.setTitle(bookDto.getTitle().toUpperCase());
-        Book savedBook = bookRepository.save(modelMapper.map(bookDto,Book.class));
+        String title = BookDuplicateGuard.normalizeTitle(bookDto.getTitle());
+        Long authorId = authorIdOf(bookDto);
+        bookDto.setTitle(title);
+        rejectDuplicate(title, authorId, null);
+        Book savedBook = saveUnique(modelMapper.map(bookDto,Book.class), title, authorId);
+        bookDuplicateGuard.put(title, authorId);
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.CREATED, savedBook.getId()));
         log.info("Successfully created new book with title: {}",savedBook.getTitle());
         return modelMapper.map(savedBook, BookDto.class);
     }
@@ -57,9 +140,15 @@ public class BookService {
             throw new ResourceNotFoundException("Book not found by id:"+id);
         }
         bookDto.setId(id);
-        bookDto.setTitle(bookDto.getTitle().toUpperCase());
+        String title = BookDuplicateGuard.normalizeTitle(bookDto.getTitle());
+        Long authorId = authorIdOf(bookDto);
+        bookDto.setTitle(title);
+        rejectDuplicate(title, authorId, id);
+        Book savedBook = saveUnique(modelMapper.map(bookDto, Book.class), title, authorId);
+        bookDuplicateGuard.put(title, authorId);
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.UPDATED, id));
         log.info("Successfully updated book by id: {}",id);
-        return modelMapper.map(bookRepository.save(modelMapper.map(bookDto, Book.class)), BookDto.class);
+        return modelMapper.map(savedBook, BookDto.class);
     }
 
     public void deleteBookById(Long id) {
@@ -71,32 +160,144 @@ public class BookService {
         }
         log.info("Successfully Deleted book by id: {}",id);
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.DELETED, id));
     }
 
+    @Transactional(readOnly = true)
     public List<BookDto> getBooksPublishedAfterDate(LocalDate date) {
         log.info("Fetching books published after data: {}",date);
-        List<Book> books = bookRepository.findByPublishDateAfter(date);
+        List<BookDto> bookDtos = bookCatalogProjector.isServingReads()
+                ? bookCatalogRepository.findBookDtosByPublishDateAfter(date)
+                : bookRepository.findBookDtosByPublishDateAfter(date);
         log.info("Successfully fetched books published after date: {}",date);
-        return books.stream().map((element) -> modelMapper.map(element, BookDto.class)).collect(Collectors.toList());
+        return bookDtos;
     }
 
+    @Transactional(readOnly = true)
     public List<BookDto> getBooksByTitle(String title) {
         log.info("Fetching books by title: {}",title);
-        List<Book> books = bookRepository.findByTitle(title.toUpperCase());
+        List<BookDto> bookDtos = bookCatalogProjector.isServingReads()
+                ? bookCatalogRepository.findBookDtosByTitle(title.toUpperCase())
+                : bookRepository.findBookDtosByTitle(title.toUpperCase());
         log.info("Successfully fetched books by title: {}",title);
-        return books.stream().map((element) -> modelMapper.map(element, BookDto.class)).collect(Collectors.toList());
+        return bookDtos;
     }
 
+    @Transactional(readOnly = true)
     public List<BookDto> getBooksCreatedBy(Long authorId) {
         log.info("Fetching books created by author id: {}",authorId);
-        Author author = authorRepository.findById(authorId)
+        boolean isExists = authorRepository.existsById(authorId);
+        if (!isExists){
+            log.error("Author not found by id: {}",authorId);
+            throw new ResourceNotFoundException("Author not found by id:"+authorId);
+        }
+        List<BookDto> bookDtos = bookCatalogProjector.isServingReads()
+                ? bookCatalogRepository.findBookDtosByAuthorId(authorId)
+                : bookRepository.findBookDtosByAuthorId(authorId);
+        log.info("Successfully fetched books by author id: {}",authorId);
+        return bookDtos;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllBooks(Set<String> fields) {
+        log.info("Fetching all books with fields: {}",fields);
+        return bookRepository.findFieldsBy(validateFields(fields), null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBookById(Long id, Set<String> fields) {
+        log.info("Fetching book by id: {} with fields: {}",id,fields);
+        return bookRepository.findFieldsBy(validateFields(fields), BookSpecifications.hasId(id))
+                .stream()
+                .findFirst()
                 .orElseThrow(() -> {
-                    log.error("Author not found by id: {}",authorId);
-                    return new ResourceNotFoundException("Author not found by id:"+authorId);
+                    log.error("Book not found by id: {}",id);
+                    return new ResourceNotFoundException("Book not found by id:"+id);
                 });
-        List<Book> books = bookRepository.findByCreatedBy(author);
-        log.info("Successfully fetched books by author id: {}",authorId);
-        return books.stream().map((element) -> modelMapper.map(element, BookDto.class)).collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBooksPublishedAfterDate(LocalDate date, Set<String> fields) {
+        log.info("Fetching books published after date: {} with fields: {}",date,fields);
+        return bookRepository.findFieldsBy(validateFields(fields), BookSpecifications.publishedAfter(date));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBooksByTitle(String title, Set<String> fields) {
+        log.info("Fetching books by title: {} with fields: {}",title,fields);
+        return bookRepository.findFieldsBy(validateFields(fields), BookSpecifications.hasTitle(title.toUpperCase()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getBooksCreatedBy(Long authorId, Set<String> fields) {
+        log.info("Fetching books created by author id: {} with fields: {}",authorId,fields);
+        Set<String> validFields = validateFields(fields);
+        boolean isExists = authorRepository.existsById(authorId);
+        if (!isExists){
+            log.error("Author not found by id: {}",authorId);
+            throw new ResourceNotFoundException("Author not found by id:"+authorId);
+        }
+        return bookRepository.findFieldsBy(validFields, BookSpecifications.createdBy(authorId));
+    }
+
+    // Combinable filters compiled into one paged query. Combinations no index on book can serve are rejected:
+    // a title substring alone is a full scan, and a publish date range is only read in publish date order.
+    @Transactional(readOnly = true)
+    public BookPageDto searchBooks(BookSearchDto search) {
+        log.info("Searching books with: {}",search);
+        int page = search.getPage() == null ? 0 : search.getPage();
+        int size = search.getSize() == null ? DEFAULT_SEARCH_PAGE_SIZE : search.getSize();
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException("Page must be 0 or more and size between 1 and "+MAX_SEARCH_PAGE_SIZE);
+        }
+        if ((long) page * size > MAX_SEARCH_OFFSET) {
+            throw new BadRequestException("Pages past the first "+MAX_SEARCH_OFFSET+" books are not served, narrow the filters instead");
+        }
+        String sortField = search.getSort() == null ? "id" : search.getSort();
+        if (!BookRepositoryCustom.SORTABLE_FIELDS.contains(sortField)) {
+            throw new BadRequestException("Invalid book sort: "+sortField+", allowed sorts: "+BookRepositoryCustom.SORTABLE_FIELDS);
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(search.getDirection() == null ? "asc" : search.getDirection())
+                .orElseThrow(() -> new BadRequestException("Invalid sort direction: "+search.getDirection()+", expected asc or desc"));
+
+        List<Specification<Book>> filters = new ArrayList<>();
+        boolean dateRange = search.getPublishedFrom() != null || search.getPublishedTo() != null;
+        if (search.getPublishedFrom() != null && search.getPublishedTo() != null && search.getPublishedFrom().isAfter(search.getPublishedTo())) {
+            throw new BadRequestException("publishedFrom must not be after publishedTo");
+        }
+        if (dateRange && search.getAuthorId() == null && !sortField.equals("publishDate")) {
+            throw new BadRequestException("Books filtered by publish date alone can only be sorted by publishDate");
+        }
+        if (search.getAuthorId() != null) {
+            filters.add(BookSpecifications.createdBy(search.getAuthorId()));
+        }
+        if (search.getPublishedFrom() != null) {
+            filters.add(BookSpecifications.publishedOnOrAfter(search.getPublishedFrom()));
+        }
+        if (search.getPublishedTo() != null) {
+            filters.add(BookSpecifications.publishedOnOrBefore(search.getPublishedTo()));
+        }
+        if (search.getTitleContains() != null) {
+            String text = search.getTitleContains().trim().toUpperCase();
+            if (text.length() < MIN_TITLE_CONTAINS_LENGTH) {
+                throw new BadRequestException("titleContains must be at least "+MIN_TITLE_CONTAINS_LENGTH+" characters");
+            }
+            if (search.getAuthorId() == null && !dateRange) {
+                throw new BadRequestException("titleContains must be combined with authorId or a publish date range");
+            }
+            filters.add(BookSpecifications.titleContains(text));
+        }
+
+        // One extra row tells whether a next page exists without counting every match
+        List<BookDto> books = bookRepository.findBookDtosBy(Specification.allOf(filters), Sort.by(direction, sortField),
+                (long) page * size, size + 1);
+        boolean hasNext = books.size() > size;
+        return BookPageDto.builder()
+                .content(hasNext ? books.subList(0, size) : books)
+                .page(page)
+                .size(size)
+                .hasNext(hasNext)
+                .build();
     }
 
     public BookDto assignAuthorToBook(Long bookId,Long authorId){
@@ -115,11 +316,112 @@ public class BookService {
                 });
 
         // Step 2: Assign the author to the book
+        rejectDuplicate(book.getTitle(), authorId, bookId);
         book.setCreatedBy(author);
 
         // Step 3: Save the updated book (and relationship) in the database
-        Book savedBook = bookRepository.save(book);
+        Book savedBook = saveUnique(book, book.getTitle(), authorId);
+        bookDuplicateGuard.put(book.getTitle(), authorId);
+        eventPublisher.publishEvent(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.UPDATED, bookId));
         log.info("Successfully Assigned author with id: {} to book with id: {} ",authorId,bookId);
         return modelMapper.map(savedBook,BookDto.class);
     }
+
+    // One set-based UPDATE per chunk of ids instead of find/find/save per book
+    public BookReassignmentResultDto reassignBooks(BookReassignmentDto reassignmentDto) {
+        Long targetAuthorId = reassignmentDto.getTargetAuthorId();
+        Long fromAuthorId = reassignmentDto.getFromAuthorId();
+        boolean byBookIds = reassignmentDto.getBookIds() != null;
+        if (byBookIds == (fromAuthorId != null)){
+            log.error("Invalid reassignment request: {}",reassignmentDto);
+            throw new BadRequestException("Exactly one of bookIds or fromAuthorId must be given");
+        }
+        if (byBookIds && reassignmentDto.getBookIds().size() > MAX_REASSIGNMENT_BOOK_IDS){
+            throw new BadRequestException("At most "+MAX_REASSIGNMENT_BOOK_IDS+" book ids can be reassigned per request, use fromAuthorId for larger moves");
+        }
+        if (byBookIds && reassignmentDto.getBookIds().stream().anyMatch(Objects::isNull)){
+            throw new BadRequestException("Book ids must not be null");
+        }
+        if (targetAuthorId.equals(fromAuthorId)){
+            throw new BadRequestException("Source and target author must differ");
+        }
+        if (!authorRepository.existsById(targetAuthorId)){
+            log.error("Author not found by id: {}",targetAuthorId);
+            throw new ResourceNotFoundException("Author not found by id:"+targetAuthorId);
+        }
+        if (fromAuthorId != null && !authorRepository.existsById(fromAuthorId)){
+            log.error("Author not found by id: {}",fromAuthorId);
+            throw new ResourceNotFoundException("Author not found by id:"+fromAuthorId);
+        }
+        log.info("Reassigning books to author id: {}",targetAuthorId);
+        List<Long> bookIds = byBookIds
+                ? new ArrayList<>(new LinkedHashSet<>(reassignmentDto.getBookIds()))
+                : authorRepository.findBookIdsByAuthorId(fromAuthorId);
+        Author targetAuthor = authorRepository.getReferenceById(targetAuthorId);
+        int updatedBooks = 0;
+        int chunks = 0;
+        // Moved (title, author) keys never pass through the duplicate filter
+        bookDuplicateGuard.markStale();
+        for (int from = 0; from < bookIds.size(); from += REASSIGNMENT_CHUNK_SIZE) {
+            List<Long> chunk = bookIds.subList(from, Math.min(from + REASSIGNMENT_CHUNK_SIZE, bookIds.size()));
+            int updated;
+            try {
+                updated = byBookIds
+                        ? bookRepository.updateAuthorByIdIn(targetAuthor, chunk)
+                        : bookRepository.updateAuthorByIdInAndAuthorId(targetAuthor, chunk, fromAuthorId);
+            } catch (DataIntegrityViolationException ex) {
+                if (!BookDuplicateGuard.isDuplicateViolation(ex)){
+                    throw ex;
+                }
+                log.error("Reassignment to author id: {} stopped after {} books, chunk {} duplicates an existing title",targetAuthorId,updatedBooks,chunks+1);
+                throw new ResourceConflictException("Author id:"+targetAuthorId+" already has a book with the same title as one being reassigned, "+updatedBooks+" books were reassigned before the conflict");
+            }
+            chunks++;
+            if (updated > 0){
+                updatedBooks += updated;
+                eventPublisher.publishEvent(new CatalogChangeEvent(EntityType.BOOK, ChangeType.UPDATED, List.copyOf(chunk)));
+            }
+        }
+        log.info("Successfully reassigned {} of {} books to author id: {}",updatedBooks,bookIds.size(),targetAuthorId);
+        return BookReassignmentResultDto.builder()
+                .targetAuthorId(targetAuthorId)
+                .requestedBooks(bookIds.size())
+                .updatedBooks(updatedBooks)
+                .chunks(chunks)
+                .build();
+    }
+
+    private void rejectDuplicate(String title, Long authorId, Long bookId) {
+        if (bookDuplicateGuard.mightExist(title, authorId) && bookRepository.existsDuplicate(title, authorId, bookId)){
+            log.error("Duplicate book with title: {} for author id: {}",title,authorId);
+            throw new ResourceConflictException(duplicateMessage(title, authorId));
+        }
+    }
+
+    // The unique index still catches a concurrent insert that passed the lookup
+    private Book saveUnique(Book book, String title, Long authorId) {
+        try {
+            return bookRepository.save(book);
+        } catch (DataIntegrityViolationException ex) {
+            if (!BookDuplicateGuard.isDuplicateViolation(ex)){
+                throw ex;
+            }
+            log.error("Duplicate book with title: {} for author id: {}",title,authorId);
+            throw new ResourceConflictException(duplicateMessage(title, authorId));
+        }
+    }
+
+    private static String duplicateMessage(String title, Long authorId) {
+        return authorId == null
+                ? "Book already exists with title:"+title+" and no author"
+                : "Book already exists with title:"+title+" for author id:"+authorId;
+    }
+
+    private static Long authorIdOf(BookDto bookDto) {
+        return bookDto.getCreatedBy() == null ? null : bookDto.getCreatedBy().getId();
+    }
+
+    private static Set<String> validateFields(Set<String> fields) {
+        return SparseFieldsets.validateFields("book", fields, BookRepositoryCustom.SELECTABLE_FIELDS);
+    }
 }
@@ -0,0 +1,184 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Opt-in coalescing of PUT /books/{id}: updates to a book arriving within one flush window replace each other
+// (a PUT carries the whole book, so the last one wins) and only the last goes through updateBookById.
+// Writers choose their acknowledgement: ack=flush completes once the merged update is committed, with its
+// outcome; ack=enqueue returns at once and loses the update if the node dies before the flush.
+// Other writes to a book first flush its pending update, so an older pending PUT never overwrites them.
+@Service
+@Slf4j
+public class BookWriteCoalescer {
+
+    public enum Ack { FLUSH, ENQUEUE }
+
+    private final BookService bookService;
+    private final boolean enabled;
+    private final int maxPendingBooks;
+    private final long flushTimeoutMs;
+
+    // Guarded by pendingLock; flushLock is held while pending updates are written, so a drain waits for a running flush
+    private final Object pendingLock = new Object();
+    private final Object flushLock = new Object();
+    private Map<Long, PendingUpdate> pending = new LinkedHashMap<>();
+
+    public BookWriteCoalescer(BookService bookService,
+                              @Value("${library.write-coalescing.enabled:false}") boolean enabled,
+                              @Value("${library.write-coalescing.max-pending-books:10000}") int maxPendingBooks,
+                              @Value("${library.write-coalescing.flush-timeout-ms:5000}") long flushTimeoutMs) {
+        this.bookService = bookService;
+        this.enabled = enabled;
+        this.maxPendingBooks = maxPendingBooks;
+        this.flushTimeoutMs = flushTimeoutMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static Ack parseAck(String ack) {
+        try {
+            return Ack.valueOf(ack.trim().toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid ack: " + ack + ", expected flush or enqueue");
+        }
+    }
+
+    // Completes with the saved book for ack=flush, with the queued book for ack=enqueue. With coalescing
+    // disabled the update runs at once, which satisfies either acknowledgement. An ack=flush not written within
+    // the flush timeout fails with 503, the update itself stays pending.
+    public CompletableFuture<BookDto> update(Long id, BookDto bookDto, Ack ack) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(bookService.updateBookById(id, bookDto));
+        }
+        bookDto.setId(id);
+        bookDto.setTitle(BookDuplicateGuard.normalizeTitle(bookDto.getTitle()));
+        CompletableFuture<BookDto> flushed = new CompletableFuture<>();
+        synchronized (pendingLock) {
+            PendingUpdate update = pending.get(id);
+            if (update == null) {
+                if (pending.size() >= maxPendingBooks) {
+                    log.error("Write coalescing queue is full, rejecting update of book id: {}", id);
+                    throw new ServiceUnavailableException("Too many pending book updates, retry later");
+                }
+                update = new PendingUpdate();
+                pending.put(id, update);
+            }
+            update.bookDto = bookDto;
+            update.merged++;
+            if (ack == Ack.FLUSH) {
+                update.waiters.add(flushed);
+            } else {
+                update.acknowledged = true;
+            }
+        }
+        return ack == Ack.FLUSH ? withFlushTimeout(id, flushed) : CompletableFuture.completedFuture(bookDto);
+    }
+
+    private CompletableFuture<BookDto> withFlushTimeout(Long id, CompletableFuture<BookDto> flushed) {
+        return flushed.orTimeout(flushTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(ex -> CompletableFuture.failedFuture(ex instanceof TimeoutException
+                        ? new ServiceUnavailableException("Update of book id: " + id + " not flushed within " + flushTimeoutMs + " ms, retry later")
+                        : ex));
+    }
+
+    @Scheduled(fixedDelayString = "${library.write-coalescing.window-ms:200}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, PendingUpdate> updates;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                updates = pending;
+                pending = new LinkedHashMap<>();
+            }
+            updates.forEach(this::write);
+        }
+    }
+
+    // Writes the book's pending update, if any, ahead of another write to it
+    public void drain(Long id) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            PendingUpdate update;
+            synchronized (pendingLock) {
+                update = pending.remove(id);
+            }
+            if (update != null) {
+                write(id, update);
+            }
+        }
+    }
+
+    public int pendingBooks() {
+        synchronized (pendingLock) {
+            return pending.size();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending book updates before shutdown");
+        flush();
+    }
+
+    private void write(Long id, PendingUpdate update) {
+        try {
+            BookDto saved = bookService.updateBookById(id, update.bookDto);
+            log.debug("Flushed {} coalesced updates of book id: {}", update.merged, id);
+            update.waiters.forEach(waiter -> waiter.complete(saved));
+        } catch (RuntimeException ex) {
+            update.waiters.forEach(waiter -> waiter.completeExceptionally(ex));
+            // Updates already acknowledged on enqueue are kept for the next flush unless newer ones replaced them,
+            // when the failure may pass (timeout, deadlock, lost connection); rejected ones (not found, duplicate,
+            // constraint violation) would fail again and are dropped
+            if (update.acknowledged && isRetryable(ex)) {
+                log.error("Failed to flush update of book id: {}, retrying later", id, ex);
+                PendingUpdate retry = new PendingUpdate();
+                retry.bookDto = update.bookDto;
+                retry.merged = update.merged;
+                retry.acknowledged = true;
+                synchronized (pendingLock) {
+                    pending.putIfAbsent(id, retry);
+                }
+            } else if (update.acknowledged) {
+                log.error("Dropping update of book id: {} acknowledged on enqueue: {}", id, ex.getMessage());
+            }
+        }
+    }
+
+    private static boolean isRetryable(RuntimeException ex) {
+        return ex instanceof TransientDataAccessException
+                || ex instanceof RecoverableDataAccessException
+                || ex instanceof DataAccessResourceFailureException;
+    }
+
+    private static final class PendingUpdate {
+        private BookDto bookDto;
+        private int merged;
+        private boolean acknowledged;
+        private final List<CompletableFuture<BookDto>> waiters = new ArrayList<>();
+    }
+}
@@ -0,0 +1,280 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Fans committed catalog changes out to SSE subscribers.
+// Each change is serialized once into an SSE frame and the same frame is queued for every subscriber.
+// The subscriber list is only touched on the single dispatcher thread, which never writes to a socket:
+// it offers frames to a bounded outbox per subscriber, and each outbox is drained by its own virtual thread.
+// A subscriber whose outbox overflows is dropped and can resume with Last-Event-ID.
+// The last bufferSize frames are kept for Last-Event-ID resume; event ids are "<epoch>-<sequence>",
+// the epoch changes on restart so stale ids from a previous process get a reset event instead of a gap.
+@Component
+@Slf4j
+public class CatalogChangeFeed {
+    static final String CHANGE_EVENT = "catalog-change";
+    static final String CONNECTED_EVENT = "connected";
+    static final String RESET_EVENT = "reset";
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+    private final int outboxSize;
+    private final Executor dispatcher;
+    private final Executor writer;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Guarded by this
+    private final Deque<FeedEntry> buffer = new ArrayDeque<>();
+    private long lastSequence;
+
+    // Dispatcher thread only
+    private final List<Subscriber> subscribers = new ArrayList<>();
+
+    @Autowired
+    public CatalogChangeFeed(ObjectMapper objectMapper,
+                             @Value("${library.catalog-feed.buffer-size:1024}") int bufferSize,
+                             @Value("${library.catalog-feed.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                             @Value("${library.catalog-feed.outbox-size:256}") int outboxSize) {
+        this(objectMapper, bufferSize, emitterTimeoutMs, outboxSize, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-feed");
+            thread.setDaemon(true);
+            return thread;
+        }), Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("catalog-feed-writer-", 0).factory()));
+    }
+
+    CatalogChangeFeed(ObjectMapper objectMapper, int bufferSize, long emitterTimeoutMs, int outboxSize, Executor dispatcher, Executor writer) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.outboxSize = outboxSize;
+        this.dispatcher = dispatcher;
+        this.writer = writer;
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, outboxSize, writer);
+        emitter.onCompletion(() -> subscriber.closed = true);
+        emitter.onError(ex -> subscriber.closed = true);
+        emitter.onTimeout(emitter::complete);
+        dispatch(() -> register(subscriber, lastEventId));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        FeedEntry entry;
+        synchronized (this) {
+            entry = new FeedEntry(++lastSequence, frame(lastSequence, event));
+            buffer.addLast(entry);
+            if (buffer.size() > bufferSize) {
+                buffer.removeFirst();
+            }
+        }
+        dispatch(() -> broadcast(entry));
+    }
+
+    // Keeps idle connections open through proxies and prunes subscribers that went away
+    @Scheduled(fixedRateString = "${library.catalog-feed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeat() {
+        dispatch(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            subscribers.removeIf(subscriber -> !subscriber.send(heartbeat));
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatch(() -> subscribers.forEach(Subscriber::drop));
+        if (dispatcher instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+
+    private void register(Subscriber subscriber, String lastEventId) {
+        List<FeedEntry> replay = List.of();
+        boolean reset = false;
+        long position;
+        synchronized (this) {
+            position = lastSequence;
+            if (lastEventId != null) {
+                long resumeFrom = parseSequence(lastEventId);
+                long oldestAvailable = buffer.isEmpty() ? lastSequence + 1 : buffer.getFirst().sequence;
+                if (resumeFrom < 0 || resumeFrom > lastSequence || resumeFrom + 1 < oldestAvailable) {
+                    reset = true;
+                } else {
+                    replay = buffer.stream().filter(entry -> entry.sequence > resumeFrom).toList();
+                    position = resumeFrom;
+                }
+                // A replay that does not fit the outbox would only overflow it, re-read the catalog instead
+                if (replay.size() >= outboxSize) {
+                    replay = List.of();
+                    reset = true;
+                    position = lastSequence;
+                }
+            }
+        }
+        subscriber.lastSequence = position;
+        SseEmitter.SseEventBuilder greeting = SseEmitter.event().name(reset ? RESET_EVENT : CONNECTED_EVENT).data("");
+        if (lastEventId == null || reset) {
+            // Tells the client where it is positioned; after a reset it has to re-read the catalog
+            greeting.id(eventId(position));
+        }
+        if (!subscriber.send(greeting.build())) {
+            return;
+        }
+        for (FeedEntry entry : replay) {
+            if (!subscriber.send(entry)) {
+                return;
+            }
+        }
+        subscribers.add(subscriber);
+    }
+
+    private void broadcast(FeedEntry entry) {
+        subscribers.removeIf(subscriber -> !subscriber.send(entry));
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException ex) {
+            log.debug("Catalog change feed is shut down, dropping dispatch");
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(long sequence, CatalogChangeEvent event) {
+        try {
+            return SseEmitter.event()
+                    .id(eventId(sequence))
+                    .name(CHANGE_EVENT)
+                    .data(objectMapper.writeValueAsString(event))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize catalog change event", ex);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private record FeedEntry(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+    }
+
+    // send() is called on the dispatcher thread and only queues; the socket writes happen in drain()
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> outbox;
+        private final Executor writer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile boolean dropped;
+        private long lastSequence;
+
+        Subscriber(SseEmitter emitter, int outboxSize, Executor writer) {
+            this.emitter = emitter;
+            this.outbox = new ArrayBlockingQueue<>(outboxSize);
+            this.writer = writer;
+        }
+
+        // An entry may already have been replayed if the subscriber registered after it was buffered
+        boolean send(FeedEntry entry) {
+            if (entry.sequence <= lastSequence) {
+                return !closed;
+            }
+            lastSequence = entry.sequence;
+            return send(entry.frame);
+        }
+
+        boolean send(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed) {
+                return false;
+            }
+            if (!outbox.offer(frame)) {
+                log.debug("Catalog change feed subscriber fell {} frames behind, dropping it", outbox.size());
+                drop();
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+
+        // Completing the emitter waits for a write in progress, so it is left to the writer as well
+        void drop() {
+            closed = true;
+            dropped = true;
+            outbox.clear();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writer.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    closed = true;
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<ResponseBodyEmitter.DataWithMediaType> frame;
+                while (!closed && (frame = outbox.poll()) != null) {
+                    try {
+                        emitter.send(frame);
+                    } catch (IOException | IllegalStateException ex) {
+                        closed = true;
+                    }
+                }
+                if (dropped) {
+                    outbox.clear();
+                    emitter.complete();
+                    return;
+                }
+                draining.set(false);
+                // Re-check for frames or a drop that arrived while this drain was finishing
+                boolean pending = dropped || !closed && !outbox.isEmpty();
+                if (!pending || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+}
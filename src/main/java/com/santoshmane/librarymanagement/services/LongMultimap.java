@@ -0,0 +1,117 @@
+package com.santoshmane.librarymanagement.services;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+// Open addressing long -> positive long multimap (linear probing, tombstones).
+// Stores a key/value pair in 16 bytes instead of a boxed map entry per pair.
+// Values must be > 0, 0 marks an empty slot and -1 a removed one. Not thread safe.
+// All values of a key share one probe cluster, so a key is capped at maxValuesPerKey values;
+// puts to a full key are dropped instead of scanning an ever longer cluster.
+final class LongMultimap {
+    private static final long EMPTY = 0;
+    private static final long REMOVED = -1;
+
+    private final int maxValuesPerKey;
+    private final Set<Long> fullKeys = new HashSet<>();
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int used;
+
+    LongMultimap(int expectedSize, int maxValuesPerKey) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.maxValuesPerKey = maxValuesPerKey;
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    // False when the key already holds maxValuesPerKey values
+    boolean put(long key, long value) {
+        if (fullKeys.contains(key)) {
+            return false;
+        }
+        if ((used + 1) * 2 > keys.length) {
+            rehash(Math.max(keys.length, Integer.highestOneBit(Math.max(16, size * 4 - 1)) << 1));
+        }
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+        int keyValues = 0;
+        while (values[slot] > EMPTY) {
+            if (keys[slot] == key && ++keyValues >= maxValuesPerKey) {
+                fullKeys.add(key);
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        insertAt(slot, key, value);
+        return true;
+    }
+
+    private void insertAt(int slot, long key, long value) {
+        if (values[slot] == EMPTY) {
+            used++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    void remove(long key, long value) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && values[slot] == value) {
+                values[slot] = REMOVED;
+                size--;
+                // The key is below the cap again
+                fullKeys.remove(key);
+                return;
+            }
+        }
+    }
+
+    void forEach(long key, LongConsumer consumer) {
+        int mask = keys.length - 1;
+        for (int slot = slot(key, mask); values[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && values[slot] > EMPTY) {
+                consumer.accept(values[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull(long key) {
+        return fullKeys.contains(key);
+    }
+
+    long memoryBytes() {
+        return (long) keys.length * Long.BYTES * 2;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[capacity];
+        values = new long[capacity];
+        size = 0;
+        used = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] > EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (values[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                insertAt(slot, oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        return (int) (MinHashLsh.mix(key) & mask);
+    }
+}
@@ -0,0 +1,247 @@
+package com.santoshmane.librarymanagement.services;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+// MinHash signatures over word unigrams and bigrams, banded for LSH candidate lookup.
+// The first 32 of 64 hashes form 16 bands of 2 rows, so pairs above roughly 0.25 Jaccard similarity
+// share a band bucket with high probability; candidates are then ranked on the full 64 hash signature.
+final class MinHashLsh {
+    static final int NUM_HASHES = 64;
+    static final int BANDS = 16;
+    static final int ROWS = 2;
+    // Generic titles can pile thousands of books into one bucket, bound the work per lookup
+    static final int MAX_CANDIDATES = 2000;
+    // A band value shared by this many books says little about similarity; capping it keeps inserts
+    // for series titles ("Volume 1".."Volume N") from probing an ever growing bucket
+    static final int MAX_BUCKET_SIZE = 512;
+
+    private static final long[] MULTIPLIERS = new long[NUM_HASHES];
+    private static final long[] ADDENDS = new long[NUM_HASHES];
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "in", "on", "to", "for", "with", "by", "at", "from", "is", "it", "as");
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            ADDENDS[i] = random.nextLong();
+        }
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final LongMultimap buckets;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    MinHashLsh(int expectedSize) {
+        buckets = new LongMultimap(expectedSize * BANDS, MAX_BUCKET_SIZE);
+    }
+
+    void put(long id, String title, String text) {
+        int[] signature = signature(text);
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            entries.put(id, new Entry(title, signature));
+            if (signature != null) {
+                for (int band = 0; band < BANDS; band++) {
+                    buckets.put(bandKey(signature, band), id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Null when the id is not indexed
+    List<Match> related(long id, int limit) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.signature == null) {
+                return List.of();
+            }
+            long[] candidates = collectCandidates(id, entry.signature);
+            PriorityQueue<Match> top = new PriorityQueue<>(Comparator.comparingDouble(Match::similarity).thenComparing(Match::id, Comparator.reverseOrder()));
+            long previous = 0;
+            for (long candidate : candidates) {
+                if (candidate == previous) {
+                    continue;
+                }
+                previous = candidate;
+                Entry other = entries.get(candidate);
+                double similarity = similarity(entry.signature, other.signature);
+                if (top.size() == limit && similarity <= top.peek().similarity()) {
+                    continue;
+                }
+                top.add(new Match(candidate, other.title, similarity));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Match> matches = new ArrayList<>(top);
+            matches.sort(top.comparator().reversed());
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long bucketMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return buckets.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static int[] signature(String text) {
+        long[] shingles = shingles(text);
+        if (shingles.length == 0) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int hash = (int) ((MULTIPLIERS[i] * shingle + ADDENDS[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] left, int[] right) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (left[i] == right[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    // Lower cased words of letters and digits, stop words dropped, as unigram and bigram hashes
+    private static long[] shingles(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        long[] shingles = new long[16];
+        int count = 0;
+        long previous = 0;
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                start = -1;
+                if (word.length() < 2 || STOP_WORDS.contains(word)) {
+                    continue;
+                }
+                long current = mix(word.hashCode());
+                if (count + 2 > shingles.length) {
+                    shingles = Arrays.copyOf(shingles, shingles.length * 2);
+                }
+                shingles[count++] = current;
+                if (previous != 0) {
+                    shingles[count++] = mix(previous * 31 + current);
+                }
+                previous = current;
+            }
+        }
+        return Arrays.copyOf(shingles, count);
+    }
+
+    // Sorted bucket mates of the id across all bands, with duplicates
+    private long[] collectCandidates(long id, int[] signature) {
+        Candidates candidates = new Candidates(id);
+        for (int band = 0; band < BANDS && candidates.size < MAX_CANDIDATES; band++) {
+            buckets.forEach(bandKey(signature, band), candidates);
+        }
+        long[] ids = Arrays.copyOf(candidates.ids, candidates.size);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void removeLocked(long id) {
+        Entry previous = entries.remove(id);
+        if (previous != null && previous.signature != null) {
+            for (int band = 0; band < BANDS; band++) {
+                buckets.remove(bandKey(previous.signature, band), id);
+            }
+        }
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band + 1;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return key;
+    }
+
+    private static final class Candidates implements LongConsumer {
+        private final long excludedId;
+        private long[] ids = new long[64];
+        private int size;
+
+        private Candidates(long excludedId) {
+            this.excludedId = excludedId;
+        }
+
+        @Override
+        public void accept(long id) {
+            if (id == excludedId || size == MAX_CANDIDATES) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    record Match(long id, String title, double similarity) {
+    }
+
+    private record Entry(String title, int[] signature) {
+    }
+}
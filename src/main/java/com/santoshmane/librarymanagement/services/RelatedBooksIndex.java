@@ -0,0 +1,88 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.dtos.RelatedBookDto;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// In-memory MinHash/LSH index over book titles and descriptions for "related books" lookups.
+// Built on startup by CatalogSnapshotService and kept current from catalog change events, which are
+// re-read from the book table after commit so reassignments and author cascades are covered too.
+@Component
+@Slf4j
+public class RelatedBooksIndex {
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile MinHashLsh index = new MinHashLsh(0);
+
+    public RelatedBooksIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void rebuild() {
+        log.info("Building related books index");
+        List<BookDto> books = bookRepository.findAllBookDtos();
+        rebuild(books);
+        log.info("Successfully built related books index with {} books", books.size());
+    }
+
+    public void rebuild(List<BookDto> books) {
+        MinHashLsh rebuilt = new MinHashLsh(books.size());
+        books.forEach(book -> rebuilt.put(book.getId(), book.getTitle(), textOf(book)));
+        index = rebuilt;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntityType() != EntityType.BOOK) {
+            return;
+        }
+        try {
+            List<BookDto> books = transactionTemplate.execute(status -> bookRepository.findBookDtosByIdIn(event.getIds()));
+            Set<Long> missingIds = new HashSet<>(event.getIds());
+            books.forEach(book -> {
+                index.put(book.getId(), book.getTitle(), textOf(book));
+                missingIds.remove(book.getId());
+            });
+            missingIds.forEach(index::remove);
+        } catch (RuntimeException ex) {
+            log.error("Failed to update related books index for {} ids: {}", event.getChangeType(), event.getIds(), ex);
+        }
+    }
+
+    // Null when the book is not indexed
+    public List<RelatedBookDto> related(Long id, int limit) {
+        List<MinHashLsh.Match> matches = index.related(id, limit);
+        if (matches == null) {
+            return null;
+        }
+        return matches.stream()
+                .map(match -> new RelatedBookDto(match.id(), match.title(), match.similarity()))
+                .toList();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private static String textOf(BookDto book) {
+        if (book.getDescription() == null) {
+            return book.getTitle();
+        }
+        return book.getTitle() == null ? book.getDescription() : book.getTitle() + " " + book.getDescription();
+    }
+}
@@ -0,0 +1,383 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.ReportJobDto;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Priority;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Status;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Type;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceConflictException;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import com.santoshmane.librarymanagement.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs librarian reports off the request threads.
+// Every report is a full scan and aggregate, so the pool size is the cap on concurrent heavy queries;
+// waiting jobs sit in a bounded priority queue (HIGH before NORMAL before LOW, then FIFO).
+// Rows are streamed from a server-side cursor straight into a CSV result file, which is downloadable
+// until it expires. Cancelling a running job cancels its statement.
+@Service
+@Slf4j
+public class ReportJobService {
+    static final int FETCH_SIZE = 1000;
+    private static final String RESULT_PREFIX = "report-";
+    private static final String RESULT_SUFFIX = ".csv";
+
+    private static final String BOOKS_PER_AUTHOR_PER_YEAR = "select a.id, a.name, extract(year from b.publish_date)::int as year, count(*)"
+            + " from book b left join author a on a.id = b.author_id"
+            + " group by a.id, a.name, year order by a.name nulls last, a.id, year nulls last";
+    private static final String INACTIVE_AUTHORS = "select a.id, a.name, count(b.id), max(b.publish_date)"
+            + " from author a left join book b on b.author_id = a.id"
+            + " group by a.id, a.name having max(b.publish_date) is null or max(b.publish_date) < ?"
+            + " order by a.name, a.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final int maxQueuedJobs;
+    private final long resultTtlMs;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong submissions = new AtomicLong();
+
+    @Autowired
+    public ReportJobService(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${library.reports.directory:data/reports}") Path directory,
+                            @Value("${library.reports.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                            @Value("${library.reports.max-queued-jobs:50}") int maxQueuedJobs,
+                            @Value("${library.reports.result-ttl-ms:3600000}") long resultTtlMs) {
+        this(jdbcTemplate, transactionManager, directory, maxQueuedJobs, resultTtlMs, newExecutor(maxConcurrentJobs));
+    }
+
+    ReportJobService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Path directory,
+                     int maxQueuedJobs, long resultTtlMs, ThreadPoolExecutor executor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = directory;
+        this.maxQueuedJobs = maxQueuedJobs;
+        this.resultTtlMs = resultTtlMs;
+        this.executor = executor;
+        deleteOrphanedResults();
+    }
+
+    private static ThreadPoolExecutor newExecutor(int maxConcurrentJobs) {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ReportJobDto submit(ReportJobDto request) {
+        if (request.getType() == Type.INACTIVE_AUTHORS && request.getSince() == null) {
+            throw new BadRequestException("Report INACTIVE_AUTHORS needs a since date");
+        }
+        ReportJob job = new ReportJob(request.getType(), request.getPriority() == null ? Priority.NORMAL : request.getPriority(),
+                request.getSince(), submissions.incrementAndGet());
+        synchronized (executor) {
+            if (executor.getQueue().size() >= maxQueuedJobs) {
+                log.error("Report queue is full, rejecting {} report", job.type);
+                throw new ServiceUnavailableException("Report queue is full, retry later");
+            }
+            jobs.put(job.id, job);
+            executor.execute(job);
+        }
+        log.info("Queued {} report job: {} with priority {}", job.type, job.id, job.priority);
+        return job.toDto();
+    }
+
+    public List<ReportJobDto> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparingLong(job -> -job.sequence))
+                .map(ReportJob::toDto)
+                .toList();
+    }
+
+    public ReportJobDto getJob(UUID id) {
+        return find(id).toDto();
+    }
+
+    public Resource getResult(UUID id) {
+        ReportJob job = find(id);
+        if (job.status != Status.COMPLETED) {
+            throw new ResourceConflictException("Report job:" + id + " has no result, its status is " + job.status);
+        }
+        return new FileSystemResource(job.result);
+    }
+
+    public String getResultFileName(UUID id) {
+        ReportJob job = find(id);
+        return job.type.name().toLowerCase() + "-" + id + RESULT_SUFFIX;
+    }
+
+    // Queued and running jobs are cancelled, finished ones are removed along with their result
+    public ReportJobDto cancel(UUID id) {
+        ReportJob job = find(id);
+        synchronized (job) {
+            if (job.status == Status.QUEUED && executor.remove(job)) {
+                job.finish(Status.CANCELLED, null);
+            } else if (job.status == Status.QUEUED || job.status == Status.RUNNING) {
+                job.cancelled = true;
+                cancelStatement(job);
+            } else {
+                jobs.remove(id);
+                deleteResult(job);
+            }
+        }
+        log.info("Cancelled report job: {}", id);
+        return job.toDto();
+    }
+
+    @Scheduled(fixedDelayString = "${library.reports.cleanup-interval-ms:60000}")
+    public void expireResults() {
+        Instant expiry = Instant.now().minusMillis(resultTtlMs);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(expiry)) {
+                return false;
+            }
+            deleteResult(job);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::cancelStatement);
+    }
+
+    private void run(ReportJob job) {
+        synchronized (job) {
+            if (job.cancelled) {
+                job.finish(Status.CANCELLED, null);
+                return;
+            }
+            job.startedAt = Instant.now();
+            job.status = Status.RUNNING;
+        }
+        log.info("Running {} report job: {}", job.type, job.id);
+        Path partial = directory.resolve(RESULT_PREFIX + job.id + RESULT_SUFFIX + ".part");
+        try {
+            Files.createDirectories(directory);
+            try (Writer writer = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+                transactionTemplate.executeWithoutResult(status -> write(job, writer));
+            }
+            Path result = Files.move(partial, directory.resolve(RESULT_PREFIX + job.id + RESULT_SUFFIX));
+            synchronized (job) {
+                job.result = result;
+                job.finish(Status.COMPLETED, null);
+            }
+            log.info("Successfully finished {} report job: {} with {} rows in {} ms", job.type, job.id, job.rows.get(),
+                    Duration.between(job.startedAt, job.finishedAt).toMillis());
+        } catch (RuntimeException | IOException ex) {
+            if (job.cancelled) {
+                job.finish(Status.CANCELLED, null);
+                log.info("Report job: {} cancelled after {} rows", job.id, job.rows.get());
+            } else {
+                job.finish(Status.FAILED, ex.getMessage());
+                log.error("Report job: {} failed after {} rows", job.id, job.rows.get(), ex);
+            }
+        } finally {
+            job.statement = null;
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException ex) {
+                log.warn("Failed to delete partial report result: {}", partial, ex);
+            }
+        }
+    }
+
+    private void write(ReportJob job, Writer writer) {
+        String sql = job.type == Type.INACTIVE_AUTHORS ? INACTIVE_AUTHORS : BOOKS_PER_AUTHOR_PER_YEAR;
+        writeLine(writer, job.type == Type.INACTIVE_AUTHORS
+                ? new Object[]{"author_id", "author_name", "books", "last_published"}
+                : new Object[]{"author_id", "author_name", "year", "books"});
+        jdbcTemplate.query(connection -> {
+            if (job.cancelled) {
+                throw new CancellationException("Report job:" + job.id + " cancelled");
+            }
+            PreparedStatement statement = connection.prepareStatement(sql);
+            // With autocommit off inside the transaction, the driver reads through a cursor FETCH_SIZE rows at a time
+            statement.setFetchSize(FETCH_SIZE);
+            if (job.type == Type.INACTIVE_AUTHORS) {
+                statement.setDate(1, Date.valueOf(job.since));
+            }
+            job.statement = statement;
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            if (job.cancelled) {
+                throw new CancellationException("Report job:" + job.id + " cancelled");
+            }
+            writeLine(writer, columns(rs));
+            job.rows.incrementAndGet();
+        });
+    }
+
+    private static Object[] columns(ResultSet rs) throws SQLException {
+        Object[] columns = new Object[rs.getMetaData().getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = rs.getObject(i + 1);
+        }
+        return columns;
+    }
+
+    static void writeLine(Writer writer, Object[] columns) {
+        try {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                String value = columns[i] == null ? "" : columns[i].toString();
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    value = '"' + value.replace("\"", "\"\"") + '"';
+                }
+                writer.write(value);
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void cancelStatement(ReportJob job) {
+        Statement statement = job.statement;
+        if (statement != null) {
+            try {
+                statement.cancel();
+            } catch (SQLException ex) {
+                log.warn("Failed to cancel statement of report job: {}", job.id, ex);
+            }
+        }
+    }
+
+    private void deleteResult(ReportJob job) {
+        if (job.result != null) {
+            try {
+                Files.deleteIfExists(job.result);
+            } catch (IOException ex) {
+                log.warn("Failed to delete report result: {}", job.result, ex);
+            }
+        }
+    }
+
+    // Results are tracked in memory only, files left by a previous process can never be downloaded
+    private void deleteOrphanedResults() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> results = Files.newDirectoryStream(directory, RESULT_PREFIX + "*" + RESULT_SUFFIX + "*")) {
+            for (Path result : results) {
+                Files.deleteIfExists(result);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to delete orphaned report results in {}", directory, ex);
+        }
+    }
+
+    private ReportJob find(UUID id) {
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            log.error("Report job not found by id: {}", id);
+            throw new ResourceNotFoundException("Report job not found by id:" + id);
+        }
+        return job;
+    }
+
+    private class ReportJob implements Runnable, Comparable<ReportJob> {
+        private final UUID id = UUID.randomUUID();
+        private final Type type;
+        private final Priority priority;
+        private final LocalDate since;
+        private final long sequence;
+        private final Instant submittedAt = Instant.now();
+        private final AtomicLong rows = new AtomicLong();
+        private volatile Status status = Status.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile boolean cancelled;
+        private volatile Statement statement;
+        private volatile Path result;
+
+        private ReportJob(Type type, Priority priority, LocalDate since, long sequence) {
+            this.type = type;
+            this.priority = priority;
+            this.since = since;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            ReportJobService.this.run(this);
+        }
+
+        @Override
+        public int compareTo(ReportJob other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+
+        private void finish(Status finalStatus, String message) {
+            error = message;
+            finishedAt = Instant.now();
+            status = finalStatus;
+        }
+
+        private ReportJobDto toDto() {
+            return ReportJobDto.builder()
+                    .id(id)
+                    .type(type)
+                    .priority(priority)
+                    .since(since)
+                    .status(status)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .rows(rows.get())
+                    .error(error)
+                    .build();
+        }
+    }
+}
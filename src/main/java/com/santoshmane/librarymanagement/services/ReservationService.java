@@ -0,0 +1,259 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.ReservationDto;
+import com.santoshmane.librarymanagement.entities.Reservation;
+import com.santoshmane.librarymanagement.entities.ReservationPriority;
+import com.santoshmane.librarymanagement.entities.ReservationStatus;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.repositories.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Service
+@Slf4j
+public class ReservationService {
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final ReservationRepository reservationRepository;
+    private final BookRepository bookRepository;
+
+    private final Map<Long, BookHoldQueue> holdQueues = new ConcurrentHashMap<>();
+    // Write-behind buffers, guarded by pendingLock
+    private final Object pendingLock = new Object();
+    private final Map<UUID, ReservationDto> pendingInserts = new LinkedHashMap<>();
+    private final Map<UUID, ReservationStatus> pendingStatusChanges = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildHoldQueues() {
+        log.info("Rebuilding reservation hold queues");
+        List<Reservation> reservations = reservationRepository.findByStatusOrderByCreatedAt(ReservationStatus.ACTIVE);
+        holdQueues.clear();
+        reservations.forEach(reservation -> {
+            ReservationDto reservationDto = toDto(reservation);
+            holdQueues.computeIfAbsent(reservationDto.getBookId(), bookId -> new BookHoldQueue()).enqueue(reservationDto);
+        });
+        log.info("Successfully rebuilt hold queues with {} active reservations", reservations.size());
+    }
+
+    public ReservationDto createReservation(Long bookId, ReservationDto reservationDto) {
+        log.info("Creating reservation for book id: {}", bookId);
+        if (!bookRepository.existsById(bookId)) {
+            log.error("Book not found by id: {}", bookId);
+            throw new ResourceNotFoundException("Book not found by id:" + bookId);
+        }
+        ReservationDto reservation = ReservationDto.builder()
+                .id(UUID.randomUUID())
+                .bookId(bookId)
+                .patronName(reservationDto.getPatronName().trim())
+                .priority(reservationDto.getPriority() == null ? ReservationPriority.NORMAL : reservationDto.getPriority())
+                .status(ReservationStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+        BookHoldQueue holdQueue = holdQueues.computeIfAbsent(bookId, id -> new BookHoldQueue());
+        holdQueue.enqueue(reservation);
+        synchronized (pendingLock) {
+            pendingInserts.put(reservation.getId(), copyOf(reservation));
+        }
+        log.info("Successfully created reservation: {} for book id: {}", reservation.getId(), bookId);
+        return withPosition(reservation, holdQueue.positionOf(reservation.getId()));
+    }
+
+    public List<ReservationDto> getReservations(Long bookId) {
+        BookHoldQueue holdQueue = holdQueues.get(bookId);
+        if (holdQueue == null) {
+            return List.of();
+        }
+        List<ReservationDto> reservations = holdQueue.snapshot();
+        List<ReservationDto> reservationDtos = new ArrayList<>(reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            reservationDtos.add(withPosition(reservations.get(i), i + 1));
+        }
+        return reservationDtos;
+    }
+
+    public ReservationDto getReservationPosition(Long bookId, UUID reservationId) {
+        BookHoldQueue holdQueue = holdQueues.get(bookId);
+        int position = holdQueue == null ? 0 : holdQueue.positionOf(reservationId);
+        if (position == 0) {
+            log.error("Active reservation not found by id: {}", reservationId);
+            throw new ResourceNotFoundException("Reservation not found by id:" + reservationId);
+        }
+        return withPosition(holdQueue.get(reservationId), position);
+    }
+
+    public void cancelReservation(Long bookId, UUID reservationId) {
+        log.info("Cancelling reservation: {} for book id: {}", reservationId, bookId);
+        BookHoldQueue holdQueue = holdQueues.get(bookId);
+        ReservationDto removed = holdQueue == null ? null : holdQueue.remove(reservationId);
+        if (removed == null) {
+            log.error("Active reservation not found by id: {}", reservationId);
+            throw new ResourceNotFoundException("Reservation not found by id:" + reservationId);
+        }
+        changeStatus(removed.getId(), ReservationStatus.CANCELLED);
+        log.info("Successfully cancelled reservation: {}", reservationId);
+    }
+
+    public ReservationDto promoteNextReservation(Long bookId) {
+        log.info("Promoting next reservation for book id: {}", bookId);
+        BookHoldQueue holdQueue = holdQueues.get(bookId);
+        ReservationDto next = holdQueue == null ? null : holdQueue.poll();
+        if (next == null) {
+            log.error("No active reservation found for book id: {}", bookId);
+            throw new ResourceNotFoundException("No active reservation found for book id:" + bookId);
+        }
+        changeStatus(next.getId(), ReservationStatus.FULFILLED);
+        ReservationDto promoted = copyOf(next);
+        promoted.setStatus(ReservationStatus.FULFILLED);
+        log.info("Successfully promoted reservation: {} for book id: {}", promoted.getId(), bookId);
+        return promoted;
+    }
+
+    // Deleted books, including those removed with their author, drop their holds here;
+    // persisted holds go with them through ON DELETE CASCADE
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChange(CatalogChangeEvent event) {
+        if (event.getEntityType() != EntityType.BOOK || event.getChangeType() != ChangeType.DELETED) {
+            return;
+        }
+        Set<Long> bookIds = new HashSet<>(event.getIds());
+        List<BookHoldQueue> removedQueues = new ArrayList<>();
+        bookIds.forEach(bookId -> {
+            BookHoldQueue holdQueue = holdQueues.remove(bookId);
+            if (holdQueue != null) {
+                removedQueues.add(holdQueue);
+            }
+        });
+        synchronized (pendingLock) {
+            pendingInserts.values().removeIf(reservation -> bookIds.contains(reservation.getBookId()));
+            removedQueues.forEach(holdQueue -> holdQueue.snapshot().forEach(reservation -> pendingStatusChanges.remove(reservation.getId())));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.reservations.flush-interval-ms:500}")
+    public void flushPendingWrites() {
+        List<ReservationDto> inserts;
+        Map<UUID, ReservationStatus> statusChanges;
+        synchronized (pendingLock) {
+            if (pendingInserts.isEmpty() && pendingStatusChanges.isEmpty()) {
+                return;
+            }
+            inserts = new ArrayList<>(pendingInserts.values());
+            statusChanges = new HashMap<>(pendingStatusChanges);
+            pendingInserts.clear();
+            pendingStatusChanges.clear();
+        }
+        log.debug("Flushing {} reservation inserts and {} status changes", inserts.size(), statusChanges.size());
+        for (int from = 0; from < inserts.size(); from += FLUSH_BATCH_SIZE) {
+            insertBatch(inserts.subList(from, Math.min(from + FLUSH_BATCH_SIZE, inserts.size())));
+        }
+        Map<ReservationStatus, List<UUID>> idsByStatus = statusChanges.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        idsByStatus.forEach((status, ids) -> {
+            for (int from = 0; from < ids.size(); from += FLUSH_BATCH_SIZE) {
+                List<UUID> batch = ids.subList(from, Math.min(from + FLUSH_BATCH_SIZE, ids.size()));
+                try {
+                    reservationRepository.updateStatusByIdIn(status, batch);
+                } catch (DataAccessException ex) {
+                    log.error("Failed to flush {} reservation status changes, retrying later", batch.size(), ex);
+                    synchronized (pendingLock) {
+                        batch.forEach(id -> pendingStatusChanges.putIfAbsent(id, status));
+                    }
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending reservation writes before shutdown");
+        flushPendingWrites();
+    }
+
+    private void insertBatch(List<ReservationDto> batch) {
+        try {
+            reservationRepository.saveAll(batch.stream().map(this::toEntity).collect(Collectors.toList()));
+        } catch (DataIntegrityViolationException ex) {
+            // One bad row (e.g. its book was deleted meanwhile) must not block the rest of the batch
+            log.warn("Reservation batch insert failed, retrying {} rows individually", batch.size());
+            batch.forEach(reservation -> {
+                try {
+                    reservationRepository.save(toEntity(reservation));
+                } catch (DataIntegrityViolationException rowEx) {
+                    log.error("Dropping reservation: {} for book id: {}", reservation.getId(), reservation.getBookId(), rowEx);
+                }
+            });
+        } catch (DataAccessException ex) {
+            log.error("Failed to flush {} reservation inserts, retrying later", batch.size(), ex);
+            synchronized (pendingLock) {
+                batch.forEach(reservation -> {
+                    ReservationStatus status = pendingStatusChanges.remove(reservation.getId());
+                    if (status != null) {
+                        reservation.setStatus(status);
+                    }
+                    pendingInserts.putIfAbsent(reservation.getId(), reservation);
+                });
+            }
+        }
+    }
+
+    private void changeStatus(UUID reservationId, ReservationStatus status) {
+        synchronized (pendingLock) {
+            ReservationDto pendingInsert = pendingInserts.get(reservationId);
+            if (pendingInsert != null) {
+                pendingInsert.setStatus(status);
+            } else {
+                pendingStatusChanges.put(reservationId, status);
+            }
+        }
+    }
+
+    private Reservation toEntity(ReservationDto reservationDto) {
+        return Reservation.builder()
+                .id(reservationDto.getId())
+                .book(bookRepository.getReferenceById(reservationDto.getBookId()))
+                .patronName(reservationDto.getPatronName())
+                .priority(reservationDto.getPriority())
+                .status(reservationDto.getStatus())
+                .createdAt(reservationDto.getCreatedAt())
+                .build();
+    }
+
+    private ReservationDto toDto(Reservation reservation) {
+        return ReservationDto.builder()
+                .id(reservation.getId())
+                .bookId(reservation.getBook().getId())
+                .patronName(reservation.getPatronName())
+                .priority(reservation.getPriority())
+                .status(reservation.getStatus())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+
+    private ReservationDto withPosition(ReservationDto reservationDto, int position) {
+        ReservationDto copy = copyOf(reservationDto);
+        copy.setPosition(position);
+        return copy;
+    }
+
+    private ReservationDto copyOf(ReservationDto reservationDto) {
+        return reservationDto.toBuilder().build();
+    }
+}
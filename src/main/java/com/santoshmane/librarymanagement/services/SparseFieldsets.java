@@ -0,0 +1,32 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Shared ?fields= validation for the sparse fieldset reads of books and authors
+@Slf4j
+final class SparseFieldsets {
+
+    private SparseFieldsets() {
+    }
+
+    static Set<String> validateFields(String resource, Set<String> fields, List<String> selectableFields) {
+        Set<String> requestedFields = fields.stream()
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        List<String> unknownFields = requestedFields.stream()
+                .filter(field -> !selectableFields.contains(field))
+                .sorted()
+                .toList();
+        if (requestedFields.isEmpty() || !unknownFields.isEmpty()){
+            log.error("Invalid {} fields requested: {}",resource,fields);
+            throw new BadRequestException("Invalid "+resource+" fields requested: "+unknownFields+", allowed fields: "+selectableFields);
+        }
+        return requestedFields;
+    }
+}
@@ -0,0 +1,17 @@
+package com.santoshmane.librarymanagement.snapshot;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+// Point-in-time copy of the catalog
+@Value
+public class CatalogSnapshot {
+    // Database time of the read transaction the catalog was copied in
+    Instant createdAt;
+    List<AuthorDto> authors;
+    List<BookDto> books;
+}
@@ -0,0 +1,154 @@
+package com.santoshmane.librarymanagement.snapshot;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+// Binary catalog snapshot file, big endian:
+//   header  magic "LMSN", format version, created at (epoch ms), author/book counts, body length,
+//           CRC32C of the body
+//   body    authors (id, name), books (id, title, description, publish epoch day, author id)
+// Strings are an int byte length (-1 for null) followed by UTF-8 bytes. Missing dates and author ids are
+// written as NO_DATE and NO_ID. Files are written to a temp file and moved into place, and read through
+// a memory mapping after the header and checksum are verified.
+final class CatalogSnapshotFormat {
+    static final int MAGIC = 0x4C4D534E;
+    // Version 1 also carried the cached ids, which now come from HotKeyTracker
+    static final int VERSION = 2;
+    static final int HEADER_LENGTH = 40;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long NO_ID = 0;
+
+    private CatalogSnapshotFormat() {
+    }
+
+    static long write(Path path, CatalogSnapshot snapshot) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32C checksum = new CRC32C();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_LENGTH);
+                OutputStream channelStream = Channels.newOutputStream(channel);
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(channelStream, checksum), 1 << 16));
+                for (AuthorDto author : snapshot.getAuthors()) {
+                    body.writeLong(author.getId());
+                    writeString(body, author.getName());
+                }
+                for (BookDto book : snapshot.getBooks()) {
+                    body.writeLong(book.getId());
+                    writeString(body, book.getTitle());
+                    writeString(body, book.getDescription());
+                    body.writeInt(book.getPublishDate() == null ? NO_DATE : Math.toIntExact(book.getPublishDate().toEpochDay()));
+                    body.writeLong(book.getCreatedBy() == null ? NO_ID : book.getCreatedBy().getId());
+                }
+                body.flush();
+                long bodyLength = channel.position() - HEADER_LENGTH;
+                ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+                        .putInt(MAGIC)
+                        .putInt(VERSION)
+                        .putLong(snapshot.getCreatedAt().toEpochMilli())
+                        .putInt(snapshot.getAuthors().size())
+                        .putInt(snapshot.getBooks().size())
+                        .putLong(bodyLength)
+                        .putLong(checksum.getValue())
+                        .flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    static CatalogSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                throw new IOException("Catalog snapshot is truncated: " + size + " bytes");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Catalog snapshot is too large to map: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported catalog snapshot version " + version + ", expected " + VERSION);
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int authorCount = buffer.getInt();
+            int bookCount = buffer.getInt();
+            long bodyLength = buffer.getLong();
+            long expectedChecksum = buffer.getLong();
+            if (HEADER_LENGTH + bodyLength != size) {
+                throw new IOException("Catalog snapshot body is " + (size - HEADER_LENGTH) + " bytes, header says " + bodyLength);
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.slice(HEADER_LENGTH, (int) bodyLength));
+            if (checksum.getValue() != expectedChecksum) {
+                throw new IOException("Catalog snapshot checksum mismatch: " + path);
+            }
+
+            List<AuthorDto> authors = new ArrayList<>(authorCount);
+            for (int i = 0; i < authorCount; i++) {
+                authors.add(new AuthorDto(buffer.getLong(), readString(buffer)));
+            }
+            List<BookDto> books = new ArrayList<>(bookCount);
+            for (int i = 0; i < bookCount; i++) {
+                long id = buffer.getLong();
+                String title = readString(buffer);
+                String description = readString(buffer);
+                int epochDay = buffer.getInt();
+                long authorId = buffer.getLong();
+                books.add(new BookDto(id, title, description, epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay),
+                        authorId == NO_ID ? null : authorId, null));
+            }
+            return new CatalogSnapshot(createdAt, authors, books);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
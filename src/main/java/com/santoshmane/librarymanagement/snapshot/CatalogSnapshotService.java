@@ -0,0 +1,203 @@
+package com.santoshmane.librarymanagement.snapshot;
+
+import com.santoshmane.librarymanagement.cache.HotKeyTracker;
+import com.santoshmane.librarymanagement.cache.ResponseCache;
+import com.santoshmane.librarymanagement.config.AppConfig;
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.services.AuthorNameIndex;
+import com.santoshmane.librarymanagement.services.BookDuplicateGuard;
+import com.santoshmane.librarymanagement.services.RelatedBooksIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Warm start for the in-memory indexes and caches.
+// On startup the catalog comes from the last binary snapshot plus a catch-up query for rows changed since
+// (updated_at >= snapshot time - catch-up margin, which covers transactions still open when the snapshot
+// was read and clock skew between nodes) and an id diff for deletes; without a usable snapshot it is read
+// from the database as before. The hot books and authors HotKeyTracker restored are then put into the caches.
+@Component
+@Slf4j
+public class CatalogSnapshotService {
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final ResponseCache responseCache;
+    private final HotKeyTracker hotKeyTracker;
+    private final AuthorNameIndex authorNameIndex;
+    private final RelatedBooksIndex relatedBooksIndex;
+    private final BookDuplicateGuard bookDuplicateGuard;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration catchUpMargin;
+
+    public CatalogSnapshotService(AuthorRepository authorRepository,
+                                  BookRepository bookRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CacheManager cacheManager,
+                                  ResponseCache responseCache,
+                                  HotKeyTracker hotKeyTracker,
+                                  AuthorNameIndex authorNameIndex,
+                                  RelatedBooksIndex relatedBooksIndex,
+                                  BookDuplicateGuard bookDuplicateGuard,
+                                  @Value("${library.snapshot.enabled:false}") boolean enabled,
+                                  @Value("${library.snapshot.path:data/catalog.snapshot}") Path path,
+                                  @Value("${library.snapshot.catch-up-margin-ms:300000}") long catchUpMarginMs) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // One consistent view of both tables, stamped with its start time
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheManager = cacheManager;
+        this.responseCache = responseCache;
+        this.hotKeyTracker = hotKeyTracker;
+        this.authorNameIndex = authorNameIndex;
+        this.relatedBooksIndex = relatedBooksIndex;
+        this.bookDuplicateGuard = bookDuplicateGuard;
+        this.enabled = enabled;
+        this.path = path;
+        this.catchUpMargin = Duration.ofMillis(catchUpMarginMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        // Every cache eviction bumps it, see warmCaches
+        long generation = responseCache.generation();
+        CatalogSnapshot catalog = enabled ? loadSnapshot() : null;
+        String source = catalog == null ? "database" : "snapshot";
+        if (catalog == null) {
+            catalog = readCatalog();
+        }
+        authorNameIndex.rebuild(catalog.getAuthors());
+        relatedBooksIndex.rebuild(catalog.getBooks());
+        bookDuplicateGuard.rebuild(catalog.getBooks());
+        warmCaches(catalog, generation);
+        log.info("Warmed up indexes from {} with {} authors and {} books in {} ms", source,
+                catalog.getAuthors().size(), catalog.getBooks().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(initialDelayString = "${library.snapshot.interval-ms:900000}", fixedDelayString = "${library.snapshot.interval-ms:900000}")
+    public void writeSnapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            CatalogSnapshot snapshot = readCatalog();
+            long bytes = CatalogSnapshotFormat.write(path, snapshot);
+            log.info("Wrote catalog snapshot {} with {} authors and {} books, {} KB in {} ms", path,
+                    snapshot.getAuthors().size(), snapshot.getBooks().size(), bytes / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | DataAccessException ex) {
+            log.error("Failed to write catalog snapshot {}", path, ex);
+        }
+    }
+
+    // Null when there is no usable snapshot
+    CatalogSnapshot loadSnapshot() {
+        if (!Files.exists(path)) {
+            log.info("No catalog snapshot at {}, loading from database", path);
+            return null;
+        }
+        CatalogSnapshot snapshot;
+        try {
+            snapshot = CatalogSnapshotFormat.read(path);
+        } catch (IOException | RuntimeException ex) {
+            log.error("Ignoring unreadable catalog snapshot {}, loading from database", path, ex);
+            return null;
+        }
+        return catchUp(snapshot);
+    }
+
+    CatalogSnapshot catchUp(CatalogSnapshot snapshot) {
+        Instant since = snapshot.getCreatedAt().minus(catchUpMargin);
+        Map<Long, AuthorDto> authors = byId(snapshot.getAuthors(), AuthorDto::getId);
+        List<AuthorDto> changedAuthors = authorRepository.findAuthorDtosUpdatedSince(since);
+        changedAuthors.forEach(author -> authors.put(author.getId(), author));
+        authors.keySet().retainAll(new HashSet<>(authorRepository.findAllIds()));
+
+        Map<Long, BookDto> books = byId(snapshot.getBooks(), BookDto::getId);
+        List<BookDto> changedBooks = bookRepository.findBookDtosUpdatedSince(since);
+        changedBooks.forEach(book -> books.put(book.getId(), book));
+        books.keySet().retainAll(new HashSet<>(bookRepository.findAllIds()));
+        // Snapshot books carry only the author id, names come from the caught up authors
+        List<BookDto> resolvedBooks = books.values().stream()
+                .map(book -> withAuthor(book, authors))
+                .collect(Collectors.toList());
+        log.info("Caught up catalog snapshot from {}: {} changed authors, {} changed books", snapshot.getCreatedAt(),
+                changedAuthors.size(), changedBooks.size());
+        return new CatalogSnapshot(snapshot.getCreatedAt(), new ArrayList<>(authors.values()), resolvedBooks);
+    }
+
+    private CatalogSnapshot readCatalog() {
+        return transactionTemplate.execute(status -> {
+            Instant createdAt = jdbcTemplate.queryForObject("select now()", OffsetDateTime.class).toInstant();
+            return new CatalogSnapshot(createdAt, authorRepository.findAllAuthorDtos(), bookRepository.findAllBookDtos());
+        });
+    }
+
+    // The catalog was read before the warm-up started; if anything was evicted since, an entry put here may
+    // be older than the eviction, so the warmed entries are taken out again as ResponseCache.put does
+    void warmCaches(CatalogSnapshot catalog, long generation) {
+        warmCache(AppConfig.BOOKS_CACHE, hotKeyTracker.hotBookIds(), byId(catalog.getBooks(), BookDto::getId), generation);
+        warmCache(AppConfig.AUTHORS_CACHE, hotKeyTracker.hotAuthorIds(), byId(catalog.getAuthors(), AuthorDto::getId), generation);
+    }
+
+    private <T> void warmCache(String cacheName, List<Long> ids, Map<Long, T> itemsById, long generation) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        List<Long> warmedIds = new ArrayList<>(ids.size());
+        ids.forEach(id -> {
+            T item = itemsById.get(id);
+            if (item != null && cache.putIfAbsent(id, item) == null) {
+                warmedIds.add(id);
+            }
+        });
+        if (responseCache.generation() != generation) {
+            log.info("Caches were invalidated during warm-up, dropping {} warmed {} entries", warmedIds.size(), cacheName);
+            warmedIds.forEach(cache::evict);
+        }
+    }
+
+    private static BookDto withAuthor(BookDto book, Map<Long, AuthorDto> authors) {
+        AuthorDto author = book.getCreatedBy() == null ? null : authors.get(book.getCreatedBy().getId());
+        return new BookDto(book.getId(), book.getTitle(), book.getDescription(), book.getPublishDate(),
+                author == null ? null : author.getId(), author == null ? null : author.getName());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> itemsById = new LinkedHashMap<>(items.size() * 2);
+        items.forEach(item -> itemsById.put(idOf.apply(item), item));
+        return itemsById;
+    }
+}
@@ -0,0 +1,36 @@
+package com.santoshmane.librarymanagement;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@TestConfiguration
+public class QueryBudgetConfiguration {
+
+    @Bean
+    static SqlStatementRecorder sqlStatementRecorder() {
+        return new SqlStatementRecorder();
+    }
+
+    @Bean
+    static BeanPostProcessor statementRecordingDataSourcePostProcessor(SqlStatementRecorder sqlStatementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? sqlStatementRecorder.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    // Outermost, so statements issued by the application's own filters are counted as well
+    @Bean
+    FilterRegistrationBean<SqlStatementRecorder> sqlStatementRecorderRegistration(SqlStatementRecorder sqlStatementRecorder) {
+        FilterRegistrationBean<SqlStatementRecorder> registration = new FilterRegistrationBean<>(sqlStatementRecorder);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
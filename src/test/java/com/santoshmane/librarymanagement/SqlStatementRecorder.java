@@ -0,0 +1,116 @@
+package com.santoshmane.librarymanagement;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Records the SQL sent through the application DataSource while serving HTTP requests.
+// Catalog change listeners run on the request thread (the services are not transactional and the listeners
+// fall back to immediate execution), so their statements, such as the pg_notify, count toward the budget.
+// Work on other threads (schedulers, async work, the test itself) is never recorded.
+public class SqlStatementRecorder extends OncePerRequestFilter {
+
+    private static final Set<String> STATEMENT_SQL_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    private final ThreadLocal<Boolean> servingRequest = ThreadLocal.withInitial(() -> false);
+    private volatile List<String> recording;
+
+    public List<String> record(Runnable action) {
+        List<String> statements = new CopyOnWriteArrayList<>();
+        recording = statements;
+        try {
+            action.run();
+        } finally {
+            recording = null;
+        }
+        return new ArrayList<>(statements);
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return new RecordingDataSource(dataSource);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        servingRequest.set(true);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            servingRequest.remove();
+        }
+    }
+
+    private void recordStatement(String sql) {
+        List<String> statements = recording;
+        if (statements != null && servingRequest.get()) {
+            statements.add(sql);
+        }
+    }
+
+    private <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (type == Connection.class && (name.equals("prepareStatement") || name.equals("prepareCall"))) {
+                recordStatement((String) args[0]);
+            } else if (type == Statement.class && STATEMENT_SQL_METHODS.contains(name) && args != null && args.length > 0) {
+                recordStatement((String) args[0]);
+            }
+            Object result = invoke(method, target, args);
+            if (type == Connection.class && name.equals("createStatement")) {
+                return proxy(Statement.class, (Statement) result);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Closeable so the pool is still shut down with the context it belongs to
+    private class RecordingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        RecordingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
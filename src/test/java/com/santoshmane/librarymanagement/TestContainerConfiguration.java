@@ -9,9 +9,10 @@ import org.testcontainers.utility.DockerImageName;
 @TestConfiguration
 public class TestContainerConfiguration {
 
+    // The oldest supported server: uk_book_title_author needs PostgreSQL 15 (NULLS NOT DISTINCT)
     @Bean
     @ServiceConnection
     PostgreSQLContainer<?> postgresContainer() {
-        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"));
+        return new PostgreSQLContainer<>(DockerImageName.parse("postgres:15"));
     }
 }
@@ -0,0 +1,122 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.config.AppConfig;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationChannelTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private JdbcConnectionDetails connectionDetails;
+
+    private final ResponseCache responseCache = new ResponseCache(1 << 20, 60_000);
+    private CacheInvalidationChannel channel;
+    private Cache books;
+    private Cache authors;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(AppConfig.BOOKS_CACHE, AppConfig.AUTHORS_CACHE);
+        channel = new CacheInvalidationChannel(cacheManager, responseCache, jdbcTemplate, transactionManager, connectionDetails,
+                false, "library_cache_invalidation", 1000, 30000);
+        books = cacheManager.getCache(AppConfig.BOOKS_CACHE);
+        authors = cacheManager.getCache(AppConfig.AUTHORS_CACHE);
+        books.put(1L, "book 1");
+        books.put(2L, "book 2");
+        authors.put(1L, "author 1");
+        responseCache.put("/books/createdBy/1", ResponseCache.CachedResponse.of("application/json", new byte[]{'[', ']'}, 1024), responseCache.generation());
+    }
+
+    @Test
+    void testApply_whenBookMessageFromOtherNode_thenEvictOnlyListedBooks() {
+        // Act, When
+        channel.apply("node-a:1:BOOK:1");
+
+        // Assert, Then
+        assertThat(books.get(1L)).isNull();
+        assertThat(books.get(2L)).isNotNull();
+        assertThat(authors.get(1L)).isNotNull();
+        assertThat(responseCache.get("/books/createdBy/1")).isNull();
+    }
+
+    @Test
+    void testApply_whenAuthorMessage_thenEvictAuthorAndBooksCarryingItsName() {
+        // Act, When
+        channel.apply("node-a:1:AUTHOR:1");
+
+        // Assert, Then
+        assertThat(authors.get(1L)).isNull();
+        assertThat(books.get(1L)).isNull();
+        assertThat(books.get(2L)).isNull();
+    }
+
+    @Test
+    void testOnNotification_whenIdsAreMalformed_thenFlushAllCachesInsteadOfFailing() {
+        // Act, When
+        channel.onNotification("node-a:1:BOOK:1,not-an-id");
+
+        // Assert, Then
+        assertThat(books.get(2L)).isNull();
+        assertThat(authors.get(1L)).isNull();
+        assertThat(responseCache.get("/books/createdBy/1")).isNull();
+    }
+
+    @Test
+    void testApply_whenSenderSequenceHasGap_thenFlushAllCaches() {
+        // Arrange, Given
+        channel.apply("node-a:1:BOOK:1");
+        books.put(1L, "book 1");
+
+        // Act, When
+        channel.apply("node-a:3:BOOK:2");
+
+        // Assert, Then
+        assertThat(books.get(1L)).isNull();
+        assertThat(authors.get(1L)).isNull();
+    }
+
+    @Test
+    void testApply_whenOwnMessageOrMalformed_thenKeepCaches() {
+        // Act, When
+        channel.apply(channel.nodeId() + ":1:ALL:*");
+        channel.apply("garbage");
+        channel.apply("node-a:x:ALL:*");
+
+        // Assert, Then
+        assertThat(books.get(1L)).isNotNull();
+        assertThat(authors.get(1L)).isNotNull();
+        assertThat(responseCache.get("/books/createdBy/1")).isNotNull();
+    }
+
+    @Test
+    void testOnCatalogChange_whenDisabled_thenEvictLocallyWithoutPublishing() {
+        // Act, When
+        channel.onCatalogChange(new CatalogChangeEvent(EntityType.BOOK, ChangeType.UPDATED, List.of(1L, 2L)));
+
+        // Assert, Then
+        assertThat(books.get(1L)).isNull();
+        assertThat(books.get(2L)).isNull();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
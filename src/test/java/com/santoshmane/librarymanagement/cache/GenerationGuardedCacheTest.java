@@ -0,0 +1,77 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationGuardedCacheTest {
+
+    private final GenerationGuardedCache cache = new GenerationGuardedCache(new CaffeineCache("books", Caffeine.newBuilder().build()));
+
+    @Test
+    void testPut_whenEvictedBetweenMissAndPut_thenDropLoadedValue() {
+        // Arrange, Given
+        assertThat(cache.get(1L)).isNull();
+        BookDto loaded = BookDto.builder().id(1L).title("OLD TITLE").build();
+
+        // Act, When
+        CompletableFuture.runAsync(() -> cache.evict(1L)).join();
+        cache.put(1L, loaded);
+
+        // Assert, Then
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void testPut_whenNotEvictedSinceMiss_thenKeepLoadedValue() {
+        // Arrange, Given
+        assertThat(cache.get(1L)).isNull();
+        BookDto loaded = BookDto.builder().id(1L).title("TITLE").build();
+
+        // Act, When
+        cache.put(1L, loaded);
+
+        // Assert, Then
+        assertThat(cache.get(1L).get()).isSameAs(loaded);
+    }
+
+    @Test
+    void testPut_whenClearedWhileAnotherThreadLoads_thenOnlyThatThreadsValueIsDropped() {
+        // Arrange, Given
+        assertThat(cache.get(1L)).isNull();
+        BookDto stale = BookDto.builder().id(1L).title("OLD TITLE").build();
+        BookDto fresh = BookDto.builder().id(2L).title("NEW TITLE").build();
+
+        // Act, When
+        cache.clear();
+        CompletableFuture.runAsync(() -> {
+            assertThat(cache.get(2L)).isNull();
+            cache.put(2L, fresh);
+        }).join();
+        cache.put(1L, stale);
+
+        // Assert, Then
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L).get()).isSameAs(fresh);
+    }
+
+    @Test
+    void testGetCache_whenCalledRepeatedly_thenShareOneGuardedCache() {
+        // Arrange, Given
+        GenerationGuardedCacheManager cacheManager = new GenerationGuardedCacheManager(new CaffeineCacheManager("books"));
+
+        // Act, When
+        Cache first = cacheManager.getCache("books");
+
+        // Assert, Then
+        assertThat(first).isInstanceOf(GenerationGuardedCache.class).isSameAs(cacheManager.getCache("books"));
+        assertThat(cacheManager.getCache("authors")).isNull();
+    }
+}
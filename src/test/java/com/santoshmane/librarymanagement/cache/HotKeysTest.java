@@ -0,0 +1,71 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.dtos.HotKeyDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeysTest {
+
+    @Test
+    void testRecord_whenFewKeysHotAmongManyCold_thenKeepHotKeysHottestFirst() {
+        // Arrange, Given
+        HotKeys hotKeys = new HotKeys(3, 1024, 4);
+
+        // Act, When
+        for (long cold = 1000; cold < 20_000; cold++) {
+            hotKeys.record(cold);
+            if (cold % 10 == 0) {
+                hotKeys.record(1);
+            }
+            if (cold % 20 == 0) {
+                hotKeys.record(2);
+            }
+            if (cold % 40 == 0) {
+                hotKeys.record(3);
+            }
+        }
+
+        // Assert, Then
+        assertThat(hotKeys.top()).extracting(HotKeyDto::getId).containsExactly(1L, 2L, 3L);
+        assertThat(hotKeys.top().getFirst().getEstimatedAccesses()).isBetween(1900L, 2000L);
+    }
+
+    @Test
+    void testAdd_whenManyKeysShareCounters_thenNeverUnderCount() {
+        // Arrange, Given
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        Map<Long, Long> counts = new HashMap<>();
+        Random random = new Random(42);
+
+        // Act, When
+        for (int i = 0; i < 10_000; i++) {
+            long key = random.nextInt(500);
+            sketch.add(key, 1);
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        // Assert, Then
+        counts.forEach((key, count) -> assertThat(sketch.estimate(key)).isGreaterThanOrEqualTo(count));
+        assertThat(sketch.estimate(10_000)).isLessThan(10_000);
+        assertThat(sketch.memoryBytes()).isEqualTo(64 * 4 * Long.BYTES);
+    }
+
+    @Test
+    void testDecay_whenCountsHalved_thenDropKeysThatReachZero() {
+        // Arrange, Given
+        HotKeys hotKeys = new HotKeys(10, 1024, 4);
+        hotKeys.add(1, 8);
+        hotKeys.record(2);
+
+        // Act, When
+        hotKeys.decay();
+
+        // Assert, Then
+        assertThat(hotKeys.top()).containsExactly(new HotKeyDto(1L, 4));
+    }
+}
@@ -0,0 +1,77 @@
+package com.santoshmane.librarymanagement.cache;
+
+import com.santoshmane.librarymanagement.cache.ResponseCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheTest {
+
+    private final ResponseCache responseCache = new ResponseCache(1 << 20, 60_000);
+
+    @Test
+    void testPut_whenClearedWhileResponseComputed_thenDropResponse() {
+        // Arrange, Given
+        long generation = responseCache.generation();
+        responseCache.clear();
+
+        // Act, When
+        responseCache.put("/books/createdBy/1", response("[]", 1024), generation);
+
+        // Assert, Then
+        assertThat(responseCache.get("/books/createdBy/1")).isNull();
+    }
+
+    @Test
+    void testPut_whenNotClearedSince_thenServeResponse() {
+        // Arrange, Given
+        CachedResponse response = response("[]", 1024);
+
+        // Act, When
+        responseCache.put("/books/createdBy/1", response, responseCache.generation());
+
+        // Assert, Then
+        assertThat(responseCache.get("/books/createdBy/1")).isSameAs(response);
+    }
+
+    @Test
+    void testOf_whenBodyReachesGzipThreshold_thenKeepGzippedCopy() throws IOException {
+        // Act, When
+        CachedResponse small = response("[]", 3);
+        CachedResponse large = response("[{}]", 3);
+
+        // Assert, Then
+        assertThat(small.gzippedBody()).isNull();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(large.gzippedBody()))) {
+            assertThat(new String(gzip.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("[{}]");
+        }
+        assertThat(large.etag()).isNotEqualTo(small.etag());
+        assertThat(large.gzipEtag()).isNotEqualTo(large.etag()).startsWith("\"").endsWith("-gzip\"");
+    }
+
+    @Test
+    void testOf_whenOnlyEnvelopeDiffers_thenKeepETagPerContentType() {
+        // Arrange, Given
+        byte[] data = "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8);
+        byte[] earlier = "{\"timeStamp\":\"10:00:00 01-01-2026\",\"data\":[{\"id\":1}]}".getBytes(StandardCharsets.UTF_8);
+        byte[] later = "{\"timeStamp\":\"10:05:00 01-01-2026\",\"data\":[{\"id\":1}]}".getBytes(StandardCharsets.UTF_8);
+
+        // Act, When
+        CachedResponse first = CachedResponse.of("application/json", earlier, data, 1024);
+        CachedResponse recomputed = CachedResponse.of("application/json", later, data, 1024);
+        CachedResponse cbor = CachedResponse.of("application/cbor", later, data, 1024);
+
+        // Assert, Then
+        assertThat(recomputed.etag()).isEqualTo(first.etag());
+        assertThat(cbor.etag()).isNotEqualTo(first.etag());
+    }
+
+    private static CachedResponse response(String body, int gzipMinBytes) {
+        return CachedResponse.of("application/json", body.getBytes(StandardCharsets.UTF_8), gzipMinBytes);
+    }
+}
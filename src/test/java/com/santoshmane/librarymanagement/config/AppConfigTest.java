@@ -0,0 +1,70 @@
+package com.santoshmane.librarymanagement.config;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AppConfigTest {
+
+    private final ModelMapper modelMapper = new AppConfig().modelMapper();
+
+    private Author author;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // Stands in for an uninitialized lazy collection: any access would be a query
+        List<Book> lazyBooks = mock(List.class, invocation -> {
+            throw new AssertionError("Author.books must not be touched");
+        });
+        author = Author.builder().id(1L).name("JOHN DOE").books(lazyBooks).build();
+    }
+
+    @Test
+    void testMapAuthor_whenBooksLazy_thenSkipBooks() {
+        // Act, When
+        AuthorDto authorDto = modelMapper.map(author, AuthorDto.class);
+
+        // Assert, Then
+        assertThat(authorDto.getId()).isEqualTo(1L);
+        assertThat(authorDto.getName()).isEqualTo("JOHN DOE");
+        assertThat(authorDto.getBooks()).isNull();
+    }
+
+    @Test
+    void testMapBook_whenAuthorBooksLazy_thenMapAuthorWithoutBooks() {
+        // Arrange, Given
+        Book book = Book.builder().id(5L).title("FIRST BOOK").description("First").publishDate(LocalDate.of(2020, 1, 1)).createdBy(author).build();
+
+        // Act, When
+        BookDto bookDto = modelMapper.map(book, BookDto.class);
+
+        // Assert, Then
+        assertThat(bookDto.getTitle()).isEqualTo("FIRST BOOK");
+        assertThat(bookDto.getCreatedBy().getName()).isEqualTo("JOHN DOE");
+        assertThat(bookDto.getCreatedBy().getBooks()).isNull();
+    }
+
+    @Test
+    void testMapAuthorDto_whenBooksEmbedded_thenNeverMapThemToEntities() {
+        // Arrange, Given
+        AuthorDto authorDto = AuthorDto.builder().id(1L).name("JOHN DOE").books(List.of(new BookDto())).build();
+
+        // Act, When
+        Author mapped = modelMapper.map(authorDto, Author.class);
+
+        // Assert, Then
+        assertThat(mapped.getName()).isEqualTo("JOHN DOE");
+        assertThat(mapped.getBooks()).isNull();
+    }
+}
@@ -1,6 +1,8 @@
 package com.santoshmane.librarymanagement.controllers;
 
 
+import com.santoshmane.librarymanagement.QueryBudgetConfiguration;
+import com.santoshmane.librarymanagement.SqlStatementRecorder;
 import com.santoshmane.librarymanagement.TestContainerConfiguration;
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
 import com.santoshmane.librarymanagement.dtos.BookDto;
@@ -17,10 +19,13 @@ import org.springframework.context.annotation.Import;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @AutoConfigureWebTestClient(timeout = "100000")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
-@Import(TestContainerConfiguration.class)
+@Import({TestContainerConfiguration.class, QueryBudgetConfiguration.class})
 public class AbstractIntegrationTest {
 
     @Autowired
@@ -35,6 +40,9 @@ public class AbstractIntegrationTest {
     @Autowired
     BookRepository bookRepository;
 
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
     Author mockAuthor;
     Book mockBook;
     AuthorDto mockAuthorDto;
@@ -61,4 +69,11 @@ public class AbstractIntegrationTest {
         bookRepository.deleteAll();
     }
 
+    // Fails listing the SQL when the request sends more statements to the database than its budget allows
+    void assertStatementBudget(int budget, Runnable request) {
+        List<String> statements = sqlStatementRecorder.record(request);
+        assertThat(statements)
+                .as("SQL statements sent while serving the request, budget %d", budget)
+                .hasSizeLessThanOrEqualTo(budget);
+    }
 }
@@ -1,8 +1,23 @@
 package com.santoshmane.librarymanagement.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
 import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class AuthorControllerTestIT extends AbstractIntegrationTest{
     @Test
@@ -146,4 +161,235 @@ class AuthorControllerTestIT extends AbstractIntegrationTest{
                 .expectBody()
                 .jsonPath("$.data").isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetAuthorById_whenCborAccepted_thenReturnCborEnvelope() throws IOException {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+
+        byte[] body = webTestClient.get()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(response.at("/data/id").asLong()).isEqualTo(savedAuthor.getId());
+        assertThat(response.at("/data/name").asText()).isEqualTo(savedAuthor.getName());
+    }
+
+    @Test
+    void testGetAuthorById_whenCborAcceptedAndNotFound_thenReturnCborError() throws IOException {
+        byte[] body = webTestClient.get()
+                .uri("/authors/999")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(response.at("/apiError/message").asText()).isEqualTo("Author not found by id:999");
+    }
+
+    @Test
+    void testGetAuthorsByName_whenFieldsRequested_thenReturnOnlyRequestedFields() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+
+        webTestClient.get()
+                .uri("/authors/name/{name}?fields=name", savedAuthor.getName())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].name").isEqualTo(savedAuthor.getName())
+                .jsonPath("$.data.[0].id").doesNotExist();
+    }
+
+    @Test
+    void testGetAuthorById_whenBooksEmbedded_thenReturnAuthorWithBooks() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.get()
+                .uri("/authors/{id}?embed=books", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.name").isEqualTo(savedAuthor.getName())
+                .jsonPath("$.data.books.[0].id").isEqualTo(savedBook.getId())
+                .jsonPath("$.data.books.[0].title").isEqualTo(savedBook.getTitle());
+        webTestClient.get()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.books").doesNotExist();
+    }
+
+    @Test
+    void testGetAllAuthors_whenUnknownEmbed_thenReturnBadRequest() {
+        webTestClient.get()
+                .uri("/authors?embed=reviews")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetAuthors_whenVariantParamsCombined_thenReturnBadRequest() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+
+        webTestClient.get()
+                .uri("/authors?embed=books&fields=id")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.apiError.message").isEqualTo("Unsupported combination of query parameters: embed, fields");
+        webTestClient.get()
+                .uri("/authors?fields=id&ids={id}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri("/authors/{id}?embed=books&fields=id", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get()
+                .uri("/authors/name/{name}?embed=books&fields=id", savedAuthor.getName())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testAutocompleteAuthors_whenAuthorCreated_thenReturnMatchingAuthor() {
+        webTestClient.post()
+                .uri("/authors")
+                .bodyValue(AuthorDto.builder().name("Autocomplete Author").build())
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/authors/autocomplete?prefix=autocomp&limit=5")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].name").isEqualTo("AUTOCOMPLETE AUTHOR");
+    }
+
+    @Test
+    void testGetAuthorsByIdsBatch_whenSomeIdsMissing_thenReturnNotFoundMarkers() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+
+        webTestClient.post()
+                .uri("/authors/batch")
+                .bodyValue(List.of(savedAuthor.getId(), savedAuthor.getId() + 1000))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].item.name").isEqualTo(savedAuthor.getName())
+                .jsonPath("$.data.[1].found").isEqualTo(false);
+    }
+
+    @Test
+    void testGetAllAuthors_whenCorrelationIdSent_thenEchoItBack() {
+        webTestClient.get()
+                .uri("/authors")
+                .header("X-Correlation-Id", "client-req-42")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-Correlation-Id", "client-req-42");
+    }
+
+    @Test
+    void testGetAllAuthors_whenCorrelationIdMissing_thenGenerateOne() {
+        webTestClient.get()
+                .uri("/authors")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueMatches("X-Correlation-Id", "[0-9a-f-]{36}");
+    }
+
+    @Test
+    @Timeout(20)
+    void testStreamChanges_whenAuthorCreated_thenPushChangeEvent() {
+        Iterator<ServerSentEvent<String>> events = webTestClient.get()
+                .uri("/catalog/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .toIterable()
+                .iterator();
+        assertThat(events.next().event()).isEqualTo("connected");
+
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        webTestClient.put()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .bodyValue(mockAuthorDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        ServerSentEvent<String> event = events.next();
+        assertThat(event.event()).isEqualTo("catalog-change");
+        assertThat(event.data()).contains("\"AUTHOR\"", "\"UPDATED\"", "[" + savedAuthor.getId() + "]");
+    }
+
+    @Test
+    void testGetAllAuthors_whenBooksEmbedded_thenStayWithinStatementBudget() {
+        for (int i = 0; i < 3; i++) {
+            Author savedAuthor = authorRepository.save(Author.builder().name("BUDGET AUTHOR " + i).build());
+            for (int j = 0; j < 3; j++) {
+                bookRepository.save(Book.builder().title("BUDGET BOOK " + i + j).description("Budget").createdBy(savedAuthor).build());
+            }
+        }
+
+        assertStatementBudget(1, () -> webTestClient.get()
+                .uri("/authors")
+                .exchange()
+                .expectStatus().isOk());
+        assertStatementBudget(2, () -> webTestClient.get()
+                .uri("/authors?embed=books")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[2].books.length()").isEqualTo(3));
+    }
+
+    @Test
+    void testCreateAndUpdateAuthor_whenValidDto_thenStayWithinStatementBudget() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+
+        assertStatementBudget(1, () -> webTestClient.get()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk());
+        assertStatementBudget(2, () -> webTestClient.post()
+                .uri("/authors")
+                .bodyValue(AuthorDto.builder().name("Budget Author").build())
+                .exchange()
+                .expectStatus().isCreated());
+        assertStatementBudget(4, () -> webTestClient.put()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .bodyValue(AuthorDto.builder().name("Renamed Author").build())
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void testStatementBudget_whenExceeded_thenFailListingTheStatements() {
+        authorRepository.save(mockAuthor);
+
+        assertThatThrownBy(() -> assertStatementBudget(0, () -> webTestClient.get()
+                .uri("/authors")
+                .exchange()
+                .expectStatus().isOk()))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("budget 0")
+                .hasMessageContaining("from author");
+    }
+}
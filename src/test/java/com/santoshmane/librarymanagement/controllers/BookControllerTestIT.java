@@ -1,14 +1,45 @@
 package com.santoshmane.librarymanagement.controllers;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.santoshmane.librarymanagement.cache.ResponseCache;
+import com.santoshmane.librarymanagement.cache.ResponseCacheFilter;
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
 import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentDto;
 import com.santoshmane.librarymanagement.entities.Author;
 import com.santoshmane.librarymanagement.entities.Book;
 import org.junit.jupiter.api.Test;
-
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class BookControllerTestIT extends AbstractIntegrationTest{
 
+    @Autowired
+    ResponseCache responseCache;
+
+    @LocalServerPort
+    int port;
+
     @Test
     void testGetAllBooks_whenBooksExist_thenReturnBookList() {
         Book book = bookRepository.save(mockBook);
@@ -234,5 +265,428 @@ class BookControllerTestIT extends AbstractIntegrationTest{
 
     }
 
-}
+    @Test
+    void testGetBooksByCreatedBy_whenCborAccepted_thenReturnCborEnvelope() throws IOException {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+
+        byte[] body = webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode response = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(response.at("/data/0/id").asLong()).isEqualTo(savedBook.getId());
+        assertThat(response.at("/data/0/createdBy/name").asText()).isEqualTo(savedAuthor.getName());
+    }
+
+    @Test
+    void testGetAllBooks_whenSmileAccepted_thenReturnSmileEnvelope() throws IOException {
+        Book savedBook = bookRepository.save(mockBook);
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        byte[] body = webTestClient.get()
+                .uri("/books")
+                .accept(smile)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(smile)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode response = new ObjectMapper(new SmileFactory()).readTree(body);
+        assertThat(response.at("/data/0/id").asLong()).isEqualTo(savedBook.getId());
+        assertThat(response.at("/data/0/title").asText()).isEqualTo(savedBook.getTitle());
+    }
+
+    @Test
+    void testCreateNewBook_whenCborBody_thenReturnCreatedBook() throws IOException {
+        byte[] requestBody = new ObjectMapper(new CBORFactory()).findAndRegisterModules().writeValueAsBytes(mockBookDto);
+
+        webTestClient.post()
+                .uri("/books")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(requestBody)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo(mockBook.getTitle());
+    }
+
+    @Test
+    void testGetBooksByCreatedBy_whenFieldsRequested_thenReturnOnlyRequestedFields() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.get()
+                .uri("/books/createdBy/{authorId}?fields=id,title", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].id").isEqualTo(savedBook.getId())
+                .jsonPath("$.data.[0].title").isEqualTo(savedBook.getTitle())
+                .jsonPath("$.data.[0].description").doesNotExist()
+                .jsonPath("$.data.[0].createdBy").doesNotExist()
+                .jsonPath("$.data.[0].publishDate").doesNotExist();
+    }
+
+    @Test
+    void testGetBookById_whenCreatedByFieldRequested_thenReturnEmbeddedAuthor() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.get()
+                .uri("/books/{id}?fields=createdBy", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.createdBy.id").isEqualTo(savedAuthor.getId())
+                .jsonPath("$.data.createdBy.name").isEqualTo(savedAuthor.getName())
+                .jsonPath("$.data.title").doesNotExist();
+    }
+
+    @Test
+    void testGetAllBooks_whenUnknownFieldRequested_thenReturnBadRequest() {
+        webTestClient.get()
+                .uri("/books?fields=id,isbn")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetBooksByIds_whenSomeIdsMissing_thenReturnResultsInRequestOrder() {
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.get()
+                .uri("/books?ids={missing},{id}", savedBook.getId() + 1000, savedBook.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].id").isEqualTo(savedBook.getId() + 1000)
+                .jsonPath("$.data.[0].found").isEqualTo(false)
+                .jsonPath("$.data.[0].item").doesNotExist()
+                .jsonPath("$.data.[1].found").isEqualTo(true)
+                .jsonPath("$.data.[1].item.title").isEqualTo(savedBook.getTitle());
+    }
+
+    @Test
+    void testGetBooksByIdsBatch_whenIdsPosted_thenReturnResults() {
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.post()
+                .uri("/books/batch")
+                .bodyValue(List.of(savedBook.getId()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].item.id").isEqualTo(savedBook.getId());
+    }
+
+    @Test
+    void testReassignBooks_whenFromAuthorGiven_thenMoveAllBooksOfAuthor() {
+        Author sourceAuthor = authorRepository.save(mockAuthor);
+        Author targetAuthor = authorRepository.save(Author.builder().name("TARGET AUTHOR").build());
+        mockBook.setCreatedBy(sourceAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+        bookRepository.save(Book.builder().title("SECOND BOOK").description("Second").createdBy(sourceAuthor).build());
+
+        webTestClient.put()
+                .uri("/books/reassignAuthor")
+                .bodyValue(BookReassignmentDto.builder()
+                        .targetAuthorId(targetAuthor.getId())
+                        .fromAuthorId(sourceAuthor.getId())
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.requestedBooks").isEqualTo(2)
+                .jsonPath("$.data.updatedBooks").isEqualTo(2);
+
+        webTestClient.get()
+                .uri("/books/{id}", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.createdBy.id").isEqualTo(targetAuthor.getId());
+    }
+
+    @Test
+    void testReassignBooks_whenNoSelectorGiven_thenReturnBadRequest() {
+        Author targetAuthor = authorRepository.save(mockAuthor);
+
+        webTestClient.put()
+                .uri("/books/reassignAuthor")
+                .bodyValue(BookReassignmentDto.builder().targetAuthorId(targetAuthor.getId()).build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetRelatedBooks_whenSimilarBookCreated_thenReturnIt() {
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(BookDto.builder().title("Related Engine Guide").description("Building a related books engine with minhash signatures").publishDate(LocalDate.now()).build())
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(BookDto.builder().title("Related Engine Guide Second Edition").description("Building a related books engine with minhash signatures").publishDate(LocalDate.now()).build())
+                .exchange()
+                .expectStatus().isCreated();
+        Long firstId = bookRepository.findBookDtosByTitle("RELATED ENGINE GUIDE").get(0).getId();
+        Long secondId = bookRepository.findBookDtosByTitle("RELATED ENGINE GUIDE SECOND EDITION").get(0).getId();
+
+        webTestClient.get()
+                .uri("/books/{id}/related?limit=5", firstId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].id").isEqualTo(secondId)
+                .jsonPath("$.data.[0].title").isEqualTo("RELATED ENGINE GUIDE SECOND EDITION");
+    }
+
+    @Test
+    void testGetRelatedBooks_whenBookNotPresent_thenThrowResourceNotFoundError() {
+        webTestClient.get()
+                .uri("/books/999/related")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testCreateNewBook_whenSameTitleAndAuthorExists_thenReturnConflict() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        BookDto bookDto = BookDto.builder().title("Duplicate Title").description("First import").publishDate(LocalDate.now())
+                .createdBy(AuthorDto.builder().id(savedAuthor.getId()).build()).build();
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(bookDto)
+                .exchange()
+                .expectStatus().isCreated();
 
+        bookDto.setTitle("  duplicate   title ");
+        bookDto.setDescription("Second import");
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(bookDto)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.apiError.message").isEqualTo("Book already exists with title:DUPLICATE TITLE for author id:"+savedAuthor.getId());
+        assertThat(bookRepository.findBookDtosByTitle("DUPLICATE TITLE")).hasSize(1);
+    }
+
+    @Test
+    void testCreateNewBook_whenDuplicateInsertedBehindTheService_thenUniqueIndexRejectsIt() {
+        bookRepository.save(Book.builder().title("INDEXED TITLE").description("First").publishDate(LocalDate.now()).build());
+
+        assertThatThrownBy(() -> bookRepository.save(Book.builder().title("INDEXED TITLE").description("Second").publishDate(LocalDate.now()).build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testGetAllBooks_whenBooksExist_thenStayWithinStatementBudget() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        for (int i = 0; i < 5; i++) {
+            bookRepository.save(Book.builder().title("BUDGET BOOK " + i).description("Budget").createdBy(savedAuthor).build());
+        }
+
+        assertStatementBudget(1, () -> webTestClient.get()
+                .uri("/books")
+                .exchange()
+                .expectStatus().isOk());
+        assertStatementBudget(2, () -> webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void testSearchBooks_whenFiltersCombined_thenReturnOnePageInOneStatement() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        for (int i = 1; i <= 5; i++) {
+            bookRepository.save(Book.builder().title("SEARCH BOOK " + i).description("Search")
+                    .publishDate(LocalDate.of(2020, i, 1)).createdBy(savedAuthor).build());
+        }
+        bookRepository.save(Book.builder().title("OTHER TITLE").description("Search")
+                .publishDate(LocalDate.of(2020, 6, 1)).createdBy(savedAuthor).build());
+
+        assertStatementBudget(1, () -> webTestClient.get()
+                .uri(uriBuilder -> uriBuilder.path("/books/search")
+                        .queryParam("authorId", savedAuthor.getId())
+                        .queryParam("titleContains", "search")
+                        .queryParam("publishedFrom", "2020-02-01")
+                        .queryParam("publishedTo", "2020-12-31")
+                        .queryParam("sort", "publishDate")
+                        .queryParam("direction", "desc")
+                        .queryParam("size", 3)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.content.length()").isEqualTo(3)
+                .jsonPath("$.data.content[0].title").isEqualTo("SEARCH BOOK 5")
+                .jsonPath("$.data.content[2].title").isEqualTo("SEARCH BOOK 3")
+                .jsonPath("$.data.content[0].createdBy.name").isEqualTo("JOHN DOE")
+                .jsonPath("$.data.hasNext").isEqualTo(true));
+        webTestClient.get()
+                .uri("/books/search?titleContains=search")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.apiError.message").isEqualTo("titleContains must be combined with authorId or a publish date range");
+    }
+
+    @Test
+    void testGetBookById_whenBookExists_thenStayWithinStatementBudget() {
+        mockBook.setCreatedBy(authorRepository.save(mockAuthor));
+        Book savedBook = bookRepository.save(mockBook);
+
+        assertStatementBudget(2, () -> webTestClient.get()
+                .uri("/books/{id}", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk());
+        // Served from the book cache
+        assertStatementBudget(0, () -> webTestClient.get()
+                .uri("/books/{id}", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void testCreateAndUpdateBook_whenValidDto_thenStayWithinStatementBudget() {
+        Book savedBook = bookRepository.save(mockBook);
+
+        // Both include the duplicate check, which only runs when the Bloom filter cannot rule the title out
+        assertStatementBudget(4, () -> webTestClient.post()
+                .uri("/books")
+                .bodyValue(BookDto.builder().title("Budget Book").description("Budget").build())
+                .exchange()
+                .expectStatus().isCreated());
+        assertStatementBudget(6, () -> webTestClient.put()
+                .uri("/books/{id}", savedBook.getId())
+                .bodyValue(BookDto.builder().title("Renamed Book").description("Budget").build())
+                .exchange()
+                .expectStatus().isOk());
+    }
+
+    @Test
+    void testGetBooksByCreatedBy_whenRepeated_thenServeCachedBytesUntilBookCreated() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        bookRepository.save(mockBook);
+
+        String etag = webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheFilter.RESPONSE_CACHE_HEADER, "MISS")
+                .expectHeader().cacheControl(CacheControl.noCache())
+                .expectBody().returnResult()
+                .getResponseHeaders().getETag();
+        assertStatementBudget(0, () -> webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheFilter.RESPONSE_CACHE_HEADER, "HIT")
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(1));
+        webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(BookDto.builder().title("Second Book").description("Second")
+                        .createdBy(AuthorDto.builder().id(savedAuthor.getId()).build()).build())
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheFilter.RESPONSE_CACHE_HEADER, "MISS")
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2);
+    }
+
+    @Test
+    void testGetAllBooks_whenFieldsAndIdsCombined_thenReturnBadRequest() {
+        webTestClient.get()
+                .uri("/books?fields=id&ids=1")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetBooksByCreatedBy_whenRecomputedWithSameData_thenStillRevalidate() throws InterruptedException {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        bookRepository.save(mockBook);
+        String etag = webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult()
+                .getResponseHeaders().getETag();
+
+        // The envelope's timeStamp has a resolution of one second
+        Thread.sleep(1100);
+        responseCache.clear();
+
+        webTestClient.get()
+                .uri("/books/createdBy/{authorId}", savedAuthor.getId())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(ResponseCacheFilter.RESPONSE_CACHE_HEADER, "MISS");
+    }
+
+    // WebTestClient decompresses transparently and drops Content-Encoding, so the raw response is read with the JDK client
+    @Test
+    void testGetBooksByCreatedBy_whenGzipAccepted_thenServePreCompressedBytes() throws IOException, InterruptedException {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        for (int i = 0; i < 20; i++) {
+            bookRepository.save(Book.builder().title("GZIP BOOK " + i).description("Long enough to be compressed").createdBy(savedAuthor).build());
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/books/createdBy/" + savedAuthor.getId()))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            for (String outcome : List.of("MISS", "HIT")) {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+                assertThat(response.statusCode()).isEqualTo(200);
+                assertThat(response.headers().firstValue(ResponseCacheFilter.RESPONSE_CACHE_HEADER)).hasValue(outcome);
+                assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+                assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(etag -> assertThat(etag).endsWith("-gzip\""));
+                try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+                    assertThat(new ObjectMapper().readTree(gzip).at("/data").size()).isEqualTo(20);
+                }
+            }
+
+            // The identity ETag must not validate the gzipped representation
+            String identityEtag = client.send(HttpRequest.newBuilder(request.uri()).build(), HttpResponse.BodyHandlers.discarding())
+                    .headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+            HttpResponse<byte[]> revalidated = client.send(HttpRequest.newBuilder(request.uri())
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .header(HttpHeaders.IF_NONE_MATCH, identityEtag)
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(revalidated.statusCode()).isEqualTo(200);
+            assertThat(revalidated.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        }
+    }
+}
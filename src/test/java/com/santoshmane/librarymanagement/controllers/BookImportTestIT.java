@@ -0,0 +1,107 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two staging lines per chunk, so duplicates are also detected across committed chunks
+@TestPropertySource(properties = "library.ingest.chunk-size=2")
+class BookImportTestIT extends AbstractIntegrationTest {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    @Test
+    void testImportBooks_whenValidFeed_thenCreateAuthorsAndSkipDuplicatesAndInvalidRows() {
+        Author existingAuthor = authorRepository.save(Author.builder().name("JOHN DOE").build());
+        bookRepository.save(Book.builder().title("EXISTING BOOK").description("Existing").createdBy(existingAuthor).build());
+        String csv = """
+                title,description,publish_date,author_name
+                New  book,"Fresh, with comma",2020-01-02,John Doe
+                Existing Book,Duplicate of a stored book,,john doe
+                Another Book,Written by a new author,2019-05-06,Jane Roe
+                NEW BOOK,Duplicate of an earlier line,,JOHN DOE
+                Bad Date,Invalid publish date,2020-02-30,Jane Roe
+                Leap Day,Published on a leap day,2020-02-29,Jane Roe
+                Slashed Date,Not an ISO date,02/01/2020,Jane Roe
+                Authorless Book,No author given,,
+                ab,Title too short,,Jane Roe
+                """;
+
+        webTestClient.post()
+                .uri("/books/import")
+                .contentType(TEXT_CSV)
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.data.status").isEqualTo("COMPLETED")
+                .jsonPath("$.data.rowsCopied").isEqualTo(9)
+                .jsonPath("$.data.rowsProcessed").isEqualTo(9)
+                .jsonPath("$.data.authorsCreated").isEqualTo(1)
+                .jsonPath("$.data.booksCreated").isEqualTo(4)
+                .jsonPath("$.data.duplicateRows").isEqualTo(2)
+                .jsonPath("$.data.invalidRows").isEqualTo(3);
+
+        List<BookDto> books = bookRepository.findAllBookDtos();
+        assertThat(books).extracting(BookDto::getTitle)
+                .containsExactlyInAnyOrder("EXISTING BOOK", "NEW BOOK", "ANOTHER BOOK", "LEAP DAY", "AUTHORLESS BOOK");
+        BookDto newBook = books.stream().filter(book -> book.getTitle().equals("NEW BOOK")).findFirst().orElseThrow();
+        assertThat(newBook.getCreatedBy().getId()).isEqualTo(existingAuthor.getId());
+        assertThat(newBook.getDescription()).isEqualTo("Fresh, with comma");
+        assertThat(newBook.getPublishDate()).isEqualTo(LocalDate.of(2020, 1, 2));
+        assertThat(authorRepository.findAuthorDtosByName("JANE ROE")).hasSize(1);
+
+        webTestClient.get()
+                .uri("/authors/autocomplete?prefix=jane&limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].name").isEqualTo("JANE ROE");
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(BookDto.builder().title("Authorless Book").description("Again").build())
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testImportBooks_whenRowHasExtraColumn_thenReturnBadRequestAndCreateNothing() {
+        String csv = """
+                First Book,Fine,,John Doe
+                Second Book,Broken,,John Doe,extra
+                """;
+
+        webTestClient.post()
+                .uri("/books/import?header=false")
+                .contentType(TEXT_CSV)
+                .bodyValue(csv)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.apiError.message").value(message -> assertThat((String) message).startsWith("Invalid book CSV"));
+
+        assertThat(bookRepository.count()).isZero();
+        webTestClient.get()
+                .uri("/books/imports")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].status").isEqualTo("FAILED");
+    }
+
+    @Test
+    void testGetImport_whenImportUnknown_thenReturnNotFound() {
+        webTestClient.get()
+                .uri("/books/imports/{id}", "00000000-0000-0000-0000-000000000000")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
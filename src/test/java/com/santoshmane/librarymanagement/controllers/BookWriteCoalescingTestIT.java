@@ -0,0 +1,72 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "library.write-coalescing.enabled=true",
+        "library.write-coalescing.window-ms=500"
+})
+class BookWriteCoalescingTestIT extends AbstractIntegrationTest {
+
+    @Test
+    void testUpdateBookById_whenUpdatesCoalesced_thenAckEnqueueAtOnceAndAckFlushWithLastUpdate() {
+        Book savedBook = bookRepository.save(mockBook);
+
+        for (int i = 1; i <= 3; i++) {
+            webTestClient.put()
+                    .uri("/books/{id}?ack=enqueue", savedBook.getId())
+                    .bodyValue(BookDto.builder().title("Synced Title " + i).description("Synced").build())
+                    .exchange()
+                    .expectStatus().isAccepted()
+                    .expectBody()
+                    .jsonPath("$.data.title").isEqualTo("SYNCED TITLE " + i);
+        }
+        webTestClient.put()
+                .uri("/books/{id}?ack=flush", savedBook.getId())
+                .bodyValue(BookDto.builder().title("Final Title").description("Synced").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo("FINAL TITLE");
+
+        assertThat(bookRepository.findById(savedBook.getId()).orElseThrow().getTitle()).isEqualTo("FINAL TITLE");
+    }
+
+    @Test
+    void testUpdateBookById_whenPlainUpdateFollowsPendingOne_thenPendingOneIsNotAppliedAfterIt() throws InterruptedException {
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.put()
+                .uri("/books/{id}?ack=enqueue", savedBook.getId())
+                .bodyValue(BookDto.builder().title("Queued Title").description("Queued").build())
+                .exchange()
+                .expectStatus().isAccepted();
+        webTestClient.put()
+                .uri("/books/{id}", savedBook.getId())
+                .bodyValue(BookDto.builder().title("Direct Title").description("Direct").build())
+                .exchange()
+                .expectStatus().isOk();
+        Thread.sleep(1000);
+
+        assertThat(bookRepository.findById(savedBook.getId()).orElseThrow().getTitle()).isEqualTo("DIRECT TITLE");
+    }
+
+    @Test
+    void testUpdateBookById_whenAckFlushForMissingBook_thenReturnNotFound() {
+        webTestClient.put()
+                .uri("/books/{id}?ack=flush", -1)
+                .bodyValue(BookDto.builder().title("Missing Title").description("Missing").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.put()
+                .uri("/books/{id}?ack=later", -1)
+                .bodyValue(BookDto.builder().title("Missing Title").description("Missing").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
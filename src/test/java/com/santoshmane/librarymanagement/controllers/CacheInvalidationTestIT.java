@@ -0,0 +1,65 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.entities.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+
+class CacheInvalidationTestIT extends AbstractIntegrationTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testGetBookById_whenOtherNodeNotifiesChange_thenServeFreshBook() {
+        Book savedBook = bookRepository.save(mockBook);
+        getTitle(savedBook.getId(), "FIRST BOOK");
+
+        // Written behind this node's back, as another instance would
+        jdbcTemplate.update("update book set title = 'RENAMED BOOK' where id = ?", savedBook.getId());
+        getTitle(savedBook.getId(), "FIRST BOOK");
+
+        jdbcTemplate.queryForObject("select pg_notify('library_cache_invalidation', ?)", Object.class,
+                "other-node:1:BOOK:" + savedBook.getId());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> getTitle(savedBook.getId(), "RENAMED BOOK"));
+    }
+
+    @Test
+    void testGetBookById_whenListenerConnectionDropped_thenFlushAndServeFreshBook() {
+        Book savedBook = bookRepository.save(mockBook);
+        getTitle(savedBook.getId(), "FIRST BOOK");
+        jdbcTemplate.update("update book set title = 'MISSED RENAME' where id = ?", savedBook.getId());
+
+        jdbcTemplate.queryForList("select pg_terminate_backend(pid) from pg_stat_activity where query = 'LISTEN library_cache_invalidation'");
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> getTitle(savedBook.getId(), "MISSED RENAME"));
+    }
+
+    @Test
+    void testGetBookById_whenUpdatedThroughService_thenServeFreshBook() {
+        Book savedBook = bookRepository.save(mockBook);
+        getTitle(savedBook.getId(), "FIRST BOOK");
+
+        mockBookDto.setTitle("Updated Title");
+        webTestClient.put()
+                .uri("/books/{id}", savedBook.getId())
+                .bodyValue(mockBookDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        getTitle(savedBook.getId(), "UPDATED TITLE");
+    }
+
+    private void getTitle(Long id, String title) {
+        webTestClient.get()
+                .uri("/books/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo(title);
+    }
+}
@@ -0,0 +1,46 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.snapshot.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "library.snapshot.enabled=true",
+        "library.snapshot.path=target/test-snapshots/catalog.snapshot"
+})
+class CatalogSnapshotTestIT extends AbstractIntegrationTest {
+
+    @Autowired
+    CatalogSnapshotService catalogSnapshotService;
+
+    @Test
+    void testWarmUp_whenSnapshotIsBehindDatabase_thenCatchUpBeforeServingIndexes() {
+        Author keptAuthor = authorRepository.save(Author.builder().name("SNAPSHOT KEPT").build());
+        Author removedAuthor = authorRepository.save(Author.builder().name("SNAPSHOT REMOVED").build());
+        catalogSnapshotService.writeSnapshot();
+        assertThat(Files.exists(Path.of("target/test-snapshots/catalog.snapshot"))).isTrue();
+
+        keptAuthor.setName("SNAPSHOT RENAMED");
+        authorRepository.save(keptAuthor);
+        authorRepository.deleteById(removedAuthor.getId());
+        authorRepository.save(Author.builder().name("SNAPSHOT ADDED").build());
+
+        catalogSnapshotService.warmUp();
+
+        webTestClient.get()
+                .uri("/authors/autocomplete?prefix=snapshot&limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.length()").isEqualTo(2)
+                .jsonPath("$.data.[0].name").isEqualTo("SNAPSHOT ADDED")
+                .jsonPath("$.data.[1].name").isEqualTo("SNAPSHOT RENAMED");
+    }
+}
@@ -0,0 +1,102 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.santoshmane.librarymanagement.entities.Author;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecorderTestIT extends AbstractIntegrationTest {
+
+    @Test
+    void testRecording_whenStartedOverActuator_thenStreamServiceAndRepositoryCalls() throws Exception {
+        Author author = authorRepository.save(Author.builder().name("FRANK HERBERT").build());
+        JsonNode started = webTestClient.post()
+                .uri("/actuator/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "it", "thresholdMs", 0))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+        long id = started.get("id").asLong();
+        assertThat(started.get("state").asText()).isEqualTo("RUNNING");
+        Recording recording = FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(running -> running.getId() == id)
+                .findFirst().orElseThrow();
+        assertThat(recording.getMaxAge()).isEqualTo(Duration.ofMinutes(30));
+        assertThat(recording.getMaxSize()).isEqualTo(268435456L);
+
+        webTestClient.get()
+                .uri("/authors/{id}", author.getId())
+                .header("X-Correlation-Id", "jfr-it")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/actuator/jfr")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.id == " + id + ")].name").isEqualTo("it");
+        // A recording with the default settings runs to a few MB
+        byte[] data = webTestClient.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(64 * 1024 * 1024))
+                .build()
+                .get()
+                .uri("/actuator/jfr/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        webTestClient.delete()
+                .uri("/actuator/jfr/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.state").isEqualTo("CLOSED");
+
+        Path file = Files.createTempFile("flight-recorder-it", ".jfr");
+        try {
+            Files.write(file, data);
+            List<RecordedEvent> calls = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("librarymanagement."))
+                    .filter(event -> "jfr-it".equals(event.getString("correlationId")))
+                    .toList();
+            assertThat(calls)
+                    .extracting(event -> event.getEventType().getName() + " " + event.getString("operation") + " " + event.getString("entityIds"))
+                    .contains("librarymanagement.ServiceCall AuthorService.getAuthorById " + author.getId());
+            assertThat(calls)
+                    .extracting(event -> event.getEventType().getName())
+                    .contains("librarymanagement.RepositoryCall");
+        } finally {
+            Files.delete(file);
+        }
+        webTestClient.get()
+                .uri("/actuator/jfr/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testStartRecording_whenSettingsUnknown_thenBadRequest() {
+        webTestClient.post()
+                .uri("/actuator/jfr")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("settings", "verbose"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,107 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santoshmane.librarymanagement.cache.HotKeyTracker;
+import com.santoshmane.librarymanagement.cache.ResponseCache;
+import com.santoshmane.librarymanagement.cache.ResponseCacheFilter;
+import com.santoshmane.librarymanagement.config.AppConfig;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.snapshot.CatalogSnapshotService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotKeyTrackerTestIT extends AbstractIntegrationTest {
+    // A fresh file per run, a hot set left by an earlier run would be restored on startup
+    static final Path HOT_KEYS_PATH = Path.of("target/test-hot-keys", UUID.randomUUID() + ".json");
+
+    @DynamicPropertySource
+    static void hotKeysPath(DynamicPropertyRegistry registry) {
+        registry.add("library.hot-keys.path", HOT_KEYS_PATH::toString);
+    }
+
+    @Autowired
+    HotKeyTracker hotKeyTracker;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    ResponseCache responseCache;
+
+    @Autowired
+    CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    Environment environment;
+
+    @Test
+    void testWarmUp_whenHotSetPersisted_thenRestoreItAndWarmCachesWithHottestKeys() {
+        Author author = authorRepository.save(Author.builder().name("HOT AUTHOR").build());
+        Book hotBook = bookRepository.save(Book.builder().title("HOT BOOK").description("Hot").createdBy(author).build());
+        Book coldBook = bookRepository.save(Book.builder().title("COLD BOOK").description("Cold").createdBy(author).build());
+        for (int i = 0; i < 3; i++) {
+            get("/books/{id}", hotBook.getId());
+            get("/books/createdBy/{authorId}", author.getId());
+        }
+        get("/books/{id}", coldBook.getId());
+        get("/authors/{id}", author.getId());
+        webTestClient.get()
+                .uri("/books/{id}", -1)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.get()
+                .uri("/actuator/hotkeys")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.books.length()").isEqualTo(2)
+                .jsonPath("$.books[0].id").isEqualTo(hotBook.getId())
+                .jsonPath("$.books[0].estimatedAccesses").isEqualTo(3)
+                .jsonPath("$.authors[0].id").isEqualTo(author.getId())
+                .jsonPath("$.booksByAuthor[0].id").isEqualTo(author.getId())
+                .jsonPath("$.booksByAuthor[0].estimatedAccesses").isEqualTo(3);
+
+        hotKeyTracker.persist();
+        HotKeyTracker restarted = new HotKeyTracker(objectMapper, environment, true, HOT_KEYS_PATH, 100, 4096, 4);
+        restarted.restore();
+        assertThat(restarted.hotBookIds()).containsExactly(hotBook.getId(), coldBook.getId());
+        assertThat(restarted.hotAuthorIds()).containsExactly(author.getId());
+        cacheManager.getCache(AppConfig.BOOKS_CACHE).clear();
+        cacheManager.getCache(AppConfig.AUTHORS_CACHE).clear();
+        responseCache.clear();
+
+        catalogSnapshotService.warmUp();
+        hotKeyTracker.preload();
+
+        assertThat(cacheManager.getCache(AppConfig.BOOKS_CACHE).get(hotBook.getId(), BookDto.class).getTitle()).isEqualTo("HOT BOOK");
+        assertThat(cacheManager.getCache(AppConfig.AUTHORS_CACHE).get(author.getId())).isNotNull();
+        webTestClient.get()
+                .uri("/books/createdBy/{authorId}", author.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(ResponseCacheFilter.RESPONSE_CACHE_HEADER, "HIT");
+        assertStatementBudget(0, () -> get("/books/{id}", hotBook.getId()));
+    }
+
+    private void get(String uri, Object id) {
+        webTestClient.get()
+                .uri(uri, id)
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
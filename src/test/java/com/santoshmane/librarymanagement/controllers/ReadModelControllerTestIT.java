@@ -0,0 +1,88 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.services.BookCatalogProjector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "library.read-model.enabled=true")
+class ReadModelControllerTestIT extends AbstractIntegrationTest {
+
+    @Autowired
+    BookCatalogProjector bookCatalogProjector;
+
+    @BeforeEach
+    void resetReadModel() {
+        bookCatalogProjector.rebuild();
+    }
+
+    @Test
+    void testGetBookById_whenAuthorRenamed_thenServeUpdatedAuthorNameFromReadModel() {
+        Author savedAuthor = authorRepository.save(mockAuthor);
+        mockBook.setCreatedBy(savedAuthor);
+        Book savedBook = bookRepository.save(mockBook);
+        bookCatalogProjector.rebuild();
+
+        mockAuthorDto.setName("Jane Roe");
+        webTestClient.put()
+                .uri("/authors/{id}", savedAuthor.getId())
+                .bodyValue(mockAuthorDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/books/{id}", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.title").isEqualTo(mockBook.getTitle())
+                .jsonPath("$.data.createdBy.name").isEqualTo("JANE ROE");
+    }
+
+    @Test
+    void testCheckConsistency_whenBookWrittenBehindProjector_thenReportUntilRebuild() {
+        Book savedBook = bookRepository.save(mockBook);
+
+        webTestClient.get()
+                .uri("/admin/read-model/books/consistency")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.inconsistentBooks").isEqualTo(1)
+                .jsonPath("$.data.sampleInconsistentBookIds.[0]").isEqualTo(savedBook.getId());
+
+        webTestClient.post()
+                .uri("/admin/read-model/books/rebuild")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.rebuiltRows").isEqualTo(1)
+                .jsonPath("$.data.servingReads").isEqualTo(true);
+
+        webTestClient.get()
+                .uri("/admin/read-model/books/consistency")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.inconsistentBooks").isEqualTo(0);
+    }
+
+    @Test
+    void testGetAllBooks_whenBookCreatedThroughApi_thenServeItFromReadModel() {
+        webTestClient.post()
+                .uri("/books")
+                .bodyValue(mockBookDto)
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.get()
+                .uri("/books")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].title").isEqualTo(mockBook.getTitle());
+    }
+}
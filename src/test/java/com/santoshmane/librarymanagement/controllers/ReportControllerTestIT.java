@@ -0,0 +1,104 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.services.ReportJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class ReportControllerTestIT extends AbstractIntegrationTest {
+
+    @Autowired
+    ReportJobService reportJobService;
+
+    @Test
+    void testSubmitReport_whenBooksPerAuthorPerYear_thenDownloadCsvResult() {
+        Author author = authorRepository.save(Author.builder().name("DOE, JOHN").build());
+        bookRepository.save(Book.builder().title("FIRST BOOK").description("First").publishDate(LocalDate.of(2020, 3, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("SECOND BOOK").description("Second").publishDate(LocalDate.of(2020, 7, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("THIRD BOOK").description("Third").publishDate(LocalDate.of(2021, 1, 1)).createdBy(author).build());
+
+        UUID id = submit(Map.of("type", "BOOKS_PER_AUTHOR_PER_YEAR"));
+        await().atMost(10, TimeUnit.SECONDS).until(() -> reportJobService.getJob(id).getStatus() == ReportJobDto.Status.COMPLETED);
+
+        webTestClient.get()
+                .uri("/reports/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.status").isEqualTo("COMPLETED")
+                .jsonPath("$.data.rows").isEqualTo(2);
+        String csv = webTestClient.get()
+                .uri("/reports/{id}/result", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith("text/csv")
+                .expectHeader().valueMatches("Content-Disposition", ".*books_per_author_per_year-" + id + "\\.csv.*")
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        assertThat(csv).isEqualTo("author_id,author_name,year,books\n"
+                + author.getId() + ",\"DOE, JOHN\",2020,2\n"
+                + author.getId() + ",\"DOE, JOHN\",2021,1\n");
+    }
+
+    @Test
+    void testSubmitReport_whenInactiveAuthors_thenListAuthorsWithoutRecentBooks() {
+        Author active = authorRepository.save(Author.builder().name("ACTIVE AUTHOR").build());
+        Author inactive = authorRepository.save(Author.builder().name("INACTIVE AUTHOR").build());
+        Author withoutBooks = authorRepository.save(Author.builder().name("NEW AUTHOR").build());
+        bookRepository.save(Book.builder().title("RECENT BOOK").description("Recent").publishDate(LocalDate.of(2023, 1, 1)).createdBy(active).build());
+        bookRepository.save(Book.builder().title("OLD BOOK").description("Old").publishDate(LocalDate.of(2010, 1, 1)).createdBy(inactive).build());
+
+        UUID id = submit(Map.of("type", "INACTIVE_AUTHORS", "since", "2020-01-01", "priority", "HIGH"));
+        await().atMost(10, TimeUnit.SECONDS).until(() -> reportJobService.getJob(id).getStatus() == ReportJobDto.Status.COMPLETED);
+
+        String csv = webTestClient.get()
+                .uri("/reports/{id}/result", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult().getResponseBody();
+        assertThat(csv).isEqualTo("author_id,author_name,books,last_published\n"
+                + inactive.getId() + ",INACTIVE AUTHOR,1,2010-01-01\n"
+                + withoutBooks.getId() + ",NEW AUTHOR,0,\n");
+
+        webTestClient.delete()
+                .uri("/reports/{id}", id)
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/reports/{id}", id)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testSubmitReport_whenTypeMissing_thenReturnBadRequest() {
+        webTestClient.post()
+                .uri("/reports")
+                .bodyValue(Map.of("priority", "LOW"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private UUID submit(Map<String, String> request) {
+        JsonNode response = webTestClient.post()
+                .uri("/reports")
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+        return UUID.fromString(response.at("/data/id").asText());
+    }
+}
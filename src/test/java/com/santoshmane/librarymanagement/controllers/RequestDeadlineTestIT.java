@@ -0,0 +1,58 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "library.deadlines.routes=/books/title/*=1000")
+class RequestDeadlineTestIT extends AbstractIntegrationTest {
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testGetBooksByTitle_whenQueryOutlivesDeadline_thenCancelItAndReturnGatewayTimeout() throws Exception {
+        bookRepository.save(mockBook);
+
+        // Without a deadline the lookup would wait on this lock for as long as it is held
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("lock table book in access exclusive mode");
+            }
+
+            long start = System.nanoTime();
+            webTestClient.get()
+                    .uri("/books/title/{title}", mockBook.getTitle())
+                    .exchange()
+                    .expectStatus().isEqualTo(HttpStatus.GATEWAY_TIMEOUT)
+                    .expectBody()
+                    .jsonPath("$.apiError.message").isEqualTo("Request deadline exceeded, retry later");
+
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(3));
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where wait_event_type = 'Lock' and query like '%from book%'", Integer.class))
+                    .isZero();
+            connection.rollback();
+        }
+
+        webTestClient.get()
+                .uri("/books/title/{title}", mockBook.getTitle())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.[0].title").isEqualTo(mockBook.getTitle());
+    }
+}
@@ -0,0 +1,61 @@
+package com.santoshmane.librarymanagement.controllers;
+
+import com.santoshmane.librarymanagement.dtos.ReservationDto;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.entities.ReservationPriority;
+import org.junit.jupiter.api.Test;
+
+class ReservationControllerTestIT extends AbstractIntegrationTest{
+
+    @Test
+    void testCreateReservation_whenBookExists_thenReturnQueuedReservation() {
+        Book savedBook = bookRepository.save(mockBook);
+        ReservationDto reservationDto = ReservationDto.builder().patronName("Alice").build();
+
+        webTestClient.post()
+                .uri("/books/{bookId}/reservations", savedBook.getId())
+                .bodyValue(reservationDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.data.bookId").isEqualTo(savedBook.getId())
+                .jsonPath("$.data.status").isEqualTo("ACTIVE")
+                .jsonPath("$.data.position").isEqualTo(1);
+    }
+
+    @Test
+    void testCreateReservation_whenBookNotPresent_thenThrowResourceNotFoundError() {
+        ReservationDto reservationDto = ReservationDto.builder().patronName("Alice").build();
+
+        webTestClient.post()
+                .uri("/books/{bookId}/reservations", 100)
+                .bodyValue(reservationDto)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.apiError.message").isEqualTo("Book not found by id:"+100);
+    }
+
+    @Test
+    void testPromoteNextReservation_whenHighPriorityHoldQueued_thenPromoteItFirst() {
+        Book savedBook = bookRepository.save(mockBook);
+        webTestClient.post()
+                .uri("/books/{bookId}/reservations", savedBook.getId())
+                .bodyValue(ReservationDto.builder().patronName("Alice").build())
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post()
+                .uri("/books/{bookId}/reservations", savedBook.getId())
+                .bodyValue(ReservationDto.builder().patronName("Bob").priority(ReservationPriority.HIGH).build())
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post()
+                .uri("/books/{bookId}/reservations/promote", savedBook.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.data.patronName").isEqualTo("Bob")
+                .jsonPath("$.data.status").isEqualTo("FULFILLED");
+    }
+}
@@ -0,0 +1,53 @@
+package com.santoshmane.librarymanagement.deadline;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestDeadlineFilterTest {
+
+    private final RequestDeadlineFilter filter = new RequestDeadlineFilter(true, 5000,
+            List.of("/books/import=0", "/books/title/*=2000", "/books/**=3000"));
+
+    @Test
+    void testBudgetMs_whenRoutesMatch_thenUseFirstMatchingRouteElseDefault() {
+        // Act & Assert, When & Then
+        assertThat(filter.budgetMs("/books/title/dune")).isEqualTo(2000);
+        assertThat(filter.budgetMs("/books/createdBy/1")).isEqualTo(3000);
+        assertThat(filter.budgetMs("/books/import")).isZero();
+        assertThat(filter.budgetMs("/authors/1")).isEqualTo(5000);
+    }
+
+    @Test
+    void testDoFilter_whenRouteHasBudget_thenSetDeadlineOnlyWhileServing() throws Exception {
+        // Arrange, Given
+        AtomicReference<OptionalLong> remaining = new AtomicReference<>();
+
+        // Act, When
+        filter.doFilter(new MockHttpServletRequest("GET", "/books/title/dune"), new MockHttpServletResponse(),
+                (request, response) -> remaining.set(RequestDeadline.remainingMillis()));
+
+        // Assert, Then
+        assertThat(remaining.get().getAsLong()).isBetween(1L, 2000L);
+        assertThat(RequestDeadline.remainingMillis()).isEmpty();
+    }
+
+    @Test
+    void testDoFilter_whenRouteBudgetIsZero_thenSetNoDeadline() throws Exception {
+        // Arrange, Given
+        AtomicReference<OptionalLong> remaining = new AtomicReference<>();
+
+        // Act, When
+        filter.doFilter(new MockHttpServletRequest("POST", "/books/import"), new MockHttpServletResponse(),
+                (request, response) -> remaining.set(RequestDeadline.remainingMillis()));
+
+        // Assert, Then
+        assertThat(remaining.get()).isEmpty();
+    }
+}
@@ -0,0 +1,125 @@
+package com.santoshmane.librarymanagement.jfr;
+
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.logging.CorrelationIdFilter;
+import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataRetrievalFailureException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightRecorderAspectTest {
+
+    @TempDir
+    Path directory;
+
+    private final AuthorRepository target = mock(AuthorRepository.class);
+    private AuthorRepository authorRepository;
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(AuthorRepository.class);
+        factory.addAspect(new FlightRecorderAspect());
+        authorRepository = factory.getProxy();
+        recording = new Recording();
+        recording.enable(RepositoryCallEvent.NAME).withThreshold(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+        MDC.clear();
+    }
+
+    @Test
+    void testRepositoryCall_whenRecording_thenCommitEventWithIdsRowsAndCorrelationId() throws Exception {
+        // Arrange, Given
+        when(target.findById(7L)).thenReturn(Optional.of(Author.builder().id(7L).name("Frank Herbert").build()));
+        MDC.put(CorrelationIdFilter.CORRELATION_ID_KEY, "req-1");
+
+        // Act, When
+        recording.start();
+        authorRepository.findById(7L);
+        List<RecordedEvent> events = stop();
+
+        // Assert, Then
+        assertThat(events).hasSize(1);
+        RecordedEvent event = events.getFirst();
+        assertThat(event.getString("operation")).isEqualTo("AuthorRepository.findById");
+        assertThat(event.getString("entityIds")).isEqualTo("7");
+        assertThat(event.getLong("rowCount")).isEqualTo(1);
+        assertThat(event.getString("exception")).isNull();
+        assertThat(event.getString("correlationId")).isEqualTo("req-1");
+    }
+
+    @Test
+    void testRepositoryCall_whenCallFails_thenCommitEventWithException() throws Exception {
+        // Arrange, Given
+        when(target.findByName("Frank Herbert")).thenThrow(new DataRetrievalFailureException("connection lost"));
+
+        // Act, When
+        recording.start();
+        assertThatThrownBy(() -> authorRepository.findByName("Frank Herbert"))
+                .isInstanceOf(DataRetrievalFailureException.class);
+        List<RecordedEvent> events = stop();
+
+        // Assert, Then
+        assertThat(events).hasSize(1);
+        assertThat(events.getFirst().getString("exception")).isEqualTo(DataRetrievalFailureException.class.getName());
+        assertThat(events.getFirst().getLong("rowCount")).isEqualTo(-1);
+    }
+
+    @Test
+    void testRepositoryCall_whenNotRecording_thenCallThrough() {
+        // Arrange, Given
+        when(target.findByName("Frank Herbert")).thenReturn(List.of(Author.builder().id(1L).build()));
+
+        // Act, When
+        List<Author> authors = authorRepository.findByName("Frank Herbert");
+
+        // Assert, Then
+        assertThat(authors).extracting(Author::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testEntityIds_whenManyIds_thenKeepFirstFewElseTakeResultIds() {
+        // Arrange, Given
+        List<Long> ids = LongStream.rangeClosed(1, 20).boxed().toList();
+        List<Author> authors = List.of(Author.builder().id(3L).build(), Author.builder().id(4L).build());
+
+        // Act & Assert, When & Then
+        assertThat(FlightRecorderAspect.entityIds(new Object[]{ids}, null)).isEqualTo("1,2,3,4,5,6,7,8,9,10");
+        assertThat(FlightRecorderAspect.entityIds(new Object[]{"Frank Herbert"}, authors)).isEqualTo("3,4");
+        assertThat(FlightRecorderAspect.entityIds(new Object[]{"Frank Herbert"}, Optional.empty())).isNull();
+        assertThat(FlightRecorderAspect.rowCount(authors)).isEqualTo(2);
+        assertThat(FlightRecorderAspect.rowCount(5L)).isEqualTo(-1);
+    }
+
+    private List<RecordedEvent> stop() throws Exception {
+        recording.stop();
+        Path file = directory.resolve("test.jfr");
+        recording.dump(file);
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(RepositoryCallEvent.NAME))
+                .toList();
+    }
+}
@@ -0,0 +1,90 @@
+package com.santoshmane.librarymanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPathSamplingTurboFilterTest {
+
+    private LoggerContext loggerContext;
+    private HotPathSamplingTurboFilter filter;
+    private final AtomicLong second = new AtomicLong(1_000);
+
+    @BeforeEach
+    void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        filter = new HotPathSamplingTurboFilter();
+        filter.setLoggerPrefix("com.santoshmane.librarymanagement");
+        filter.setMaxPerSecond(5);
+        filter.setSampleEvery(10);
+        filter.setCurrentSecond(second::get);
+        filter.start();
+    }
+
+    @Test
+    void testDecide_whenInfoBudgetExceeded_thenSampleRemainingEvents() {
+        // Arrange, Given
+        Logger logger = loggerContext.getLogger("com.santoshmane.librarymanagement.services.BookService");
+
+        // Act, When
+        long admitted = IntStream.range(0, 105)
+                .mapToObj(i -> filter.decide(null, logger, Level.INFO, "Fetching book by id: {}", null, null))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        // Assert, Then
+        assertThat(admitted).isEqualTo(5 + 10);
+        assertThat(filter.getDroppedCount()).isEqualTo(90);
+    }
+
+    @Test
+    void testDecide_whenNextSecondStarts_thenResetBudget() {
+        // Arrange, Given
+        Logger logger = loggerContext.getLogger("com.santoshmane.librarymanagement.services.BookService");
+        IntStream.range(0, 6).forEach(i -> filter.decide(null, logger, Level.INFO, "Fetching book by id: {}", null, null));
+
+        // Act, When
+        second.incrementAndGet();
+        FilterReply reply = filter.decide(null, logger, Level.INFO, "Fetching book by id: {}", null, null);
+
+        // Assert, Then
+        assertThat(reply).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testDecide_whenWarnOrOtherPackage_thenNeverSample() {
+        // Arrange, Given
+        Logger serviceLogger = loggerContext.getLogger("com.santoshmane.librarymanagement.services.BookService");
+        Logger frameworkLogger = loggerContext.getLogger("org.springframework.web");
+
+        // Act, When
+        IntStream.range(0, 50).forEach(i -> filter.decide(null, serviceLogger, Level.INFO, "info", null, null));
+
+        // Assert, Then
+        assertThat(filter.decide(null, serviceLogger, Level.ERROR, "Book not found by id: {}", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.decide(null, frameworkLogger, Level.INFO, "info", null, null)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void testDecide_whenOnlyLevelCheck_thenDoNotConsumeBudget() {
+        // Arrange, Given
+        Logger logger = loggerContext.getLogger("com.santoshmane.librarymanagement.services.AuthorService");
+
+        // Act, When
+        IntStream.range(0, 50).forEach(i -> filter.decide(null, logger, Level.INFO, null, null, null));
+
+        // Assert, Then
+        assertThat(filter.decide(null, logger, Level.INFO, "Fetching all authors", null, null)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(filter.getDroppedCount()).isZero();
+    }
+}
@@ -1,6 +1,7 @@
 package com.santoshmane.librarymanagement.repositories;
 
 import com.santoshmane.librarymanagement.TestContainerConfiguration;
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
 import com.santoshmane.librarymanagement.entities.Author;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,6 +61,22 @@ class AuthorRepositoryTest {
         assertThat(authors.get(0).getName()).isEqualTo("Jane Doe");
     }
 
+    @Test
+    void testFindAuthorDtosByName_whenNameIsPresent_thenReturnListOfAuthorDtos() {
+        // Arrange, Given
+        Author author = new Author();
+        author.setName("Jane Doe");
+        authorRepository.save(author);
+
+        // Act, When
+        List<AuthorDto> authorDtos = authorRepository.findAuthorDtosByName("Jane Doe");
+
+        // Assert, Then
+        assertThat(authorDtos).hasSize(1);
+        assertThat(authorDtos.get(0).getId()).isEqualTo(author.getId());
+        assertThat(authorDtos.get(0).getBooks()).isNull();
+    }
+
     @Test
     void testFindByName_whenNameIsNotFound_thenReturnEmptyAuthorList() {
         // Arrange, Given
@@ -0,0 +1,97 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.TestContainerConfiguration;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.entities.Book;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(TestContainerConfiguration.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookCatalogRepositoryTest {
+    @Autowired
+    private BookCatalogRepository bookCatalogRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Test
+    void testUpsertFromSource_whenBookExists_thenStoreBookWithAuthorName() {
+        // Arrange, Given
+        Author author = authorRepository.save(Author.builder().name("JOHN DOE").build());
+        Book book = bookRepository.saveAndFlush(Book.builder().title("FIRST BOOK").createdBy(author).build());
+
+        // Act, When
+        bookCatalogRepository.upsertFromSource(List.of(book.getId()));
+
+        // Assert, Then
+        List<BookDto> bookDtos = bookCatalogRepository.findBookDtosByAuthorId(author.getId());
+        assertThat(bookDtos).hasSize(1);
+        assertThat(bookDtos.get(0).getTitle()).isEqualTo("FIRST BOOK");
+        assertThat(bookDtos.get(0).getCreatedBy().getName()).isEqualTo("JOHN DOE");
+    }
+
+    @Test
+    void testRefreshAuthorName_whenAuthorRenamed_thenUpdateCatalogRows() {
+        // Arrange, Given
+        Author author = authorRepository.save(Author.builder().name("JOHN DOE").build());
+        Book book = bookRepository.saveAndFlush(Book.builder().title("FIRST BOOK").createdBy(author).build());
+        bookCatalogRepository.upsertFromSource(List.of(book.getId()));
+        author.setName("JANE DOE");
+        authorRepository.saveAndFlush(author);
+
+        // Act, When
+        bookCatalogRepository.refreshAuthorName(author.getId());
+
+        // Assert, Then
+        assertThat(bookCatalogRepository.findBookDtoById(book.getId()))
+                .hasValueSatisfying(bookDto -> assertThat(bookDto.getCreatedBy().getName()).isEqualTo("JANE DOE"));
+    }
+
+    @Test
+    void testFindInconsistentBookIds_whenCatalogDrifted_thenReportDriftUntilRebuilt() {
+        // Arrange, Given
+        Book projected = bookRepository.saveAndFlush(Book.builder().title("PROJECTED").build());
+        bookCatalogRepository.upsertFromSource(List.of(projected.getId()));
+        Book missing = bookRepository.saveAndFlush(Book.builder().title("MISSING").build());
+        projected.setTitle("RENAMED");
+        bookRepository.saveAndFlush(projected);
+
+        // Act, When
+        List<Long> inconsistentBookIds = bookCatalogRepository.findInconsistentBookIds(10);
+
+        // Assert, Then
+        assertThat(inconsistentBookIds).containsExactly(projected.getId(), missing.getId());
+        assertThat(bookCatalogRepository.countInconsistentBookIds()).isEqualTo(2);
+
+        bookCatalogRepository.deleteAllRows();
+        assertThat(bookCatalogRepository.insertAllFromSource()).isEqualTo(2);
+        assertThat(bookCatalogRepository.countInconsistentBookIds()).isZero();
+    }
+
+    @Test
+    void testDeleteMissingFromSource_whenBookDeleted_thenRemoveCatalogRow() {
+        // Arrange, Given
+        Book book = bookRepository.saveAndFlush(Book.builder().title("DELETED").build());
+        bookCatalogRepository.upsertFromSource(List.of(book.getId()));
+        bookRepository.delete(book);
+        bookRepository.flush();
+
+        // Act, When
+        int deleted = bookCatalogRepository.deleteMissingFromSource(List.of(book.getId()));
+
+        // Assert, Then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(bookCatalogRepository.findBookDtoById(book.getId())).isEmpty();
+    }
+}
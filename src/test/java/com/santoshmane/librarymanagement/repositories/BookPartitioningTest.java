@@ -0,0 +1,197 @@
+package com.santoshmane.librarymanagement.repositories;
+
+import com.santoshmane.librarymanagement.TestContainerConfiguration;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.services.BookPartitionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// DDL is transactional in Postgres, so each test's migration is rolled back with the test transaction
+@Import(TestContainerConfiguration.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookPartitioningTest {
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private BookPartitionManager bookPartitionManager;
+    private final int currentYear = Year.now().getValue();
+
+    @BeforeEach
+    void setUp() {
+        bookPartitionManager = new BookPartitionManager(jdbcTemplate, transactionManager, true, 2, 0);
+    }
+
+    @Test
+    void testMigrateToPartitionedTable_whenBooksExist_thenRowsLandInYearPartitions() {
+        // Arrange, Given
+        Book oldBook = bookRepository.saveAndFlush(Book.builder().title("OLD BOOK").publishDate(LocalDate.of(currentYear - 3, 5, 1)).build());
+        bookRepository.saveAndFlush(Book.builder().title("UNDATED BOOK").build());
+
+        // Act, When
+        bookPartitionManager.migrateToPartitionedTable();
+        Book newBook = bookRepository.saveAndFlush(Book.builder().title("NEW BOOK").publishDate(LocalDate.now()).build());
+
+        // Assert, Then
+        assertThat(bookPartitionManager.isPartitioned()).isTrue();
+        assertThat(partitionOf("OLD BOOK")).isEqualTo("book_p" + (currentYear - 3));
+        assertThat(partitionOf("UNDATED BOOK")).isEqualTo("book_default");
+        assertThat(partitionOf("NEW BOOK")).isEqualTo("book_p" + currentYear);
+        assertThat(newBook.getId()).isGreaterThan(oldBook.getId());
+        assertThat(jdbcTemplate.queryForList("select indexname from pg_indexes where tablename = 'book'", String.class))
+                .contains("idx_book_publish_date_id", "idx_book_author_id_publish_date_id", "idx_book_title_id");
+    }
+
+    @Test
+    void testFindByPublishDateAfter_whenPartitioned_thenPlanPrunesOlderPartitions() {
+        // Arrange, Given
+        bookRepository.saveAndFlush(Book.builder().title("OLD BOOK").publishDate(LocalDate.of(currentYear - 3, 5, 1)).build());
+        bookRepository.saveAndFlush(Book.builder().title("NEW BOOK").publishDate(LocalDate.now()).build());
+        bookPartitionManager.migrateToPartitionedTable();
+        bookPartitionManager.maintainPartitions();
+        LocalDate startOfYear = LocalDate.of(currentYear, 1, 1).minusDays(1);
+
+        // Act, When
+        List<Book> books = bookRepository.findByPublishDateAfter(startOfYear);
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "explain select b.id, b.title from book b where b.publish_date > ?", String.class, startOfYear));
+
+        // Assert, Then
+        assertThat(books).extracting(Book::getTitle).containsExactly("NEW BOOK");
+        assertThat(plan).contains("book_p" + currentYear, "book_p" + (currentYear + 2));
+        assertThat(plan).doesNotContain("book_p" + (currentYear - 3));
+    }
+
+    @Test
+    void testMaintainPartitions_whenRetentionConfigured_thenCreateFutureAndArchiveExpired() {
+        // Arrange, Given
+        bookRepository.saveAndFlush(Book.builder().title("EXPIRED BOOK").publishDate(LocalDate.of(currentYear - 3, 5, 1)).build());
+        bookPartitionManager.migrateToPartitionedTable();
+        BookPartitionManager retainingManager = new BookPartitionManager(jdbcTemplate, transactionManager, true, 1, 2);
+
+        // Act, When
+        retainingManager.maintainPartitions();
+
+        // Assert, Then
+        assertThat(retainingManager.attachedPartitionYears()).containsExactly(currentYear - 2, currentYear - 1, currentYear, currentYear + 1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from book", Integer.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from book_archive_p" + (currentYear - 3), Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void testReservationCleanupTrigger_whenBookDeletedOrMoved_thenOnlyDeleteRemovesReservations() {
+        // Arrange, Given
+        Book movedBook = bookRepository.saveAndFlush(Book.builder().title("MOVED BOOK").publishDate(LocalDate.of(currentYear - 1, 5, 1)).build());
+        Book deletedBook = bookRepository.saveAndFlush(Book.builder().title("DELETED BOOK").publishDate(LocalDate.now()).build());
+        bookPartitionManager.migrateToPartitionedTable();
+        insertReservation(movedBook.getId());
+        insertReservation(deletedBook.getId());
+
+        // Act, When
+        jdbcTemplate.update("update book set publish_date = ? where id = ?", LocalDate.now(), movedBook.getId());
+        jdbcTemplate.update("delete from book where id = ?", deletedBook.getId());
+
+        // Assert, Then
+        assertThat(partitionOf("MOVED BOOK")).isEqualTo("book_p" + currentYear);
+        assertThat(reservationCount(movedBook.getId())).isEqualTo(1);
+        assertThat(reservationCount(deletedBook.getId())).isZero();
+    }
+
+    // Runs committed in a scratch schema, so a second connection can update the default partition while the
+    // year partition is created
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testMaintainPartitions_whenDefaultPartitionRowUpdatedConcurrently_thenMoveKeepsTheUpdate() throws Exception {
+        // Arrange, Given
+        String schema = "partitioning_" + UUID.randomUUID().toString().replace("-", "");
+        try (Connection managerConnection = dataSource.getConnection(); Connection writerConnection = dataSource.getConnection()) {
+            try (Statement statement = managerConnection.createStatement()) {
+                statement.execute("create schema " + schema);
+                statement.execute("set search_path to " + schema);
+                statement.execute("create table author (id bigint primary key)");
+                statement.execute("create table reservation (book_id bigint)");
+                statement.execute("create table book (id bigint primary key, title varchar(255), publish_date date, author_id bigint)");
+                statement.execute("insert into book values (1, 'NEXT YEAR BOOK', '" + LocalDate.of(currentYear + 1, 5, 1) + "', null)");
+                statement.execute("insert into book values (2, 'THIS YEAR BOOK', '" + LocalDate.now() + "', null)");
+            }
+            try {
+                SingleConnectionDataSource schemaDataSource = new SingleConnectionDataSource(managerConnection, true);
+                JdbcTemplate schemaJdbcTemplate = new JdbcTemplate(schemaDataSource);
+                BookPartitionManager manager = new BookPartitionManager(schemaJdbcTemplate, new DataSourceTransactionManager(schemaDataSource), true, 1, 0);
+                manager.migrateToPartitionedTable();
+                Long managerPid = schemaJdbcTemplate.queryForObject("select pg_backend_pid()", Long.class);
+                writerConnection.setAutoCommit(false);
+                try (Statement statement = writerConnection.createStatement()) {
+                    statement.executeUpdate("update " + schema + ".book set title = 'UPDATED BOOK' where id = 1");
+                }
+
+                // Act, When
+                CompletableFuture<Void> maintenance = CompletableFuture.runAsync(manager::maintainPartitions);
+                awaitLockWait(managerPid);
+                writerConnection.commit();
+                maintenance.join();
+
+                // Assert, Then
+                assertThat(schemaJdbcTemplate.queryForObject("select tableoid::regclass::text || ':' || title from book where id = 1", String.class))
+                        .isEqualTo("book_p" + (currentYear + 1) + ":UPDATED BOOK");
+            } finally {
+                try (Statement statement = managerConnection.createStatement()) {
+                    statement.execute("reset search_path");
+                    statement.execute("drop schema " + schema + " cascade");
+                }
+            }
+        }
+    }
+
+    private void awaitLockWait(Long pid) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            Integer waiting = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_stat_activity where pid = ? and wait_event_type = 'Lock'", Integer.class, pid);
+            if (waiting != null && waiting > 0) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Partition maintenance never waited on the concurrent update");
+    }
+
+    private String partitionOf(String title) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from book where title = ?", String.class, title);
+    }
+
+    private void insertReservation(Long bookId) {
+        jdbcTemplate.update("insert into reservation (id, book_id, patron_name, priority, status, created_at) values (?, ?, 'Alice', 'NORMAL', 'ACTIVE', now())",
+                UUID.randomUUID(), bookId);
+    }
+
+    private int reservationCount(Long bookId) {
+        return jdbcTemplate.queryForObject("select count(*) from reservation where book_id = ?", Integer.class, bookId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.santoshmane.librarymanagement.repositories;
 
 import com.santoshmane.librarymanagement.TestContainerConfiguration;
+import com.santoshmane.librarymanagement.dtos.BookDto;
 import com.santoshmane.librarymanagement.entities.Author;
 import com.santoshmane.librarymanagement.entities.Book;
 import org.junit.jupiter.api.Test;
@@ -8,10 +9,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -113,6 +118,43 @@ class BookRepositoryTest {
         assertThat(books).isEmpty();
     }
 
+    @Test
+    void testFindBookDtosByAuthorId_whenAuthorHasBooks_thenReturnDtosWithAuthor() {
+        // Arrange, Given
+        Author author = new Author();
+        author.setName("John Doe");
+        authorRepository.save(author);
+
+        Book book = new Book();
+        book.setTitle("Book by John Doe");
+        book.setCreatedBy(author);
+        bookRepository.save(book);
+
+        // Act, When
+        List<BookDto> bookDtos = bookRepository.findBookDtosByAuthorId(author.getId());
+
+        // Assert, Then
+        assertThat(bookDtos).hasSize(1);
+        assertThat(bookDtos.get(0).getTitle()).isEqualTo("Book by John Doe");
+        assertThat(bookDtos.get(0).getCreatedBy().getId()).isEqualTo(author.getId());
+        assertThat(bookDtos.get(0).getCreatedBy().getName()).isEqualTo("John Doe");
+    }
+
+    @Test
+    void testFindAllBookDtos_whenBookHasNoAuthor_thenReturnDtoWithoutAuthor() {
+        // Arrange, Given
+        Book book = new Book();
+        book.setTitle("Orphan Book");
+        bookRepository.save(book);
+
+        // Act, When
+        List<BookDto> bookDtos = bookRepository.findAllBookDtos();
+
+        // Assert, Then
+        assertThat(bookDtos).hasSize(1);
+        assertThat(bookDtos.get(0).getCreatedBy()).isNull();
+    }
+
     @Test
     void testFindByCreatedBy_whenAuthorIsNotPresent_thenReturnEmptyBookList() {
         // Arrange, Given
@@ -127,4 +169,79 @@ class BookRepositoryTest {
         assertThat(books).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void testFindFieldsBy_whenOnlyTitleRequested_thenReturnOnlyTitle() {
+        // Arrange, Given
+        Book book = new Book();
+        book.setTitle("Sparse Book");
+        book.setDescription("Not selected");
+        book.setPublishDate(LocalDate.now().minusDays(1));
+        bookRepository.save(book);
+
+        // Act, When
+        List<Map<String, Object>> books = bookRepository.findFieldsBy(Set.of("title"), BookSpecifications.hasTitle("Sparse Book"));
+
+        // Assert, Then
+        assertThat(books).containsExactly(Map.of("title", "Sparse Book"));
+    }
+
+    @Test
+    void testFindBookDtosByIdIn_whenIdsRequested_thenReturnOnlyMatchingBooks() {
+        // Arrange, Given
+        Book book1 = bookRepository.save(Book.builder().title("First Book").build());
+        Book book2 = bookRepository.save(Book.builder().title("Second Book").build());
+        bookRepository.save(Book.builder().title("Third Book").build());
+
+        // Act, When
+        List<BookDto> bookDtos = bookRepository.findBookDtosByIdIn(Set.of(book1.getId(), book2.getId(), -1L));
+
+        // Assert, Then
+        assertThat(bookDtos).extracting(BookDto::getTitle).containsExactlyInAnyOrder("First Book", "Second Book");
+    }
+
+    @Test
+    void testUpdateAuthorByIdInAndAuthorId_whenBookOwnedByOtherAuthor_thenSkipIt() {
+        // Arrange, Given
+        Author source = authorRepository.save(Author.builder().name("SOURCE").build());
+        Author other = authorRepository.save(Author.builder().name("OTHER").build());
+        Author target = authorRepository.save(Author.builder().name("TARGET").build());
+        Book owned = bookRepository.save(Book.builder().title("Owned Book").createdBy(source).build());
+        Book moved = bookRepository.save(Book.builder().title("Moved Book").createdBy(other).build());
+
+        // Act, When
+        int updated = bookRepository.updateAuthorByIdInAndAuthorId(target, List.of(owned.getId(), moved.getId()), source.getId());
+
+        // Assert, Then
+        assertThat(updated).isEqualTo(1);
+        assertThat(bookRepository.findBookDtosByAuthorId(target.getId())).extracting(BookDto::getTitle).containsExactly("Owned Book");
+        assertThat(bookRepository.findBookDtosByAuthorId(other.getId())).extracting(BookDto::getTitle).containsExactly("Moved Book");
+    }
+
+    @Test
+    void testFindBookDtosBy_whenFiltersCombined_thenReturnSortedPageOfMatches() {
+        // Arrange, Given
+        Author author = authorRepository.save(Author.builder().name("JOHN DOE").build());
+        Author other = authorRepository.save(Author.builder().name("JANE DOE").build());
+        bookRepository.save(Book.builder().title("DUNE").publishDate(LocalDate.of(1965, 8, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("DUNE MESSIAH").publishDate(LocalDate.of(1969, 10, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("CHILDREN OF DUNE").publishDate(LocalDate.of(1976, 4, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("100% DUNE").publishDate(LocalDate.of(1970, 1, 1)).createdBy(author).build());
+        bookRepository.save(Book.builder().title("THE DUNE READER").publishDate(LocalDate.of(1968, 1, 1)).createdBy(other).build());
+        Specification<Book> filters = Specification.allOf(
+                BookSpecifications.createdBy(author.getId()),
+                BookSpecifications.publishedOnOrAfter(LocalDate.of(1965, 8, 1)),
+                BookSpecifications.publishedOnOrBefore(LocalDate.of(1976, 4, 1)),
+                BookSpecifications.titleContains("DUNE"));
+
+        // Act, When
+        List<BookDto> firstPage = bookRepository.findBookDtosBy(filters, Sort.by(Sort.Direction.DESC, "publishDate"), 0, 2);
+        List<BookDto> secondPage = bookRepository.findBookDtosBy(filters, Sort.by(Sort.Direction.DESC, "publishDate"), 2, 2);
+        List<BookDto> percent = bookRepository.findBookDtosBy(BookSpecifications.titleContains("0%"), Sort.by("title"), 0, 10);
+
+        // Assert, Then
+        assertThat(firstPage).extracting(BookDto::getTitle).containsExactly("CHILDREN OF DUNE", "100% DUNE");
+        assertThat(secondPage).extracting(BookDto::getTitle).containsExactly("DUNE MESSIAH", "DUNE");
+        assertThat(secondPage.get(0).getCreatedBy().getName()).isEqualTo("JOHN DOE");
+        assertThat(percent).extracting(BookDto::getTitle).containsExactly("100% DUNE");
+    }
+}
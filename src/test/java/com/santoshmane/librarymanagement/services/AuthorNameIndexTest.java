@@ -0,0 +1,96 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorNameIndexTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    private AuthorNameIndex authorNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        authorNameIndex = new AuthorNameIndex(authorRepository);
+        authorNameIndex.rebuild(List.of(
+                new AuthorDto(1L, "JOHN DOE"),
+                new AuthorDto(2L, "JOHANNA SPYRI"),
+                new AuthorDto(3L, "JANE AUSTEN"),
+                new AuthorDto(4L, "JOHN DOE")));
+    }
+
+    @Test
+    void testSearch_whenPrefixMatches_thenReturnMatchesInNameOrder() {
+        // Act, When
+        List<AuthorDto> matches = authorNameIndex.search("jo", 10);
+
+        // Assert, Then
+        assertThat(matches).extracting(AuthorDto::getId).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void testSearch_whenLimitIsSmallerThanMatches_thenReturnTopN() {
+        // Act, When
+        List<AuthorDto> matches = authorNameIndex.search("john", 1);
+
+        // Assert, Then
+        assertThat(matches).extracting(AuthorDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void testSearch_whenPrefixHasAccentsAndExtraSpaces_thenMatchNormalizedName() {
+        // Arrange, Given
+        authorNameIndex.put(5L, "GABRIEL GARCÍA MÁRQUEZ");
+
+        // Act, When
+        List<AuthorDto> matches = authorNameIndex.search("  gabriel   garcia m", 10);
+
+        // Assert, Then
+        assertThat(matches).extracting(AuthorDto::getName).containsExactly("GABRIEL GARCÍA MÁRQUEZ");
+    }
+
+    @Test
+    void testPut_whenAuthorRenamed_thenOldNameNoLongerMatches() {
+        // Act, When
+        authorNameIndex.put(3L, "JOHN KEATS");
+
+        // Assert, Then
+        assertThat(authorNameIndex.search("jane", 10)).isEmpty();
+        assertThat(authorNameIndex.search("john k", 10)).extracting(AuthorDto::getId).containsExactly(3L);
+        assertThat(authorNameIndex.size()).isEqualTo(4);
+    }
+
+    @Test
+    void testRemove_whenAuthorDeleted_thenNoLongerMatches() {
+        // Act, When
+        authorNameIndex.remove(2L);
+
+        // Assert, Then
+        assertThat(authorNameIndex.search("joh", 10)).extracting(AuthorDto::getId).containsExactly(1L, 4L);
+    }
+
+    @Test
+    void testRebuild_whenLoadedFromRepository_thenIndexAllAuthors() {
+        // Arrange, Given
+        when(authorRepository.findAllAuthorDtos()).thenReturn(List.of(new AuthorDto(9L, "MARK TWAIN")));
+
+        // Act, When
+        authorNameIndex.rebuild();
+
+        // Assert, Then
+        assertThat(authorNameIndex.size()).isEqualTo(1);
+        assertThat(authorNameIndex.search("mark", 10)).extracting(AuthorDto::getId).containsExactly(9L);
+    }
+}
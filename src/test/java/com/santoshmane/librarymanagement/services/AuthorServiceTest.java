@@ -1,9 +1,16 @@
 package com.santoshmane.librarymanagement.services;
 
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
 import com.santoshmane.librarymanagement.entities.Author;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
 import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
 import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +20,14 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -33,6 +43,15 @@ class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuthorNameIndex authorNameIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthorService authorService;
 
@@ -58,7 +77,7 @@ class AuthorServiceTest {
     @Test
     void testGetAllAuthors_whenAuthorsArePresent_thenReturnListOfAuthorDtos() {
         // Arrange, Given
-        when(authorRepository.findAll()).thenReturn(List.of(mockAuthor));
+        when(authorRepository.findAllAuthorDtos()).thenReturn(List.of(mockAuthorDto));
 
         // Act, When
         List<AuthorDto> authorDtoList = authorService.getAllAuthors();
@@ -67,7 +86,7 @@ class AuthorServiceTest {
         assertThat(authorDtoList).isNotNull();
         assertThat(authorDtoList).hasSize(1);
         assertThat(authorDtoList.get(0).getName()).isEqualTo(mockAuthor.getName());
-        verify(authorRepository, only()).findAll();
+        verify(authorRepository, only()).findAllAuthorDtos();
     }
 
     @Test
@@ -112,6 +131,8 @@ class AuthorServiceTest {
         ArgumentCaptor<Author> authorArgumentCaptor = ArgumentCaptor.forClass(Author.class);
         verify(authorRepository).save(authorArgumentCaptor.capture());
         assertThat(authorArgumentCaptor.getValue().getName()).isEqualTo(mockAuthor.getName().toUpperCase());
+        verify(authorNameIndex).put(mockAuthor.getId(), mockAuthor.getName());
+        verify(eventPublisher).publishEvent(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.CREATED, mockAuthor.getId()));
     }
 
     @Test
@@ -128,6 +149,7 @@ class AuthorServiceTest {
         assertThat(updatedAuthorDto.getId()).isEqualTo(mockAuthor.getId());
         verify(authorRepository).existsById(1L);
         verify(authorRepository).save(any(Author.class));
+        verify(authorNameIndex).put(mockAuthor.getId(), mockAuthor.getName());
     }
 
     @Test
@@ -148,12 +170,16 @@ class AuthorServiceTest {
     void testDeleteAuthorById_whenAuthorExists_thenDeleteAuthor() {
         // Arrange, Given
         when(authorRepository.existsById(anyLong())).thenReturn(true);
+        when(authorRepository.findBookIdsByAuthorId(1L)).thenReturn(List.of(5L, 6L));
 
         // Act, When
         authorService.deleteAuthorById(1L);
 
         // Assert, Then
         verify(authorRepository).deleteById(1L);
+        verify(authorNameIndex).remove(1L);
+        verify(eventPublisher).publishEvent(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.DELETED, 1L));
+        verify(eventPublisher).publishEvent(new CatalogChangeEvent(EntityType.BOOK, ChangeType.DELETED, List.of(5L, 6L)));
     }
 
     @Test
@@ -167,12 +193,13 @@ class AuthorServiceTest {
                 .hasMessage("Author not found by id:1");
 
         verify(authorRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(authorNameIndex);
     }
 
     @Test
     void testGetAuthorsByName_whenAuthorsArePresent_thenReturnListOfAuthorDtos() {
         // Arrange, Given
-        when(authorRepository.findByName(anyString())).thenReturn(List.of(mockAuthor));
+        when(authorRepository.findAuthorDtosByName(anyString())).thenReturn(List.of(mockAuthorDto));
 
         // Act, When
         List<AuthorDto> authorDtoList = authorService.getAuthorsByName("John Doe");
@@ -181,6 +208,98 @@ class AuthorServiceTest {
         assertThat(authorDtoList).isNotNull();
         assertThat(authorDtoList).hasSize(1);
         assertThat(authorDtoList.get(0).getName()).isEqualTo(mockAuthor.getName().toUpperCase());
-        verify(authorRepository, only()).findByName("JOHN DOE");
+        verify(authorRepository, only()).findAuthorDtosByName("JOHN DOE");
+    }
+
+    @Test
+    void testGetAllAuthors_whenFieldsRequested_thenSelectOnlyRequestedFields() {
+        // Arrange, Given
+        Map<String, Object> sparseAuthor = Map.of("name", "JOHN DOE");
+        when(authorRepository.findFieldsBy(Set.of("name"), null)).thenReturn(List.of(sparseAuthor));
+
+        // Act, When
+        List<Map<String, Object>> authors = authorService.getAllAuthors(Set.of("name"));
+
+        // Assert, Then
+        assertThat(authors).containsExactly(sparseAuthor);
+        verify(authorRepository, only()).findFieldsBy(Set.of("name"), null);
+    }
+
+    @Test
+    void testGetAllAuthors_whenNoValidFieldRequested_thenThrowException() {
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> authorService.getAllAuthors(Set.of("")))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void testAutocompleteAuthors_whenLimitIsValid_thenSearchIndexWithoutRepository() {
+        // Arrange, Given
+        when(authorNameIndex.search("jo", 5)).thenReturn(List.of(mockAuthorDto));
+
+        // Act, When
+        List<AuthorDto> authorDtoList = authorService.autocompleteAuthors("jo", 5);
+
+        // Assert, Then
+        assertThat(authorDtoList).containsExactly(mockAuthorDto);
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void testAutocompleteAuthors_whenLimitIsTooLarge_thenThrowException() {
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> authorService.autocompleteAuthors("jo", 500))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Autocomplete limit must be between 1 and 50");
+    }
+
+    @Test
+    void testGetAuthorsByIds_whenSomeIdsMissing_thenReturnNotFoundMarkers() {
+        // Arrange, Given
+        when(authorRepository.findAuthorDtosByIdIn(anyCollection())).thenReturn(List.of(mockAuthorDto));
+
+        // Act, When
+        List<BatchItemDto<AuthorDto>> results = authorService.getAuthorsByIds(List.of(7L, 1L));
+
+        // Assert, Then
+        assertThat(results).extracting(BatchItemDto::getId).containsExactly(7L, 1L);
+        assertThat(results).extracting(BatchItemDto::isFound).containsExactly(false, true);
+        assertThat(results.get(1).getItem()).isEqualTo(mockAuthorDto);
+    }
+
+    @Test
+    void testGetAuthorsByIds_whenIdsEmpty_thenThrowBadRequestException() {
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> authorService.getAuthorsByIds(List.of()))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void testGetAllAuthorsEmbedded_whenBooksEmbedded_thenAttachBooksFromOneQuery() {
+        // Arrange, Given
+        AuthorDto otherAuthorDto = AuthorDto.builder().id(2L).name("JANE ROE").build();
+        BookDto bookDto = new BookDto(10L, "FIRST BOOK", "First", null, 1L, "JOHN DOE");
+        when(authorRepository.findAllAuthorDtos()).thenReturn(List.of(mockAuthorDto, otherAuthorDto));
+        when(bookRepository.findBookDtosWithAuthor()).thenReturn(List.of(bookDto));
+
+        // Act, When
+        List<AuthorDto> authorDtoList = authorService.getAllAuthorsEmbedded(Set.of("books"));
+
+        // Assert, Then
+        assertThat(authorDtoList.get(0).getBooks()).containsExactly(bookDto);
+        assertThat(authorDtoList.get(1).getBooks()).isEmpty();
+        verify(authorRepository, only()).findAllAuthorDtos();
+        verify(bookRepository, only()).findBookDtosWithAuthor();
+    }
+
+    @Test
+    void testGetAuthorByIdEmbedded_whenUnknownEmbed_thenThrowBadRequestException() {
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> authorService.getAuthorByIdEmbedded(1L, Set.of("books", "reviews")))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(authorRepository, bookRepository);
     }
-}
\ No newline at end of file
+}
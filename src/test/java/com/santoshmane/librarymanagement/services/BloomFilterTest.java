@@ -0,0 +1,51 @@
+package com.santoshmane.librarymanagement.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BloomFilterTest {
+
+    @Test
+    void testMightContain_whenKeysAdded_thenNeverReturnFalseNegative() {
+        // Arrange, Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("BOOK " + i);
+        }
+
+        // Act & Assert, When & Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("BOOK " + i)).isTrue();
+        }
+    }
+
+    @Test
+    void testMightContain_whenFilledToCapacity_thenFalsePositiveRateStaysNearTarget() {
+        // Arrange, Given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("BOOK " + i);
+        }
+
+        // Act, When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("OTHER " + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert, Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.memoryBytes()).isLessThan(13_000);
+        assertThat(filter.isSaturated()).isFalse();
+    }
+
+    @Test
+    void testConstructor_whenFalsePositiveRateOutOfRange_thenThrowException() {
+        // Act & Assert, When & Then
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.5));
+    }
+}
@@ -1,11 +1,23 @@
 package com.santoshmane.librarymanagement.services;
 
 import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BatchItemDto;
 import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.dtos.BookPageDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentDto;
+import com.santoshmane.librarymanagement.dtos.BookReassignmentResultDto;
+import com.santoshmane.librarymanagement.dtos.BookSearchDto;
+import com.santoshmane.librarymanagement.dtos.RelatedBookDto;
 import com.santoshmane.librarymanagement.entities.Author;
 import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ResourceConflictException;
 import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
 import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.BookCatalogRepository;
 import com.santoshmane.librarymanagement.repositories.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,10 +28,17 @@ import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +52,16 @@ class BookServiceTest {
     private BookRepository bookRepository;
     @Mock
     private AuthorRepository authorRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private BookCatalogRepository bookCatalogRepository;
+    @Mock
+    private BookCatalogProjector bookCatalogProjector;
+    @Mock
+    private RelatedBooksIndex relatedBooksIndex;
+    @Mock
+    private BookDuplicateGuard bookDuplicateGuard;
     @InjectMocks
     private BookService bookService;
     @Spy
@@ -63,7 +92,7 @@ class BookServiceTest {
     @Test
     void testGetAllBooks_whenBooksArePresent_thenReturnListOfBookDtos() {
         // Arrange
-        when(bookRepository.findAll()).thenReturn(List.of(mockBook));
+        when(bookRepository.findAllBookDtos()).thenReturn(List.of(mockBookDto));
         // Act
         List<BookDto> bookDtoList = bookService.getAllBooks();
 
@@ -71,7 +100,7 @@ class BookServiceTest {
         assertThat(bookDtoList).isNotNull();
         assertThat(bookDtoList).hasSize(1);
         assertThat(bookDtoList.get(0).getTitle()).isEqualTo(mockBook.getTitle());
-        verify(bookRepository, only()).findAll();
+        verify(bookRepository, only()).findAllBookDtos();
     }
 
     @Test
@@ -157,6 +186,7 @@ class BookServiceTest {
         // Assert
         verify(bookRepository, times(1)).existsById(bookId);
         verify(bookRepository, times(1)).deleteById(bookId);
+        verify(eventPublisher).publishEvent(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.DELETED, bookId));
     }
 
     @Test
@@ -174,8 +204,7 @@ class BookServiceTest {
     void testGetBooksPublishedAfterDate_whenBooksArePresent_thenReturnListOfBookDtos() {
         // Arrange
         LocalDate date = LocalDate.of(2020, 1, 1);
-        when(bookRepository.findByPublishDateAfter(date)).thenReturn(List.of(mockBook));
-        when(modelMapper.map(mockBook, BookDto.class)).thenReturn(mockBookDto);
+        when(bookRepository.findBookDtosByPublishDateAfter(date)).thenReturn(List.of(mockBookDto));
 
         // Act
         List<BookDto> bookDtoList = bookService.getBooksPublishedAfterDate(date);
@@ -184,14 +213,14 @@ class BookServiceTest {
         assertThat(bookDtoList).isNotNull();
         assertThat(bookDtoList).hasSize(1);
         assertThat(bookDtoList.get(0).getTitle()).isEqualTo(mockBook.getTitle());
-        verify(bookRepository, only()).findByPublishDateAfter(date);
+        verify(bookRepository, only()).findBookDtosByPublishDateAfter(date);
     }
 
     @Test
     void testGetBooksByTitle_whenBooksArePresent_thenReturnListOfBookDtos() {
         // Arrange
         String title = "Test Title";
-        when(bookRepository.findByTitle(title.toUpperCase())).thenReturn(List.of(mockBook));
+        when(bookRepository.findBookDtosByTitle(title.toUpperCase())).thenReturn(List.of(mockBookDto));
 
         // Act
         List<BookDto> bookDtoList = bookService.getBooksByTitle(title);
@@ -200,16 +229,15 @@ class BookServiceTest {
         assertThat(bookDtoList).isNotNull();
         assertThat(bookDtoList).hasSize(1);
         assertThat(bookDtoList.get(0).getTitle()).isEqualTo(mockBook.getTitle());
-        verify(bookRepository, only()).findByTitle(title.toUpperCase());
+        verify(bookRepository, only()).findBookDtosByTitle(title.toUpperCase());
     }
 
     @Test
     void testGetBooksCreatedBy_whenAuthorExists_thenReturnListOfBookDtos() {
         // Arrange
         Long authorId = 1L;
-        when(authorRepository.findById(authorId)).thenReturn(Optional.of(mockAuthor));
-        when(bookRepository.findByCreatedBy(mockAuthor)).thenReturn(List.of(mockBook));
-        when(modelMapper.map(mockBook, BookDto.class)).thenReturn(mockBookDto);
+        when(authorRepository.existsById(authorId)).thenReturn(true);
+        when(bookRepository.findBookDtosByAuthorId(authorId)).thenReturn(List.of(mockBookDto));
 
         // Act
         List<BookDto> bookDtoList = bookService.getBooksCreatedBy(authorId);
@@ -218,19 +246,20 @@ class BookServiceTest {
         assertThat(bookDtoList).isNotNull();
         assertThat(bookDtoList).hasSize(1);
         assertThat(bookDtoList.get(0).getTitle()).isEqualTo(mockBook.getTitle());
-        verify(authorRepository, times(1)).findById(authorId);
-        verify(bookRepository, times(1)).findByCreatedBy(mockAuthor);
+        verify(authorRepository, times(1)).existsById(authorId);
+        verify(bookRepository, times(1)).findBookDtosByAuthorId(authorId);
     }
 
     @Test
     void testGetBooksCreatedBy_whenAuthorDoesNotExist_thenThrowResourceNotFoundException() {
         // Arrange
         Long authorId = 1L;
-        when(authorRepository.findById(authorId)).thenReturn(Optional.empty());
+        when(authorRepository.existsById(authorId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> bookService.getBooksCreatedBy(authorId));
-        verify(authorRepository, only()).findById(authorId);
+        verify(authorRepository, only()).existsById(authorId);
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -280,11 +309,293 @@ class BookServiceTest {
         verify(authorRepository, only()).findById(authorId);
     }
 
+    @Test
+    void testGetAllBooks_whenFieldsRequested_thenSelectOnlyRequestedFields() {
+        // Arrange
+        Map<String, Object> sparseBook = Map.of("id", 1L, "title", "FIRST BOOK");
+        when(bookRepository.findFieldsBy(Set.of("id", "title"), null)).thenReturn(List.of(sparseBook));
+
+        // Act
+        List<Map<String, Object>> books = bookService.getAllBooks(Set.of("id", " title"));
+
+        // Assert
+        assertThat(books).containsExactly(sparseBook);
+        verify(bookRepository, only()).findFieldsBy(Set.of("id", "title"), null);
+    }
+
+    @Test
+    void testGetAllBooks_whenUnknownFieldRequested_thenThrowBadRequestException() {
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookService.getAllBooks(Set.of("id", "isbn")));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetBookById_whenFieldsRequestedAndBookDoesNotExist_thenThrowResourceNotFoundException() {
+        // Arrange
+        when(bookRepository.findFieldsBy(eq(Set.of("title")), any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookById(1L, Set.of("title")));
+    }
+
+    @Test
+    void testGetBooksCreatedBy_whenFieldsRequestedAndAuthorDoesNotExist_thenThrowResourceNotFoundException() {
+        // Arrange
+        when(authorRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBooksCreatedBy(1L, Set.of("id")));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetBooksByIds_whenSomeIdsMissing_thenReturnResultsInRequestOrderWithMarkers() {
+        // Arrange
+        BookDto secondBookDto = BookDto.builder().id(2L).title("SECOND BOOK").build();
+        when(bookRepository.findBookDtosByIdIn(Set.of(2L, 99L, 1L))).thenReturn(List.of(mockBookDto, secondBookDto));
+
+        // Act
+        List<BatchItemDto<BookDto>> results = bookService.getBooksByIds(List.of(2L, 99L, 1L, 2L));
+
+        // Assert
+        assertThat(results).extracting(BatchItemDto::getId).containsExactly(2L, 99L, 1L, 2L);
+        assertThat(results).extracting(BatchItemDto::isFound).containsExactly(true, false, true, true);
+        assertThat(results.get(0).getItem()).isEqualTo(secondBookDto);
+        assertThat(results.get(1).getItem()).isNull();
+        verify(bookRepository, only()).findBookDtosByIdIn(anyCollection());
+    }
+
+    @Test
+    void testGetBooksByIds_whenTooManyIds_thenThrowBadRequestException() {
+        // Arrange
+        List<Long> ids = Collections.nCopies(BatchLookup.MAX_BATCH_IDS + 1, 1L);
+
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookService.getBooksByIds(ids));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testReassignBooks_whenBookIdsGiven_thenUpdateInChunks() {
+        // Arrange
+        List<Long> bookIds = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(authorRepository.existsById(2L)).thenReturn(true);
+        when(authorRepository.getReferenceById(2L)).thenReturn(mockAuthor);
+        when(bookRepository.updateAuthorByIdIn(eq(mockAuthor), anyCollection())).thenReturn(1000, 1000, 499);
 
+        // Act
+        BookReassignmentResultDto result = bookService.reassignBooks(BookReassignmentDto.builder()
+                .targetAuthorId(2L)
+                .bookIds(bookIds)
+                .build());
 
+        // Assert
+        assertThat(result.getRequestedBooks()).isEqualTo(2500);
+        assertThat(result.getUpdatedBooks()).isEqualTo(2499);
+        assertThat(result.getChunks()).isEqualTo(3);
+        verify(bookRepository).updateAuthorByIdIn(mockAuthor, bookIds.subList(2000, 2500));
+        verify(eventPublisher, times(3)).publishEvent(any(CatalogChangeEvent.class));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
 
+    @Test
+    void testReassignBooks_whenFromAuthorGiven_thenMoveOnlyThatAuthorsBooks() {
+        // Arrange
+        when(authorRepository.existsById(anyLong())).thenReturn(true);
+        when(authorRepository.findBookIdsByAuthorId(1L)).thenReturn(List.of(10L, 11L));
+        when(authorRepository.getReferenceById(2L)).thenReturn(mockAuthor);
+        when(bookRepository.updateAuthorByIdInAndAuthorId(mockAuthor, List.of(10L, 11L), 1L)).thenReturn(2);
 
+        // Act
+        BookReassignmentResultDto result = bookService.reassignBooks(BookReassignmentDto.builder()
+                .targetAuthorId(2L)
+                .fromAuthorId(1L)
+                .build());
 
+        // Assert
+        assertThat(result.getUpdatedBooks()).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new CatalogChangeEvent(EntityType.BOOK, ChangeType.UPDATED, List.of(10L, 11L)));
+    }
 
+    @Test
+    void testReassignBooks_whenBothSelectorsGiven_thenThrowBadRequestException() {
+        // Arrange
+        BookReassignmentDto reassignmentDto = BookReassignmentDto.builder()
+                .targetAuthorId(2L)
+                .fromAuthorId(1L)
+                .bookIds(List.of(1L))
+                .build();
 
-}
\ No newline at end of file
+        // Act & Assert
+        assertThrows(BadRequestException.class, () -> bookService.reassignBooks(reassignmentDto));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testReassignBooks_whenTargetAuthorDoesNotExist_thenThrowResourceNotFoundException() {
+        // Arrange
+        when(authorRepository.existsById(2L)).thenReturn(false);
+        BookReassignmentDto reassignmentDto = BookReassignmentDto.builder()
+                .targetAuthorId(2L)
+                .bookIds(List.of(1L))
+                .build();
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.reassignBooks(reassignmentDto));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetAllBooks_whenReadModelServing_thenReadFromCatalogOnly() {
+        // Arrange
+        when(bookCatalogProjector.isServingReads()).thenReturn(true);
+        when(bookCatalogRepository.findAllBookDtos()).thenReturn(List.of(mockBookDto));
+
+        // Act
+        List<BookDto> bookDtoList = bookService.getAllBooks();
+
+        // Assert
+        assertThat(bookDtoList).containsExactly(mockBookDto);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetBookById_whenReadModelServingAndBookMissing_thenThrowResourceNotFoundException() {
+        // Arrange
+        when(bookCatalogProjector.isServingReads()).thenReturn(true);
+        when(bookCatalogRepository.findBookDtoById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getBookById(1L));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetRelatedBooks_whenBookIndexed_thenReturnMatchesWithoutRepository() {
+        // Arrange, Given
+        RelatedBookDto related = new RelatedBookDto(2L, "SECOND BOOK", 0.8);
+        when(relatedBooksIndex.related(1L, 5)).thenReturn(List.of(related));
+
+        // Act, When
+        List<RelatedBookDto> relatedBooks = bookService.getRelatedBooks(1L, 5);
+
+        // Assert, Then
+        assertThat(relatedBooks).containsExactly(related);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void testGetRelatedBooks_whenBookNotIndexedAndMissing_thenThrowResourceNotFoundException() {
+        // Arrange, Given
+        when(relatedBooksIndex.related(1L, 5)).thenReturn(null);
+        when(bookRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert, When & Then
+        assertThrows(ResourceNotFoundException.class, () -> bookService.getRelatedBooks(1L, 5));
+    }
+
+    @Test
+    void testGetRelatedBooks_whenLimitIsTooLarge_thenThrowBadRequestException() {
+        // Act & Assert, When & Then
+        assertThrows(BadRequestException.class, () -> bookService.getRelatedBooks(1L, 500));
+        verifyNoInteractions(relatedBooksIndex);
+    }
+
+    @Test
+    void testCreateNewBook_whenFilterSaysDefinitelyNew_thenSkipDuplicateLookup() {
+        // Arrange, Given
+        mockBookDto.setTitle("  first   book ");
+        when(bookDuplicateGuard.mightExist("FIRST BOOK", null)).thenReturn(false);
+        when(bookRepository.save(any(Book.class))).thenReturn(mockBook);
+
+        // Act, When
+        bookService.createNewBook(mockBookDto);
+
+        // Assert, Then
+        verify(bookRepository, never()).existsDuplicate(any(), any(), any());
+        verify(bookDuplicateGuard).put("FIRST BOOK", null);
+    }
+
+    @Test
+    void testCreateNewBook_whenDuplicateExists_thenThrowResourceConflictException() {
+        // Arrange, Given
+        when(bookDuplicateGuard.mightExist("FIRST BOOK", null)).thenReturn(true);
+        when(bookRepository.existsDuplicate("FIRST BOOK", null, null)).thenReturn(true);
+
+        // Act & Assert, When & Then
+        assertThrows(ResourceConflictException.class, () -> bookService.createNewBook(mockBookDto));
+        verify(bookRepository, never()).save(any(Book.class));
+        verify(bookDuplicateGuard, never()).put(any(), any());
+    }
+
+    @Test
+    void testCreateNewBook_whenUniqueIndexRejectsConcurrentDuplicate_thenThrowResourceConflictException() {
+        // Arrange, Given
+        when(bookRepository.save(any(Book.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new RuntimeException("duplicate key value violates unique constraint \"uk_book_title_author\"")));
+
+        // Act & Assert, When & Then
+        assertThrows(ResourceConflictException.class, () -> bookService.createNewBook(mockBookDto));
+    }
+
+    @Test
+    void testUpdateBookById_whenAnotherBookHasSameTitleAndAuthor_thenThrowResourceConflictException() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookDuplicateGuard.mightExist("FIRST BOOK", null)).thenReturn(true);
+        when(bookRepository.existsDuplicate("FIRST BOOK", null, 1L)).thenReturn(true);
+
+        // Act & Assert, When & Then
+        assertThrows(ResourceConflictException.class, () -> bookService.updateBookById(1L, mockBookDto));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    void testSearchBooks_whenMoreRowsThanPageSize_thenReturnPageWithNext() {
+        // Arrange, Given
+        BookSearchDto search = BookSearchDto.builder()
+                .authorId(1L)
+                .titleContains("book")
+                .sort("publishDate")
+                .direction("desc")
+                .page(2)
+                .size(2)
+                .build();
+        when(bookRepository.findBookDtosBy(any(), eq(Sort.by(Sort.Direction.DESC, "publishDate")), eq(4L), eq(3)))
+                .thenReturn(List.of(mockBookDto, mockBookDto, mockBookDto));
+
+        // Act, When
+        BookPageDto page = bookService.searchBooks(search);
+
+        // Assert, Then
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(page.getPage()).isEqualTo(2);
+        assertThat(page.getSize()).isEqualTo(2);
+    }
+
+    @Test
+    void testSearchBooks_whenTitleContainsAlone_thenThrowBadRequestException() {
+        // Arrange, Given
+        BookSearchDto search = BookSearchDto.builder().titleContains("book").build();
+
+        // Act & Assert, When & Then
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks(search));
+        verify(bookRepository, never()).findBookDtosBy(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testSearchBooks_whenSortUnindexedOrPageTooDeep_thenThrowBadRequestException() {
+        // Arrange, Given
+        BookSearchDto byTitle = BookSearchDto.builder().publishedFrom(LocalDate.of(2020, 1, 1)).sort("title").build();
+        BookSearchDto tooDeep = BookSearchDto.builder().page(200).size(100).build();
+        BookSearchDto unknownSort = BookSearchDto.builder().sort("description").build();
+
+        // Act & Assert, When & Then
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks(byTitle));
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks(tooDeep));
+        assertThrows(BadRequestException.class, () -> bookService.searchBooks(unknownSort));
+        verify(bookRepository, never()).findBookDtosBy(any(), any(), anyLong(), anyInt());
+    }
+}
@@ -0,0 +1,100 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import com.santoshmane.librarymanagement.exceptions.ServiceUnavailableException;
+import com.santoshmane.librarymanagement.services.BookWriteCoalescer.Ack;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookWriteCoalescerTest {
+
+    private final BookService bookService = mock(BookService.class);
+    private final BookWriteCoalescer coalescer = new BookWriteCoalescer(bookService, true, 2, 5000);
+
+    @Test
+    void testFlush_whenBookUpdatedRepeatedly_thenWriteLastUpdateOnceAndCompleteEveryFlushAck() throws Exception {
+        // Arrange, Given
+        BookDto saved = BookDto.builder().id(1L).title("THIRD TITLE").build();
+        when(bookService.updateBookById(eq(1L), any())).thenReturn(saved);
+
+        // Act, When
+        CompletableFuture<BookDto> first = coalescer.update(1L, BookDto.builder().title("first title").build(), Ack.FLUSH);
+        CompletableFuture<BookDto> second = coalescer.update(1L, BookDto.builder().title("second title").build(), Ack.ENQUEUE);
+        CompletableFuture<BookDto> third = coalescer.update(1L, BookDto.builder().title("third title").build(), Ack.FLUSH);
+        boolean doneBeforeFlush = first.isDone() || third.isDone();
+        coalescer.flush();
+
+        // Assert, Then
+        assertThat(doneBeforeFlush).isFalse();
+        assertThat(second.get().getTitle()).isEqualTo("SECOND TITLE");
+        assertThat(first.get()).isSameAs(saved);
+        assertThat(third.get()).isSameAs(saved);
+        verify(bookService, times(1)).updateBookById(eq(1L), argThat(book -> book.getTitle().equals("THIRD TITLE")));
+        assertThat(coalescer.pendingBooks()).isZero();
+    }
+
+    @Test
+    void testFlush_whenUpdateFails_thenFailFlushAcksAndRetryOnlyTransientFailuresOfEnqueueAcks() {
+        // Arrange, Given
+        when(bookService.updateBookById(eq(1L), any())).thenThrow(new ResourceNotFoundException("Book not found by id:1"));
+        when(bookService.updateBookById(eq(2L), any())).thenThrow(new QueryTimeoutException("timeout"));
+        when(bookService.updateBookById(eq(3L), any())).thenThrow(new DataIntegrityViolationException("null title"));
+        BookWriteCoalescer coalescer = new BookWriteCoalescer(bookService, true, 3, 5000);
+        CompletableFuture<BookDto> missing = coalescer.update(1L, BookDto.builder().title("missing").build(), Ack.FLUSH);
+        coalescer.update(2L, BookDto.builder().title("slow").build(), Ack.ENQUEUE);
+        coalescer.update(3L, BookDto.builder().title("invalid").build(), Ack.ENQUEUE);
+
+        // Act, When
+        coalescer.flush();
+
+        // Assert, Then
+        assertThatThrownBy(missing::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThat(coalescer.pendingBooks()).isEqualTo(1);
+        coalescer.drain(3L);
+        verify(bookService, times(1)).updateBookById(eq(3L), any());
+    }
+
+    @Test
+    void testUpdate_whenNotFlushedWithinFlushTimeout_thenFailFlushAckWithServiceUnavailableAndKeepUpdatePending() {
+        // Arrange, Given
+        BookWriteCoalescer coalescer = new BookWriteCoalescer(bookService, true, 2, 50);
+
+        // Act, When
+        CompletableFuture<BookDto> flushed = coalescer.update(1L, BookDto.builder().title("stuck").build(), Ack.FLUSH);
+
+        // Assert, Then
+        assertThatThrownBy(flushed::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(ServiceUnavailableException.class);
+        assertThat(coalescer.pendingBooks()).isEqualTo(1);
+    }
+
+    @Test
+    void testUpdate_whenTooManyBooksPending_thenThrowServiceUnavailableException() {
+        // Arrange, Given
+        coalescer.update(1L, BookDto.builder().title("first").build(), Ack.ENQUEUE);
+        coalescer.update(2L, BookDto.builder().title("second").build(), Ack.ENQUEUE);
+
+        // Act & Assert, When & Then
+        coalescer.update(2L, BookDto.builder().title("second again").build(), Ack.ENQUEUE);
+        assertThatThrownBy(() -> coalescer.update(3L, BookDto.builder().title("third").build(), Ack.ENQUEUE))
+                .isInstanceOf(ServiceUnavailableException.class);
+        coalescer.drain(2L);
+        verify(bookService).updateBookById(eq(2L), argThat(book -> book.getTitle().equals("SECOND AGAIN")));
+        verify(bookService, never()).updateBookById(eq(1L), any());
+    }
+}
@@ -0,0 +1,144 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+import org.mockito.invocation.Invocation;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CatalogChangeFeedTest {
+
+    private MockedConstruction<SseEmitter> emitters;
+    private CatalogChangeFeed catalogChangeFeed;
+
+    @BeforeEach
+    void setUp() {
+        emitters = mockConstruction(SseEmitter.class);
+        catalogChangeFeed = new CatalogChangeFeed(new ObjectMapper(), 2, 1000L, 2, Runnable::run, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.close();
+    }
+
+    @Test
+    void testOnCatalogChange_whenSubscribed_thenPushChangeEvent() {
+        // Arrange, Given
+        SseEmitter emitter = catalogChangeFeed.subscribe(null);
+
+        // Act, When
+        catalogChangeFeed.onCatalogChange(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.CREATED, 7L));
+
+        // Assert, Then
+        String stream = sentText(emitter);
+        assertThat(stream).contains("event:connected");
+        assertThat(stream).contains("event:catalog-change");
+        assertThat(stream).contains("{\"entityType\":\"BOOK\",\"changeType\":\"CREATED\",\"ids\":[7]}");
+    }
+
+    @Test
+    void testSubscribe_whenLastEventIdInBuffer_thenReplayOnlyLaterEvents() {
+        // Arrange, Given
+        String position = lastEventId(sentText(catalogChangeFeed.subscribe(null)));
+        catalogChangeFeed.onCatalogChange(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.CREATED, 1L));
+        catalogChangeFeed.onCatalogChange(CatalogChangeEvent.of(EntityType.AUTHOR, ChangeType.UPDATED, 1L));
+        String afterFirst = position.substring(0, position.lastIndexOf('-')) + "-1";
+
+        // Act, When
+        String stream = sentText(catalogChangeFeed.subscribe(afterFirst));
+
+        // Assert, Then
+        assertThat(stream).doesNotContain("\"CREATED\"");
+        assertThat(stream).contains("\"UPDATED\"");
+        assertThat(stream).doesNotContain("event:reset");
+    }
+
+    @Test
+    void testSubscribe_whenLastEventIdFellOutOfBuffer_thenSendReset() {
+        // Arrange, Given
+        String position = lastEventId(sentText(catalogChangeFeed.subscribe(null)));
+        for (long id = 1; id <= 3; id++) {
+            catalogChangeFeed.onCatalogChange(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.UPDATED, id));
+        }
+
+        // Act, When
+        String stream = sentText(catalogChangeFeed.subscribe(position));
+
+        // Assert, Then
+        assertThat(stream).contains("event:reset");
+        assertThat(lastEventId(stream)).endsWith("-3");
+        assertThat(stream).doesNotContain("catalog-change");
+    }
+
+    @Test
+    void testSubscribe_whenLastEventIdFromPreviousProcess_thenSendReset() {
+        // Act, When
+        String stream = sentText(catalogChangeFeed.subscribe("oldepoch-42"));
+
+        // Assert, Then
+        assertThat(stream).contains("event:reset");
+    }
+
+    @Test
+    void testOnCatalogChange_whenSubscriberOutboxOverflows_thenDropOnlyThatSubscriber() {
+        // Arrange, Given
+        List<Runnable> stalledWrites = new ArrayList<>();
+        CatalogChangeFeed feed = new CatalogChangeFeed(new ObjectMapper(), 8, 1000L, 2, Runnable::run, stalledWrites::add);
+        SseEmitter stalled = feed.subscribe(null);
+        SseEmitter healthy = catalogChangeFeed.subscribe(null);
+
+        // Act, When
+        for (long id = 1; id <= 3; id++) {
+            CatalogChangeEvent event = CatalogChangeEvent.of(EntityType.BOOK, ChangeType.UPDATED, id);
+            feed.onCatalogChange(event);
+            catalogChangeFeed.onCatalogChange(event);
+        }
+        stalledWrites.forEach(Runnable::run);
+        feed.onCatalogChange(CatalogChangeEvent.of(EntityType.BOOK, ChangeType.UPDATED, 4L));
+
+        // Assert, Then
+        verify(stalled).complete();
+        assertThat(sentText(stalled)).doesNotContain("catalog-change");
+        assertThat(sentText(healthy)).contains("\"ids\":[3]");
+        verify(healthy, never()).complete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String sentText(SseEmitter emitter) {
+        return mockingDetails(emitter).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("send"))
+                .map(Invocation::getArguments)
+                .flatMap(arguments -> ((Set<ResponseBodyEmitter.DataWithMediaType>) arguments[0]).stream())
+                .map(data -> data.getData().toString())
+                .collect(Collectors.joining());
+    }
+
+    private String lastEventId(String stream) {
+        Matcher matcher = Pattern.compile("id:(\\S+)").matcher(stream);
+        String id = null;
+        while (matcher.find()) {
+            id = matcher.group(1);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,131 @@
+package com.santoshmane.librarymanagement.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashLshTest {
+
+    private MinHashLsh index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MinHashLsh(4);
+        index.put(1L, "THE HOBBIT", "The Hobbit: a hobbit goes on an unexpected journey with dwarves to the lonely mountain");
+        index.put(2L, "THE HOBBIT ILLUSTRATED", "The Hobbit illustrated: a hobbit goes on an unexpected journey with dwarves to the lonely mountain");
+        index.put(3L, "SPACE ENGINEERING", "Orbital mechanics, propulsion systems and spacecraft thermal control for engineers");
+        index.put(4L, "UNTITLED", null);
+    }
+
+    @Test
+    void testRelated_whenNearDuplicateExists_thenReturnItFirstWithHighSimilarity() {
+        // Act, When
+        List<MinHashLsh.Match> matches = index.related(1L, 10);
+
+        // Assert, Then
+        assertThat(matches).extracting(MinHashLsh.Match::id).containsExactly(2L);
+        assertThat(matches.get(0).title()).isEqualTo("THE HOBBIT ILLUSTRATED");
+        assertThat(matches.get(0).similarity()).isGreaterThan(0.5);
+    }
+
+    @Test
+    void testRelated_whenBookUpdated_thenReindexWithNewText() {
+        // Arrange, Given
+        index.put(2L, "SPACECRAFT ENGINEERING", "Orbital mechanics, propulsion systems and spacecraft thermal control for students");
+
+        // Act, When
+        List<MinHashLsh.Match> hobbitMatches = index.related(1L, 10);
+        List<MinHashLsh.Match> spaceMatches = index.related(3L, 10);
+
+        // Assert, Then
+        assertThat(hobbitMatches).isEmpty();
+        assertThat(spaceMatches).extracting(MinHashLsh.Match::id).containsExactly(2L);
+    }
+
+    @Test
+    void testRelated_whenBookRemoved_thenDropFromResultsAndLookups() {
+        // Act, When
+        index.remove(2L);
+
+        // Assert, Then
+        assertThat(index.related(1L, 10)).isEmpty();
+        assertThat(index.related(2L, 10)).isNull();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testRelated_whenBookHasNoWords_thenReturnEmpty() {
+        // Act, When
+        List<MinHashLsh.Match> matches = index.related(4L, 10);
+
+        // Assert, Then
+        assertThat(matches).isEmpty();
+    }
+
+    @Test
+    void testSignature_whenWordsDifferOnlyInCaseAndPunctuation_thenSignaturesMatch() {
+        // Act, When
+        int[] left = MinHashLsh.signature("The Lord of the Rings!");
+        int[] right = MinHashLsh.signature("lord  rings... THE LORD OF THE RINGS");
+
+        // Assert, Then
+        assertThat(MinHashLsh.similarity(left, MinHashLsh.signature("LORD RINGS"))).isEqualTo(1.0);
+        assertThat(MinHashLsh.similarity(left, right)).isLessThan(1.0);
+    }
+
+    @Test
+    void testPut_whenSeriesSharesBuckets_thenCapBucketsAndStillFindNeighbours() {
+        // Arrange, Given
+        MinHashLsh series = new MinHashLsh(16);
+        int volumes = MinHashLsh.MAX_BUCKET_SIZE * 20;
+
+        // Act, When
+        for (int i = 1; i <= volumes; i++) {
+            series.put(i, "VOLUME " + i, "Collected chronicles of the northern kingdom volume " + i);
+        }
+
+        // Assert, Then
+        assertThat(series.size()).isEqualTo(volumes);
+        assertThat(series.related(volumes, 5)).hasSize(5);
+    }
+
+    @Test
+    void testPut_whenFullBucketEmptiedByRemoves_thenAcceptNewBooksAgain() {
+        // Arrange, Given
+        MinHashLsh reprints = new MinHashLsh(16);
+        String description = "Collected chronicles of the northern kingdom";
+        for (int i = 1; i <= MinHashLsh.MAX_BUCKET_SIZE + 1; i++) {
+            reprints.put(i, "CHRONICLES", description);
+        }
+        for (int i = 1; i <= MinHashLsh.MAX_BUCKET_SIZE + 1; i++) {
+            reprints.remove(i);
+        }
+
+        // Act, When
+        reprints.put(1_001L, "CHRONICLES", description);
+        reprints.put(1_002L, "CHRONICLES", description);
+
+        // Assert, Then
+        assertThat(reprints.related(1_001L, 5)).extracting(MinHashLsh.Match::id).containsExactly(1_002L);
+    }
+
+    @Test
+    void testRemove_whenKeyWasFull_thenAcceptPutsUpToTheCapAgain() {
+        // Arrange, Given
+        LongMultimap multimap = new LongMultimap(16, 2);
+        multimap.put(7L, 1L);
+        multimap.put(7L, 2L);
+        assertThat(multimap.put(7L, 3L)).isFalse();
+
+        // Act, When
+        multimap.remove(7L, 1L);
+
+        // Assert, Then
+        assertThat(multimap.isFull(7L)).isFalse();
+        assertThat(multimap.put(7L, 3L)).isTrue();
+        assertThat(multimap.put(7L, 4L)).isFalse();
+    }
+}
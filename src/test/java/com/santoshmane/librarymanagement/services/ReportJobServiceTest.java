@@ -0,0 +1,159 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.ReportJobDto;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Priority;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Status;
+import com.santoshmane.librarymanagement.dtos.ReportJobDto.Type;
+import com.santoshmane.librarymanagement.exceptions.BadRequestException;
+import com.santoshmane.librarymanagement.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path directory;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    // since dates of INACTIVE_AUTHORS reports in the order their queries ran
+    private final List<LocalDate> executed = new CopyOnWriteArrayList<>();
+    private ThreadPoolExecutor executor;
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>());
+        reportJobService = new ReportJobService(jdbcTemplate, transactionManager, directory, 3, 60_000, executor);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(statement);
+        lenient().doAnswer(invocation -> {
+            executed.add(((Date) invocation.getArgument(1)).toLocalDate());
+            return null;
+        }).when(statement).setDate(any(Integer.class), any(Date.class));
+        // Books per author reports hold the only worker until released
+        lenient().doAnswer(invocation -> {
+            invocation.<PreparedStatementCreator>getArgument(0).createPreparedStatement(connection);
+            if (executed.isEmpty()) {
+                release.await();
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSubmit_whenWorkerBusy_thenRunQueuedJobsByPriorityThenSubmission() {
+        // Arrange, Given
+        reportJobService.submit(report(Type.BOOKS_PER_AUTHOR_PER_YEAR, null, null));
+        ReportJobDto low = reportJobService.submit(report(Type.INACTIVE_AUTHORS, Priority.LOW, LocalDate.of(2001, 1, 1)));
+        reportJobService.submit(report(Type.INACTIVE_AUTHORS, null, LocalDate.of(2002, 1, 1)));
+        reportJobService.submit(report(Type.INACTIVE_AUTHORS, Priority.HIGH, LocalDate.of(2003, 1, 1)));
+
+        // Act, When
+        release.countDown();
+
+        // Assert, Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> reportJobService.getJob(low.getId()).getStatus() == Status.COMPLETED);
+        assertThat(executed).containsExactly(LocalDate.of(2003, 1, 1), LocalDate.of(2002, 1, 1), LocalDate.of(2001, 1, 1));
+        assertThat(reportJobService.getJobs()).extracting(ReportJobDto::getStatus).containsOnly(Status.COMPLETED);
+    }
+
+    @Test
+    void testSubmit_whenQueueFull_thenThrowServiceUnavailableException() {
+        // Arrange, Given
+        reportJobService.submit(report(Type.BOOKS_PER_AUTHOR_PER_YEAR, null, null));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.getActiveCount() == 1);
+        for (int i = 0; i < 3; i++) {
+            reportJobService.submit(report(Type.BOOKS_PER_AUTHOR_PER_YEAR, null, null));
+        }
+
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> reportJobService.submit(report(Type.BOOKS_PER_AUTHOR_PER_YEAR, null, null)))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Report queue is full, retry later");
+    }
+
+    @Test
+    void testCancel_whenJobQueued_thenNeverRunIt() {
+        // Arrange, Given
+        reportJobService.submit(report(Type.BOOKS_PER_AUTHOR_PER_YEAR, null, null));
+        ReportJobDto queued = reportJobService.submit(report(Type.INACTIVE_AUTHORS, null, LocalDate.of(2001, 1, 1)));
+        ReportJobDto next = reportJobService.submit(report(Type.INACTIVE_AUTHORS, null, LocalDate.of(2002, 1, 1)));
+
+        // Act, When
+        ReportJobDto cancelled = reportJobService.cancel(queued.getId());
+        release.countDown();
+
+        // Assert, Then
+        assertThat(cancelled.getStatus()).isEqualTo(Status.CANCELLED);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> reportJobService.getJob(next.getId()).getStatus() == Status.COMPLETED);
+        assertThat(executed).containsExactly(LocalDate.of(2002, 1, 1));
+    }
+
+    @Test
+    void testSubmit_whenInactiveAuthorsWithoutSince_thenThrowBadRequestException() {
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> reportJobService.submit(report(Type.INACTIVE_AUTHORS, null, null)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(reportJobService.getJobs()).isEmpty();
+    }
+
+    @Test
+    void testWriteLine_whenValuesNeedQuoting_thenEscapeAsCsv() {
+        // Arrange, Given
+        StringWriter writer = new StringWriter();
+
+        // Act, When
+        ReportJobService.writeLine(writer, new Object[]{1L, "DOE, \"JOHN\"", null, 2020});
+
+        // Assert, Then
+        assertThat(writer.toString()).isEqualTo("1,\"DOE, \"\"JOHN\"\"\",,2020\n");
+    }
+
+    private static ReportJobDto report(Type type, Priority priority, LocalDate since) {
+        return ReportJobDto.builder().type(type).priority(priority).since(since).build();
+    }
+}
@@ -0,0 +1,191 @@
+package com.santoshmane.librarymanagement.services;
+
+import com.santoshmane.librarymanagement.dtos.ReservationDto;
+import com.santoshmane.librarymanagement.entities.Book;
+import com.santoshmane.librarymanagement.entities.Reservation;
+import com.santoshmane.librarymanagement.entities.ReservationPriority;
+import com.santoshmane.librarymanagement.entities.ReservationStatus;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.ChangeType;
+import com.santoshmane.librarymanagement.events.CatalogChangeEvent.EntityType;
+import com.santoshmane.librarymanagement.exceptions.ResourceNotFoundException;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.repositories.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @InjectMocks
+    private ReservationService reservationService;
+
+    private ReservationDto reservationFor(String patronName, ReservationPriority priority) {
+        return ReservationDto.builder().patronName(patronName).priority(priority).build();
+    }
+
+    @Test
+    void testCreateReservation_whenBookExists_thenQueueInArrivalOrder() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(true);
+
+        // Act, When
+        ReservationDto first = reservationService.createReservation(1L, reservationFor("Alice", null));
+        ReservationDto second = reservationService.createReservation(1L, reservationFor("Bob", null));
+
+        // Assert, Then
+        assertThat(first.getPosition()).isEqualTo(1);
+        assertThat(first.getPriority()).isEqualTo(ReservationPriority.NORMAL);
+        assertThat(first.getStatus()).isEqualTo(ReservationStatus.ACTIVE);
+        assertThat(second.getPosition()).isEqualTo(2);
+        assertThat(reservationService.getReservations(1L)).extracting(ReservationDto::getPatronName)
+                .containsExactly("Alice", "Bob");
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void testCreateReservation_whenBookDoesNotExist_thenThrowException() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(false);
+
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> reservationService.createReservation(1L, reservationFor("Alice", null)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Book not found by id:1");
+    }
+
+    @Test
+    void testCreateReservation_whenHighPriority_thenQueueAheadOfNormalHolds() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        ReservationDto normal = reservationService.createReservation(1L, reservationFor("Alice", ReservationPriority.NORMAL));
+
+        // Act, When
+        ReservationDto high = reservationService.createReservation(1L, reservationFor("Bob", ReservationPriority.HIGH));
+
+        // Assert, Then
+        assertThat(high.getPosition()).isEqualTo(1);
+        assertThat(reservationService.getReservationPosition(1L, normal.getId()).getPosition()).isEqualTo(2);
+    }
+
+    @Test
+    void testPromoteNextReservation_whenQueueHasHolds_thenReturnHeadAsFulfilled() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        reservationService.createReservation(1L, reservationFor("Alice", null));
+        reservationService.createReservation(1L, reservationFor("Bob", null));
+
+        // Act, When
+        ReservationDto promoted = reservationService.promoteNextReservation(1L);
+
+        // Assert, Then
+        assertThat(promoted.getPatronName()).isEqualTo("Alice");
+        assertThat(promoted.getStatus()).isEqualTo(ReservationStatus.FULFILLED);
+        assertThat(reservationService.getReservations(1L)).hasSize(1);
+        assertThat(reservationService.getReservations(1L).get(0).getPosition()).isEqualTo(1);
+    }
+
+    @Test
+    void testPromoteNextReservation_whenQueueIsEmpty_thenThrowException() {
+        assertThatThrownBy(() -> reservationService.promoteNextReservation(1L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("No active reservation found for book id:1");
+    }
+
+    @Test
+    void testCancelReservation_whenReservationIsNotQueued_thenThrowException() {
+        UUID reservationId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> reservationService.cancelReservation(1L, reservationId))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("Reservation not found by id:" + reservationId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnCatalogChange_whenBooksDeletedWithTheirAuthor_thenDropTheirHoldsAndPendingInserts() {
+        // Arrange, Given
+        when(bookRepository.existsById(anyLong())).thenReturn(true);
+        when(bookRepository.getReferenceById(3L)).thenReturn(Book.builder().id(3L).build());
+        ReservationDto deleted = reservationService.createReservation(1L, reservationFor("Alice", null));
+        reservationService.createReservation(2L, reservationFor("Bob", null));
+        reservationService.createReservation(3L, reservationFor("Carol", null));
+
+        // Act, When
+        reservationService.onCatalogChange(new CatalogChangeEvent(EntityType.BOOK, ChangeType.DELETED, List.of(1L, 2L)));
+        reservationService.flushPendingWrites();
+
+        // Assert, Then
+        assertThat(reservationService.getReservations(1L)).isEmpty();
+        assertThat(reservationService.getReservations(2L)).isEmpty();
+        assertThat(reservationService.getReservations(3L)).hasSize(1);
+        assertThatThrownBy(() -> reservationService.getReservationPosition(1L, deleted.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        ArgumentCaptor<List<Reservation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Reservation::getPatronName).containsExactly("Carol");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushPendingWrites_whenReservationCancelledBeforeFlush_thenInsertAsCancelledInOneBatch() {
+        // Arrange, Given
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.getReferenceById(1L)).thenReturn(Book.builder().id(1L).build());
+        ReservationDto first = reservationService.createReservation(1L, reservationFor("Alice", null));
+        reservationService.createReservation(1L, reservationFor("Bob", null));
+        reservationService.cancelReservation(1L, first.getId());
+
+        // Act, When
+        reservationService.flushPendingWrites();
+        reservationService.flushPendingWrites();
+
+        // Assert, Then
+        ArgumentCaptor<List<Reservation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Reservation::getStatus)
+                .containsExactly(ReservationStatus.CANCELLED, ReservationStatus.ACTIVE);
+        verify(reservationRepository, never()).updateStatusByIdIn(any(), anyCollection());
+    }
+
+    @Test
+    void testFlushPendingWrites_whenPersistedReservationPromoted_thenUpdateStatusInBulk() {
+        // Arrange, Given
+        UUID reservationId = UUID.randomUUID();
+        Reservation persisted = Reservation.builder()
+                .id(reservationId)
+                .book(Book.builder().id(1L).build())
+                .patronName("Alice")
+                .priority(ReservationPriority.NORMAL)
+                .status(ReservationStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(reservationRepository.findByStatusOrderByCreatedAt(ReservationStatus.ACTIVE)).thenReturn(List.of(persisted));
+        reservationService.rebuildHoldQueues();
+
+        // Act, When
+        reservationService.promoteNextReservation(1L);
+        reservationService.flushPendingWrites();
+
+        // Assert, Then
+        verify(reservationRepository, times(1)).updateStatusByIdIn(ReservationStatus.FULFILLED, List.of(reservationId));
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+}
@@ -0,0 +1,78 @@
+package com.santoshmane.librarymanagement.snapshot;
+
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogSnapshotFormatTest {
+
+    @TempDir
+    Path directory;
+
+    private final CatalogSnapshot snapshot = new CatalogSnapshot(
+            Instant.parse("2024-05-01T10:15:30Z"),
+            List.of(new AuthorDto(1L, "JOHN DOE"), new AuthorDto(2L, "GABRIEL GARCÍA MÁRQUEZ")),
+            List.of(new BookDto(10L, "FIRST BOOK", "First description", LocalDate.of(2020, 1, 2), 1L, "JOHN DOE"),
+                    new BookDto(11L, "ORPHAN BOOK", null, null, null, null)));
+
+    @Test
+    void testRead_whenWrittenSnapshot_thenRoundTripWithAuthorIdsOnly() throws IOException {
+        // Arrange, Given
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFormat.write(path, snapshot);
+
+        // Act, When
+        CatalogSnapshot read = CatalogSnapshotFormat.read(path);
+
+        // Assert, Then
+        assertThat(read.getCreatedAt()).isEqualTo(snapshot.getCreatedAt());
+        assertThat(read.getAuthors()).extracting(AuthorDto::getName).containsExactly("JOHN DOE", "GABRIEL GARCÍA MÁRQUEZ");
+        assertThat(read.getBooks()).usingRecursiveFieldByFieldElementComparatorIgnoringFields("createdBy.name")
+                .containsExactlyElementsOf(snapshot.getBooks());
+        assertThat(read.getBooks().get(0).getCreatedBy().getName()).isNull();
+        assertThat(directory.toFile().list()).containsExactly("catalog.snapshot");
+    }
+
+    @Test
+    void testRead_whenBodyCorrupted_thenRejectChecksum() throws IOException {
+        // Arrange, Given
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFormat.write(path, snapshot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), CatalogSnapshotFormat.HEADER_LENGTH + 3);
+        }
+
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> CatalogSnapshotFormat.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void testRead_whenFormatVersionUnknown_thenReject() throws IOException {
+        // Arrange, Given
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFormat.write(path, snapshot);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, CatalogSnapshotFormat.VERSION + 1), 4);
+        }
+
+        // Act & Assert, When & Then
+        assertThatThrownBy(() -> CatalogSnapshotFormat.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported catalog snapshot version");
+    }
+}
@@ -0,0 +1,127 @@
+package com.santoshmane.librarymanagement.snapshot;
+
+import com.santoshmane.librarymanagement.cache.HotKeyTracker;
+import com.santoshmane.librarymanagement.cache.ResponseCache;
+import com.santoshmane.librarymanagement.config.AppConfig;
+import com.santoshmane.librarymanagement.dtos.AuthorDto;
+import com.santoshmane.librarymanagement.dtos.BookDto;
+import com.santoshmane.librarymanagement.repositories.AuthorRepository;
+import com.santoshmane.librarymanagement.repositories.BookRepository;
+import com.santoshmane.librarymanagement.services.AuthorNameIndex;
+import com.santoshmane.librarymanagement.services.BookDuplicateGuard;
+import com.santoshmane.librarymanagement.services.RelatedBooksIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private HotKeyTracker hotKeyTracker;
+    @Mock
+    private AuthorNameIndex authorNameIndex;
+    @Mock
+    private RelatedBooksIndex relatedBooksIndex;
+    @Mock
+    private BookDuplicateGuard bookDuplicateGuard;
+
+    private final ResponseCache responseCache = new ResponseCache(1 << 20, 60_000);
+    private CatalogSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new CatalogSnapshotService(authorRepository, bookRepository, jdbcTemplate, transactionManager,
+                cacheManager, responseCache, hotKeyTracker, authorNameIndex, relatedBooksIndex, bookDuplicateGuard, true, Path.of("unused"), 60_000);
+    }
+
+    @Test
+    void testCatchUp_whenRowsChangedAfterSnapshot_thenApplyChangesDeletesAndAuthorNames() {
+        // Arrange, Given
+        Instant createdAt = Instant.parse("2024-05-01T10:00:00Z");
+        CatalogSnapshot snapshot = new CatalogSnapshot(createdAt,
+                List.of(new AuthorDto(1L, "JOHN DOE"), new AuthorDto(2L, "DELETED AUTHOR")),
+                List.of(new BookDto(10L, "FIRST BOOK", "First", LocalDate.of(2020, 1, 1), 1L, null),
+                        new BookDto(11L, "DELETED BOOK", "Gone", null, 2L, null)));
+        Instant since = createdAt.minusSeconds(60);
+        when(authorRepository.findAuthorDtosUpdatedSince(since)).thenReturn(List.of(new AuthorDto(1L, "JOHN RENAMED")));
+        when(authorRepository.findAllIds()).thenReturn(List.of(1L));
+        when(bookRepository.findBookDtosUpdatedSince(since))
+                .thenReturn(List.of(new BookDto(12L, "NEW BOOK", "New", null, 1L, "JOHN RENAMED")));
+        when(bookRepository.findAllIds()).thenReturn(List.of(10L, 12L));
+
+        // Act, When
+        CatalogSnapshot caughtUp = snapshotService.catchUp(snapshot);
+
+        // Assert, Then
+        assertThat(caughtUp.getAuthors()).extracting(AuthorDto::getName).containsExactly("JOHN RENAMED");
+        assertThat(caughtUp.getBooks()).extracting(BookDto::getId).containsExactly(10L, 12L);
+        assertThat(caughtUp.getBooks()).extracting(book -> book.getCreatedBy().getName()).containsOnly("JOHN RENAMED");
+    }
+
+    @Test
+    void testWarmCaches_whenCachesInvalidatedSinceCatalogWasRead_thenDropWarmedEntries() {
+        // Arrange, Given
+        Cache books = new ConcurrentMapCache(AppConfig.BOOKS_CACHE);
+        Cache authors = new ConcurrentMapCache(AppConfig.AUTHORS_CACHE);
+        when(cacheManager.getCache(AppConfig.BOOKS_CACHE)).thenReturn(books);
+        when(cacheManager.getCache(AppConfig.AUTHORS_CACHE)).thenReturn(authors);
+        when(hotKeyTracker.hotBookIds()).thenReturn(List.of(10L));
+        when(hotKeyTracker.hotAuthorIds()).thenReturn(List.of(1L));
+        CatalogSnapshot catalog = new CatalogSnapshot(Instant.now(),
+                List.of(new AuthorDto(1L, "JOHN DOE")),
+                List.of(new BookDto(10L, "FIRST BOOK", "First", null, 1L, "JOHN DOE")));
+        long generation = responseCache.generation();
+        responseCache.clear();
+
+        // Act, When
+        snapshotService.warmCaches(catalog, generation);
+
+        // Assert, Then
+        assertThat(books.get(10L)).isNull();
+        assertThat(authors.get(1L)).isNull();
+    }
+
+    @Test
+    void testWarmCaches_whenNothingInvalidated_thenPutHotEntriesFromHotKeyTracker() {
+        // Arrange, Given
+        Cache books = new ConcurrentMapCache(AppConfig.BOOKS_CACHE);
+        when(cacheManager.getCache(AppConfig.BOOKS_CACHE)).thenReturn(books);
+        when(hotKeyTracker.hotBookIds()).thenReturn(List.of(10L));
+        when(hotKeyTracker.hotAuthorIds()).thenReturn(List.of());
+        CatalogSnapshot catalog = new CatalogSnapshot(Instant.now(), List.of(),
+                List.of(new BookDto(10L, "FIRST BOOK", "First", null, null, null), new BookDto(11L, "COLD BOOK", "Cold", null, null, null)));
+
+        // Act, When
+        snapshotService.warmCaches(catalog, responseCache.generation());
+
+        // Assert, Then
+        assertThat(books.get(10L)).isNotNull();
+        assertThat(books.get(11L)).isNull();
+    }
+}